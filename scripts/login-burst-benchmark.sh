@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+#
+# Login burst benchmark: fires a burst of concurrent POST /api/auth/login requests
+# for one registered user and reports latency percentiles per response status.
+#
+# Usage: scripts/login-burst-benchmark.sh [logins] [jar]
+#        (default 300 logins against target/scoretracker-0.0.1-SNAPSHOT.jar)
+#
+# Runs against an in-memory H2 database with rate limiting off, so only the login
+# path is measured. Extra application arguments can be passed in BENCH_ARGS.
+
+set -euo pipefail
+
+LOGINS="${1:-300}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="${2:-$ROOT/target/scoretracker-0.0.1-SNAPSHOT.jar}"
+PORT="${BENCH_PORT:-8089}"
+WORK="$ROOT/target/login-burst-benchmark"
+URL="http://localhost:$PORT"
+
+mkdir -p "$WORK"
+
+if [[ ! -f "$JAR" ]]; then
+    (cd "$ROOT" && sh ./mvnw -B -q -DskipTests package)
+fi
+
+# shellcheck disable=SC2206
+EXTRA_ARGS=(${BENCH_ARGS:-})
+java -jar "$JAR" \
+    --server.port="$PORT" \
+    --app.archive.enabled=false \
+    --app.rateLimit.enabled=false \
+    --spring.datasource.url="jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE" \
+    --spring.datasource.driver-class-name=org.h2.Driver \
+    --spring.datasource.username=sa \
+    --spring.datasource.password= \
+    --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect \
+    --spring.jpa.show-sql=false \
+    "${EXTRA_ARGS[@]}" >"$WORK/app.log" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+until [[ "$(curl -s -o /dev/null -w '%{http_code}' -X POST "$URL/api/guest/session" || true)" == "200" ]]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "process exited before serving requests, see $WORK/app.log" >&2
+        exit 1
+    fi
+    sleep 0.2
+done
+
+curl -s -o /dev/null -X POST "$URL/api/auth/register" -H 'Content-Type: application/json' \
+    -d '{"username":"burst","email":"burst@example.com","password":"secret123"}'
+# One warm-up login, so class loading is not part of the burst
+curl -s -o /dev/null -X POST "$URL/api/auth/login" -H 'Content-Type: application/json' \
+    -d '{"username":"burst","password":"secret123"}'
+
+# Every request is started before the first one can finish
+seq "$LOGINS" | xargs -P "$LOGINS" -I{} curl -s -o /dev/null -w '%{http_code} %{time_total}\n' \
+    -X POST "$URL/api/auth/login" -H 'Content-Type: application/json' \
+    -d '{"username":"burst","password":"secret123"}' >"$WORK/results.txt"
+
+echo "$LOGINS concurrent logins, $(nproc) CPU(s)"
+sort -k1,1 -k2,2n "$WORK/results.txt" | awk '
+    function report(code, n) {
+        printf "  %s: %4d   p50 %6.2fs   p99 %6.2fs   max %6.2fs\n",
+            code, n, t[int((n + 1) * 0.5)], t[int(n * 0.99 + 0.5) < 1 ? 1 : int(n * 0.99 + 0.5)], t[n]
+    }
+    $1 != code && n > 0 { report(code, n); n = 0 }
+    { code = $1; t[++n] = $2 }
+    END { if (n > 0) report(code, n) }'
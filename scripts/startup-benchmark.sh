@@ -0,0 +1,103 @@
+#!/usr/bin/env bash
+#
+# Cold-start benchmark: time from process launch to the first successful
+# POST /api/guest/session, plus resident memory at that point, for
+#
+#   jvm     plain executable jar
+#   cds     extracted jar with an AppCDS archive from a training run
+#   native  GraalVM native image (skipped unless target/scoretracker exists;
+#           build it with ./mvnw -Pnative native:compile on a GraalVM JDK)
+#
+# Usage: scripts/startup-benchmark.sh [runs]     (default 5 runs per variant)
+#
+# Runs against an in-memory H2 database by default so only startup is measured.
+# Set BENCH_DB=env to use the datasource from the environment instead.
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${BENCH_PORT:-8089}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup-benchmark"
+JAR="$ROOT/target/scoretracker-0.0.1-SNAPSHOT.jar"
+NATIVE="$ROOT/target/scoretracker"
+
+APP_ARGS=(--server.port="$PORT" --app.archive.enabled=false)
+if [[ "${BENCH_DB:-h2}" == "h2" ]]; then
+    APP_ARGS+=(
+        --spring.datasource.url="jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+        --spring.datasource.driver-class-name=org.h2.Driver
+        --spring.datasource.username=sa
+        --spring.datasource.password=
+        --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect
+        --spring.jpa.show-sql=false
+    )
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Launch the given command, wait for the first 200 from the guest session endpoint,
+# then print "<milliseconds> <rss kB>" and stop the process
+measure() {
+    local start pid code rss elapsed
+    start=$(now_ms)
+    "$@" "${APP_ARGS[@]}" >"$WORK/app.log" 2>&1 &
+    pid=$!
+
+    while true; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "process exited before serving requests, see $WORK/app.log" >&2
+            return 1
+        fi
+        code=$(curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/api/guest/session" || true)
+        [[ "$code" == "200" ]] && break
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+run_variant() {
+    local name="$1"
+    shift
+    local results=()
+    for _ in $(seq "$RUNS"); do
+        results+=("$(measure "$@")")
+    done
+    printf '%s\n' "${results[@]}" | sort -n | awk -v name="$name" '
+        { ms[NR] = $1; rss[NR] = $2 }
+        END {
+            mid = int((NR + 1) / 2)
+            printf "%-8s first request p50 %6d ms  (min %d, max %d)   RSS %7.1f MB\n",
+                name, ms[mid], ms[1], ms[NR], rss[mid] / 1024
+        }'
+}
+
+mkdir -p "$WORK"
+
+if [[ ! -f "$JAR" ]]; then
+    (cd "$ROOT" && sh ./mvnw -B -q -DskipTests package)
+fi
+
+run_variant jvm java -jar "$JAR"
+
+# AppCDS: extract the jar, do a training run that stops after the context refreshes,
+# then start from the dumped class data archive
+rm -rf "$WORK/extracted"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted" >/dev/null
+EXTRACTED_JAR="$WORK/extracted/$(basename "$JAR")"
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+    -jar "$EXTRACTED_JAR" "${APP_ARGS[@]}" >"$WORK/training.log" 2>&1 || true
+run_variant cds java -XX:SharedArchiveFile="$WORK/app.jsa" -jar "$EXTRACTED_JAR"
+
+if [[ -x "$NATIVE" ]]; then
+    run_variant native "$NATIVE"
+else
+    echo "native   skipped: $NATIVE not found (./mvnw -Pnative native:compile)"
+fi
@@ -1,11 +1,14 @@
 package com.volleyball.scoretracker;
 
+import com.volleyball.scoretracker.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class ScoretrackerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,34 @@
+package com.volleyball.scoretracker.config;
+
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.event.InProcessEventBus;
+import com.volleyball.scoretracker.event.PostgresEventBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// app.events.bus=postgres shares events between nodes; in-process (the default) keeps them on this node
+@Configuration
+public class EventBusConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "app.events.bus", havingValue = "postgres")
+    public ClusterEventBus postgresEventBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                            @Value("${app.events.pollMs:500}") int pollMs,
+                                            @Value("${app.events.reconnectDelayMs:5000}") long reconnectDelayMs) {
+        return new PostgresEventBus(jdbcTemplate,
+            dataSourceProperties.determineUrl(),
+            dataSourceProperties.determineUsername(),
+            dataSourceProperties.determinePassword(),
+            pollMs, reconnectDelayMs);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.events.bus", havingValue = "in-process", matchIfMissing = true)
+    public ClusterEventBus inProcessEventBus() {
+        return new InProcessEventBus();
+    }
+}
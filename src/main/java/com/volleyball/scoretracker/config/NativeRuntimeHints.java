@@ -0,0 +1,102 @@
+package com.volleyball.scoretracker.config;
+
+import com.volleyball.scoretracker.controller.MatchController;
+import com.volleyball.scoretracker.dto.AccountPurgeResponse;
+import com.volleyball.scoretracker.dto.AuthResponse;
+import com.volleyball.scoretracker.dto.ClaimResponse;
+import com.volleyball.scoretracker.dto.CourtState;
+import com.volleyball.scoretracker.dto.CreateMatchRequest;
+import com.volleyball.scoretracker.dto.DashboardResponse;
+import com.volleyball.scoretracker.dto.DeleteMatchesRequest;
+import com.volleyball.scoretracker.dto.DeleteMatchesResponse;
+import com.volleyball.scoretracker.dto.GuestSessionResponse;
+import com.volleyball.scoretracker.dto.LeaderboardEntry;
+import com.volleyball.scoretracker.dto.LoginRequest;
+import com.volleyball.scoretracker.dto.MessageResponse;
+import com.volleyball.scoretracker.dto.RegisterRequest;
+import com.volleyball.scoretracker.dto.ScoreUpdateRequest;
+import com.volleyball.scoretracker.dto.TeamStatsResponse;
+import com.volleyball.scoretracker.dto.ValidationResponse;
+import com.volleyball.scoretracker.model.AccountPurge;
+import com.volleyball.scoretracker.model.ArchivedMatch;
+import com.volleyball.scoretracker.model.GuestSession;
+import com.volleyball.scoretracker.model.HeadToHead;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchScoreboard;
+import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.model.Momentum;
+import com.volleyball.scoretracker.model.ScoringRules;
+import com.volleyball.scoretracker.model.ScoringRulesConverter;
+import com.volleyball.scoretracker.model.SetScore;
+import com.volleyball.scoretracker.model.Team;
+import com.volleyball.scoretracker.model.TeamRating;
+import com.volleyball.scoretracker.model.User;
+import com.volleyball.scoretracker.model.UserType;
+import com.volleyball.scoretracker.service.MatchService;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image build (mvn -Pnative native:compile).
+ *
+ * Spring's AOT processing already covers beans, repositories and controller signatures;
+ * this adds what it cannot see: entities read by Hibernate, bodies bound by Jackson,
+ * and the jjwt implementation classes that jjwt-api loads by name.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+        Match.class, SetScore.class, User.class, GuestSession.class, ArchivedMatch.class, Team.class, TeamRating.class,
+        AccountPurge.class, MatchStatus.class, UserType.class, ScoringRulesConverter.class);
+
+    private static final List<Class<?>> JSON_BODIES = List.of(
+        AuthResponse.class, ClaimResponse.class, CreateMatchRequest.class, GuestSessionResponse.class,
+        LeaderboardEntry.class, LoginRequest.class, MessageResponse.class, RegisterRequest.class,
+        ScoreUpdateRequest.class, TeamStatsResponse.class, ValidationResponse.class,
+        MatchController.EditSetRequest.class, MatchController.EditScoreRequest.class,
+        MatchService.MatchStatistics.class, Momentum.class, HeadToHead.class, HeadToHead.Result.class,
+        ScoringRules.class, DashboardResponse.class, CourtState.class, DeleteMatchesRequest.class,
+        DeleteMatchesResponse.class, AccountPurgeResponse.class, MatchScoreboard.class);
+
+    // jjwt-api instantiates these through Classes.newInstance / ServiceLoader
+    private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParser",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultClaims",
+        "io.jsonwebtoken.impl.DefaultHeader",
+        "io.jsonwebtoken.impl.DefaultJwsHeader",
+        "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+        "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+        "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity, MemberCategory.values());
+        }
+
+        for (Class<?> body : JSON_BODIES) {
+            hints.reflection().registerType(body,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+        }
+
+        for (String className : JJWT_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(className),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // Flyway lists SQL migrations from the classpath at startup
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,37 @@
+package com.volleyball.scoretracker.config;
+
+import com.volleyball.scoretracker.datasource.ReadYourWritesInterceptor;
+import com.volleyball.scoretracker.model.MatchFields;
+import com.volleyball.scoretracker.security.RateLimitInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Autowired
+    private ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Runs after JwtAuthenticationFilter, so the authenticated user id is available
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/api/matches/**", "/api/matches", "/api/guest/**", "/api/leaderboard");
+        // Every write pins its client to the primary; GETs are routed to the replica otherwise
+        registry.addInterceptor(readYourWritesInterceptor)
+                .addPathPatterns("/api/**");
+    }
+
+    // Matches are written through a property filter; without ?fields= it passes everything
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer matchFieldsFilter() {
+        return builder -> builder.filters(MatchFields.EVERYTHING);
+    }
+}
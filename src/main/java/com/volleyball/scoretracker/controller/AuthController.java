@@ -1,18 +1,26 @@
 package com.volleyball.scoretracker.controller;
 
 import com.volleyball.scoretracker.dto.*;
+import com.volleyball.scoretracker.model.AccountPurge;
 import com.volleyball.scoretracker.model.User;
+import com.volleyball.scoretracker.service.AccountPurgeService;
+import com.volleyball.scoretracker.service.GuestSessionService;
+import com.volleyball.scoretracker.service.LoginService;
+import com.volleyball.scoretracker.service.MatchService;
 import com.volleyball.scoretracker.service.UserService;
 import com.volleyball.scoretracker.security.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -23,16 +31,37 @@ public class AuthController {
     private UserService userService;
     
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
+    
+    @Autowired
+    private MatchService matchService;
+    
+    @Autowired
+    private AccountPurgeService accountPurgeService;
+    
+    @Autowired
+    private GuestSessionService guestSessionService;
     
     @Autowired
     private JwtUtils jwtUtils;
     
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request,
+                                      @RequestHeader(value = "Guest-Session-Id", required = false) String guestSessionId) {
         try {
             User user = userService.createUser(request);
             
+            // Carry the guest's match history over to the new account
+            Optional<String> sessionId = guestSessionId != null
+                ? guestSessionService.resolveToken(guestSessionId.trim()) : Optional.empty();
+            if (sessionId.isPresent()) {
+                try {
+                    matchService.claimGuestMatches(user.getId(), sessionId.get());
+                } catch (RuntimeException e) {
+                    System.out.println("Could not claim guest matches: " + e.getMessage());
+                }
+            }
+            
             String jwt = jwtUtils.generateJwtToken(user.getUsername());
             
             AuthResponse response = new AuthResponse();
@@ -49,35 +78,94 @@ public class AuthController {
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        try {
+            // Password verification runs on the login pool, freeing this request thread
+            return loginService.login(request.getUsername(), request.getPassword())
+                .<ResponseEntity<?>>thenApply(user -> {
+                    String jwt = jwtUtils.generateJwtToken(user.getUsername());
+                    
+                    AuthResponse response = new AuthResponse();
+                    response.setToken(jwt);
+                    response.setUsername(user.getUsername());
+                    response.setEmail(user.getEmail());
+                    
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    MessageResponse errorResponse = new MessageResponse();
+                    if (cause instanceof AuthenticationException) {
+                        errorResponse.setMessage("Invalid credentials");
+                    } else {
+                        errorResponse.setMessage("Login failed: " + cause.getMessage());
+                    }
+                    return ResponseEntity.badRequest().body(errorResponse);
+                });
+        } catch (RejectedExecutionException e) {
+            MessageResponse errorResponse = new MessageResponse();
+            errorResponse.setMessage("Login service is busy, please retry shortly");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse));
+        }
+    }
+    
+    // Move a guest session's matches into the logged-in user's account
+    @PostMapping("/claim-guest")
+    public ResponseEntity<?> claimGuestMatches(@RequestHeader("Authorization") String authHeader,
+                                               @RequestHeader("Guest-Session-Id") String guestSessionId) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
+            if (authHeader == null || !authHeader.startsWith("Bearer ") ||
+                !jwtUtils.validateJwtToken(authHeader.substring(7))) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Invalid token"));
+            }
             
-            User user = userService.findByUsername(request.getUsername())
+            String username = jwtUtils.getUsernameFromToken(authHeader.substring(7));
+            User user = userService.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-            userService.updateLastLogin(user);
-            
-            String jwt = jwtUtils.generateJwtToken(user.getUsername());
-            
-            AuthResponse response = new AuthResponse();
-            response.setToken(jwt);
-            response.setUsername(user.getUsername());
-            response.setEmail(user.getEmail());
             
-            return ResponseEntity.ok(response);
-        } catch (AuthenticationException e) {
+            String sessionId = guestSessionService.resolveToken(guestSessionId.trim())
+                .orElseThrow(() -> new RuntimeException("Invalid guest session"));
+            int claimed = matchService.claimGuestMatches(user.getId(), sessionId);
+            return ResponseEntity.ok(new ClaimResponse(claimed));
+        } catch (RuntimeException e) {
             MessageResponse errorResponse = new MessageResponse();
-            errorResponse.setMessage("Invalid credentials");
+            errorResponse.setMessage(e.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
+        }
+    }
+    
+    // Delete the logged-in account: locked out at once, its history removed in the background
+    @DeleteMapping("/account")
+    public ResponseEntity<?> deleteAccount(@RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ") ||
+                !jwtUtils.validateJwtToken(authHeader.substring(7))) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Invalid token"));
+            }
+            
+            String username = jwtUtils.getUsernameFromToken(authHeader.substring(7));
+            User user = userService.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+            
+            AccountPurge purge = accountPurgeService.requestPurge(user.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(AccountPurgeResponse.from(purge));
+        } catch (RuntimeException e) {
             MessageResponse errorResponse = new MessageResponse();
-            errorResponse.setMessage("Login failed: " + e.getMessage());
+            errorResponse.setMessage(e.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
     
+    // Progress of an account deletion; the purge id from the delete response is the only handle
+    @GetMapping("/account-purges/{purgeId}")
+    public ResponseEntity<?> getAccountPurge(@PathVariable String purgeId) {
+        return accountPurgeService.findPurge(purgeId)
+            .<ResponseEntity<?>>map(purge -> ResponseEntity.ok(AccountPurgeResponse.from(purge)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Account purge not found")));
+    }
+    
     @PostMapping("/validate")
     public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String authHeader) {
         try {
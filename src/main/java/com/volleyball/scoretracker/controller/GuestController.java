@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/guest")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -22,7 +24,7 @@ public class GuestController {
             GuestSession session = guestSessionService.createGuestSession();
             
             GuestSessionResponse response = new GuestSessionResponse();
-            response.setSessionId(session.getSessionId());
+            response.setSessionId(guestSessionService.issueToken(session));
             response.setExpiresAt(session.getExpiresAt().toString());
             
             return ResponseEntity.ok(response);
@@ -35,7 +37,7 @@ public class GuestController {
     @GetMapping("/session/{sessionId}/validate")
     public ResponseEntity<ValidationResponse> validateSession(@PathVariable String sessionId) {
         try {
-            boolean isValid = guestSessionService.isSessionValid(sessionId);
+            boolean isValid = guestSessionService.resolveToken(sessionId).isPresent();
             ValidationResponse response = new ValidationResponse();
             response.setValid(isValid);
             return ResponseEntity.ok(response);
@@ -50,7 +52,10 @@ public class GuestController {
     @DeleteMapping("/session/{sessionId}")
     public ResponseEntity<Void> deleteGuestSession(@PathVariable String sessionId) {
         try {
-            // Optional: Add method to delete specific guest session
+            Optional<String> resolved = guestSessionService.resolveToken(sessionId);
+            if (!resolved.isPresent() || !guestSessionService.deleteSession(resolved.get())) {
+                return ResponseEntity.notFound().build();
+            }
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             System.out.println("Error deleting guest session: " + e.getMessage());
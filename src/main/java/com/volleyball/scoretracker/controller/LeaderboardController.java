@@ -0,0 +1,24 @@
+package com.volleyball.scoretracker.controller;
+
+import com.volleyball.scoretracker.dto.LeaderboardEntry;
+import com.volleyball.scoretracker.service.TeamRatingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@CrossOrigin(origins = "http://localhost:3000")
+public class LeaderboardController {
+    
+    @Autowired
+    private TeamRatingService teamRatingService;
+    
+    // Top teams by Elo rating, served from memory
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(teamRatingService.getLeaderboard(limit));
+    }
+}
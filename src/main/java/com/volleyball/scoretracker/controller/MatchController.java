@@ -1,22 +1,40 @@
 package com.volleyball.scoretracker.controller;
 
 import com.volleyball.scoretracker.dto.CreateMatchRequest;
+import com.volleyball.scoretracker.dto.DashboardResponse;
+import com.volleyball.scoretracker.dto.DeleteMatchesRequest;
+import com.volleyball.scoretracker.dto.DeleteMatchesResponse;
 import com.volleyball.scoretracker.dto.ScoreUpdateRequest;
+import com.volleyball.scoretracker.dto.TeamStatsResponse;
+import com.volleyball.scoretracker.model.HeadToHead;
 import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchFields;
 import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.model.ScoringRules;
+import com.volleyball.scoretracker.model.SetScore;
 import com.volleyball.scoretracker.repository.MatchRepository;
+import com.volleyball.scoretracker.service.DashboardService;
+import com.volleyball.scoretracker.service.GuestSessionService;
+import com.volleyball.scoretracker.service.HeadToHeadService;
+import com.volleyball.scoretracker.service.LiveMatchService;
+import com.volleyball.scoretracker.service.MatchResponseCache;
 import com.volleyball.scoretracker.service.MatchService;
+import com.volleyball.scoretracker.service.TeamAnalyticsService;
 import com.volleyball.scoretracker.service.UserService;
 import com.volleyball.scoretracker.security.JwtUtils;
 import com.volleyball.scoretracker.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/matches")
@@ -29,12 +47,37 @@ public class MatchController {
     @Autowired
     private MatchService matchService;
     
+    @Autowired
+    private LiveMatchService liveMatchService;
+    
+    @Autowired
+    private TeamAnalyticsService teamAnalyticsService;
+    
+    @Autowired
+    private HeadToHeadService headToHeadService;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private MatchResponseCache matchResponseCache;
+    
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private GuestSessionService guestSessionService;
+    
     @Autowired
     private JwtUtils jwtUtils;
     
+    // A match list written with only the requested properties of each match
+    private static MappingJacksonValue withFields(List<?> matches, Set<String> fields) {
+        MappingJacksonValue body = new MappingJacksonValue(matches);
+        body.setFilters(MatchFields.filter(fields));
+        return body;
+    }
+    
     // Helper method to extract user context from request
     private UserContext getUserContext(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
@@ -57,25 +100,41 @@ public class MatchController {
                 System.out.println("Invalid JWT token: " + e.getMessage());
             }
         } else if (guestSessionId != null && !guestSessionId.trim().isEmpty()) {
-            context.guestSessionId = guestSessionId;
-            context.isGuest = true;
+            // The header carries a signed token; a forged, expired or deleted one leaves the request anonymous
+            Optional<String> sessionId = guestSessionService.resolveToken(guestSessionId.trim());
+            if (sessionId.isPresent()) {
+                context.guestSessionId = sessionId.get();
+                context.isGuest = true;
+            }
         }
         
         return context;
     }
     
-    // Get all matches for the authenticated user or guest session
+    // Get all matches for the authenticated user or guest session; ?fields= narrows each match
     @GetMapping
-    public ResponseEntity<List<Match>> getAllMatches(HttpServletRequest request) {
+    public ResponseEntity<MappingJacksonValue> getAllMatches(@RequestParam(required = false) String fields,
+                                                             HttpServletRequest request) {
+        Set<String> selected;
+        try {
+            selected = MatchFields.parse(fields);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             UserContext context = getUserContext(request);
+            boolean scoreboard = MatchFields.onScoreboard(selected);
             
             if (context.isAuthenticated) {
-                List<Match> matches = matchService.getMatchesForUser(context.userId);
-                return ResponseEntity.ok(matches);
+                List<?> matches = scoreboard
+                    ? matchService.getScoreboardsForUser(context.userId)
+                    : matchService.getMatchesForUser(context.userId);
+                return ResponseEntity.ok(withFields(matches, selected));
             } else if (context.isGuest) {
-                List<Match> matches = matchService.getMatchesForGuestSession(context.guestSessionId);
-                return ResponseEntity.ok(matches);
+                List<?> matches = scoreboard
+                    ? matchService.getScoreboardsForGuestSession(context.guestSessionId)
+                    : matchService.getMatchesForGuestSession(context.guestSessionId);
+                return ResponseEntity.ok(withFields(matches, selected));
             } else {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
@@ -87,16 +146,19 @@ public class MatchController {
     
     // Get match by ID with ownership verification
     @GetMapping("/{id}")
-    public ResponseEntity<Match> getMatchById(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<byte[]> getMatchById(@PathVariable Long id, @RequestParam(required = false) String fields,
+                                               HttpServletRequest request) {
         try {
+            Set<String> selected = MatchFields.parse(fields);
             UserContext context = getUserContext(request);
             
             if (!context.isAuthenticated && !context.isGuest) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
             
-            Match match = matchService.getMatchById(id, context.userId, context.guestSessionId);
-            return ResponseEntity.ok(match);
+            // Pre-serialized and shared by all readers of the match; concurrent misses share one load
+            byte[] json = matchResponseCache.getMatchJson(id, context.userId, context.guestSessionId, selected);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
         } catch (RuntimeException e) {
             System.out.println("Error fetching match: " + e.getMessage());
             if (e.getMessage().contains("not found")) {
@@ -112,6 +174,29 @@ public class MatchController {
         }
     }
     
+    // Get the per-set detail rows of a match
+    @GetMapping("/{id}/sets")
+    public ResponseEntity<List<SetScore>> getSetDetails(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            UserContext context = getUserContext(request);
+            
+            if (!context.isAuthenticated && !context.isGuest) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            
+            List<SetScore> sets = matchService.getSetDetails(id, context.userId, context.guestSessionId);
+            return ResponseEntity.ok(sets);
+        } catch (RuntimeException e) {
+            System.out.println("Error fetching set details: " + e.getMessage());
+            if (e.getMessage().contains("not found")) {
+                return ResponseEntity.notFound().build();
+            } else if (e.getMessage().contains("Unauthorized")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Create new match
     @PostMapping
     public ResponseEntity<Match> createMatch(@RequestBody CreateMatchRequest request, HttpServletRequest httpRequest) {
@@ -131,6 +216,14 @@ public class MatchController {
                 return ResponseEntity.badRequest().build();
             }
             
+            ScoringRules rules;
+            try {
+                rules = rulesFor(request);
+            } catch (RuntimeException e) {
+                System.out.println("Bad request - " + e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+            
             System.out.println("Getting user context...");
             UserContext context = getUserContext(httpRequest);
             System.out.println("User context - isAuthenticated: " + context.isAuthenticated);
@@ -147,6 +240,7 @@ public class MatchController {
             Match match = matchService.createMatch(
                 request.getTeam1Name(), 
                 request.getTeam2Name(), 
+                rules,
                 context.userId, 
                 context.guestSessionId
             );
@@ -163,6 +257,19 @@ public class MatchController {
         }
     }
     
+    // Built-in rule set by name, or a custom one from the request's fields
+    private ScoringRules rulesFor(CreateMatchRequest request) {
+        if (!"custom".equalsIgnoreCase(request.getRuleSet())) {
+            return ScoringRules.fromSpec(request.getRuleSet());
+        }
+        ScoringRules defaults = ScoringRules.INDOOR;
+        return ScoringRules.custom(
+            request.getSetPoints() != null ? request.getSetPoints() : defaults.getSetPoints(),
+            request.getDecidingSetPoints() != null ? request.getDecidingSetPoints() : defaults.getDecidingSetPoints(),
+            request.getWinBy() != null ? request.getWinBy() : defaults.getWinBy(),
+            request.getBestOf() != null ? request.getBestOf() : defaults.getBestOf());
+    }
+    
     // Update match score
     @PutMapping("/{id}/score")
     public ResponseEntity<Match> updateScore(@PathVariable Long id, @RequestBody ScoreUpdateRequest request, HttpServletRequest httpRequest) {
@@ -282,16 +389,28 @@ public class MatchController {
     
     // Get active (in-progress) matches
     @GetMapping("/active")
-    public ResponseEntity<List<Match>> getActiveMatches(HttpServletRequest request) {
+    public ResponseEntity<MappingJacksonValue> getActiveMatches(@RequestParam(required = false) String fields,
+                                                                HttpServletRequest request) {
+        Set<String> selected;
+        try {
+            selected = MatchFields.parse(fields);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             UserContext context = getUserContext(request);
+            boolean scoreboard = MatchFields.onScoreboard(selected);
             
             if (context.isAuthenticated) {
-                List<Match> matches = matchService.getActiveMatchesForUser(context.userId);
-                return ResponseEntity.ok(matches);
+                List<?> matches = scoreboard
+                    ? matchService.getActiveScoreboardsForUser(context.userId)
+                    : matchService.getActiveMatchesForUser(context.userId);
+                return ResponseEntity.ok(withFields(matches, selected));
             } else if (context.isGuest) {
-                List<Match> matches = matchService.getActiveMatchesForGuestSession(context.guestSessionId);
-                return ResponseEntity.ok(matches);
+                List<?> matches = scoreboard
+                    ? matchService.getActiveScoreboardsForGuestSession(context.guestSessionId)
+                    : matchService.getActiveMatchesForGuestSession(context.guestSessionId);
+                return ResponseEntity.ok(withFields(matches, selected));
             } else {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
@@ -366,6 +485,52 @@ public class MatchController {
         }
     }
     
+    // Delete many matches at once; returns right away, the rows are removed in the background
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<DeleteMatchesResponse> deleteMatches(@RequestBody DeleteMatchesRequest deleteRequest,
+                                                               HttpServletRequest request) {
+        try {
+            UserContext context = getUserContext(request);
+            
+            if (!context.isAuthenticated && !context.isGuest) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            
+            int deleted = matchService.deleteMatches(deleteRequest.getMatchIds(), context.userId, context.guestSessionId);
+            return ResponseEntity.ok(new DeleteMatchesResponse(deleted));
+        } catch (RuntimeException e) {
+            System.out.println("Error deleting matches: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            System.out.println("Unexpected error: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    // Live score updates for one match as Server-Sent Events ("match" on every change, "deleted" at the end)
+    @GetMapping(value = "/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> liveUpdates(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            UserContext context = getUserContext(request);
+            
+            if (!context.isAuthenticated && !context.isGuest) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            
+            Match match = matchService.getMatchById(id, context.userId, context.guestSessionId);
+            return ResponseEntity.ok(liveMatchService.subscribe(match, context.guestSessionId));
+        } catch (RuntimeException e) {
+            System.out.println("Error subscribing to match: " + e.getMessage());
+            if (e.getMessage().contains("not found")) {
+                return ResponseEntity.notFound().build();
+            } else if (e.getMessage().contains("Unauthorized")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Pause/Resume a match
     @PutMapping("/{id}/pause")
     public ResponseEntity<Match> pauseMatch(@PathVariable Long id, HttpServletRequest request) {
@@ -414,6 +579,65 @@ public class MatchController {
         }
     }
     
+    // Get per-team performance across the caller's completed matches
+    @GetMapping("/analytics")
+    public ResponseEntity<List<TeamStatsResponse>> getTeamAnalytics(HttpServletRequest request) {
+        try {
+            UserContext context = getUserContext(request);
+            
+            if (context.isAuthenticated) {
+                return ResponseEntity.ok(teamAnalyticsService.getTeamStatsForUser(context.userId));
+            } else if (context.isGuest) {
+                return ResponseEntity.ok(teamAnalyticsService.getTeamStatsForGuest(context.guestSessionId));
+            } else {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error fetching team analytics: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+    
+    // Venue dashboard: all of the caller's courts, or the given match ids, from a shared snapshot
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardResponse> getDashboard(@RequestParam(required = false) List<Long> ids,
+                                                          HttpServletRequest request) {
+        try {
+            UserContext context = getUserContext(request);
+            
+            if (context.isAuthenticated) {
+                return ResponseEntity.ok(dashboardService.getForUser(context.userId, ids));
+            } else if (context.isGuest) {
+                return ResponseEntity.ok(dashboardService.getForGuest(context.guestSessionId, ids));
+            } else {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error fetching dashboard: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+    
+    // Get the record between two teams across the caller's completed matches
+    @GetMapping("/head-to-head")
+    public ResponseEntity<HeadToHead> getHeadToHead(@RequestParam String team1, @RequestParam String team2,
+                                                    HttpServletRequest request) {
+        try {
+            UserContext context = getUserContext(request);
+            
+            if (context.isAuthenticated) {
+                return ResponseEntity.ok(headToHeadService.getForUser(context.userId, team1, team2));
+            } else if (context.isGuest) {
+                return ResponseEntity.ok(headToHeadService.getForGuest(context.guestSessionId, team1, team2));
+            } else {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error fetching head-to-head: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+    
     // Inner class for user context
     private static class UserContext {
         Long userId = null;
@@ -0,0 +1,6 @@
+package com.volleyball.scoretracker.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,65 @@
+package com.volleyball.scoretracker.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides which pool the next physical connection comes from.
+ *
+ * Writes always use the primary. Reads use the replica when they run in a read-only
+ * transaction or in a request marked read-only by {@link ReadYourWritesInterceptor},
+ * unless that request has been pinned to the primary because its client wrote recently
+ * or the work runs in {@link #onPrimary}.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<DataSourceRole> requestRole = new ThreadLocal<>();
+
+    private DataSourceRouting() {}
+
+    public static void useReplicaForRequest() {
+        requestRole.set(DataSourceRole.REPLICA);
+    }
+
+    public static void pinRequestToPrimary() {
+        requestRole.set(DataSourceRole.PRIMARY);
+    }
+
+    // Runs work whose connections must come from the primary whatever the request or transaction
+    // says: caches filled after an invalidation, which a lagging replica would fill with the old state.
+    // The connection is taken on the first statement, so the work must not join a transaction that
+    // already has one
+    public static <T> T onPrimary(Supplier<T> work) {
+        DataSourceRole previous = requestRole.get();
+        requestRole.set(DataSourceRole.PRIMARY);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                requestRole.remove();
+            } else {
+                requestRole.set(previous);
+            }
+        }
+    }
+
+    public static void clear() {
+        requestRole.remove();
+    }
+
+    public static DataSourceRole currentRole() {
+        DataSourceRole role = requestRole.get();
+        if (role == DataSourceRole.PRIMARY) {
+            return DataSourceRole.PRIMARY;
+        }
+        boolean readOnlyTransaction = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !readOnlyTransaction) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (role == DataSourceRole.REPLICA || readOnlyTransaction) {
+            return DataSourceRole.REPLICA;
+        }
+        return DataSourceRole.PRIMARY;
+    }
+}
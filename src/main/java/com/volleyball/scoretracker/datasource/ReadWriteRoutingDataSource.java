@@ -0,0 +1,41 @@
+package com.volleyball.scoretracker.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes each connection checkout to the primary or replica pool.
+ *
+ * Wrap it in a LazyConnectionDataSourceProxy: the lookup then happens on the first
+ * statement, after the transaction (and its read-only flag) has been set up.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Counter primaryCheckouts;
+    private final Counter replicaCheckouts;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryCheckouts = checkoutCounter(meterRegistry, DataSourceRole.PRIMARY);
+        this.replicaCheckouts = checkoutCounter(meterRegistry, DataSourceRole.REPLICA);
+    }
+
+    private static Counter checkoutCounter(MeterRegistry meterRegistry, DataSourceRole role) {
+        return Counter.builder("datasource.routing.checkouts")
+            .description("Connections handed out, by pool role")
+            .tag("role", role.name().toLowerCase())
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRole role = DataSourceRouting.currentRole();
+        (role == DataSourceRole.REPLICA ? replicaCheckouts : primaryCheckouts).increment();
+        return role;
+    }
+}
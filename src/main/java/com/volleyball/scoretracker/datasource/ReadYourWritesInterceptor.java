@@ -0,0 +1,91 @@
+package com.volleyball.scoretracker.datasource;
+
+import com.volleyball.scoretracker.security.UserDetailsImpl;
+import com.volleyball.scoretracker.service.GuestSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends GET requests to the replica, except for clients that wrote recently, whose
+ * reads stay on the primary so they always see their own changes.
+ *
+ * A client is identified by every identity on the request (user id, guest session,
+ * IP), so a write made before the client had a session (e.g. creating the guest
+ * session) still pins its next reads. The guest identity is the session id verified
+ * from the Guest-Session-Id token; an unverified header adds no key, so clients can
+ * neither grow the recent writes without bound nor pin another guest's reads.
+ */
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    @Autowired
+    private RecentWrites recentWrites;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (replicaUrl.isEmpty() || "OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+
+        List<String> clientKeys = clientKeys(request);
+        if (isRead(request)) {
+            boolean pinned = clientKeys.stream().anyMatch(recentWrites::wroteRecently);
+            if (pinned) {
+                DataSourceRouting.pinRequestToPrimary();
+            } else {
+                DataSourceRouting.useReplicaForRequest();
+            }
+        } else {
+            // Recorded before and after, so a read racing the response is pinned too
+            clientKeys.forEach(recentWrites::record);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DataSourceRouting.clear();
+        if (!replicaUrl.isEmpty() && !isRead(request) && !"OPTIONS".equals(request.getMethod())) {
+            clientKeys(request).forEach(recentWrites::record);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async (SSE) requests leave this thread here; don't leak the routing to the next request
+        DataSourceRouting.clear();
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private List<String> clientKeys(HttpServletRequest request) {
+        List<String> keys = new ArrayList<>(3);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            keys.add("user:" + user.getId());
+        }
+        String guestToken = request.getHeader("Guest-Session-Id");
+        if (guestToken != null && !guestToken.isEmpty()) {
+            guestSessionService.resolveToken(guestToken).ifPresent(sessionId -> keys.add("guest:" + sessionId));
+        }
+        keys.add("ip:" + request.getRemoteAddr());
+        return keys;
+    }
+}
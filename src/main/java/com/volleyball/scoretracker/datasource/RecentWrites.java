@@ -0,0 +1,36 @@
+package com.volleyball.scoretracker.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Clients (user, guest session or IP) that wrote within the last stickyMs; their reads stay on the primary
+@Component
+public class RecentWrites {
+
+    private final long stickyMillis;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public RecentWrites(@Value("${app.datasource.replica.stickyMs:5000}") long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    public void record(String clientKey) {
+        lastWriteAt.put(clientKey, System.currentTimeMillis());
+    }
+
+    public boolean wroteRecently(String clientKey) {
+        Long writtenAt = lastWriteAt.get(clientKey);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < stickyMillis;
+    }
+
+    // Called periodically by CleanupService
+    public int evictExpired() {
+        long cutoff = System.currentTimeMillis() - stickyMillis;
+        int before = lastWriteAt.size();
+        lastWriteAt.values().removeIf(writtenAt -> writtenAt < cutoff);
+        return before - lastWriteAt.size();
+    }
+}
@@ -0,0 +1,95 @@
+package com.volleyball.scoretracker.dto;
+
+import com.volleyball.scoretracker.model.AccountPurge;
+
+public class AccountPurgeResponse {
+    private String purgeId;
+    private String status; // IN_PROGRESS or COMPLETED
+    private long matchesTotal;
+    private long matchesPurged;
+    private long archivedTotal;
+    private long archivedPurged;
+    private String requestedAt;
+    private String completedAt;
+    
+    // Default constructor
+    public AccountPurgeResponse() {}
+    
+    public static AccountPurgeResponse from(AccountPurge purge) {
+        AccountPurgeResponse response = new AccountPurgeResponse();
+        response.purgeId = purge.getId();
+        response.status = purge.isCompleted() ? "COMPLETED" : "IN_PROGRESS";
+        response.matchesTotal = purge.getMatchesTotal();
+        response.matchesPurged = purge.getMatchesPurged();
+        response.archivedTotal = purge.getArchivedTotal();
+        response.archivedPurged = purge.getArchivedPurged();
+        response.requestedAt = purge.getRequestedAt().toString();
+        response.completedAt = purge.isCompleted() ? purge.getCompletedAt().toString() : null;
+        return response;
+    }
+    
+    // Getters and setters
+    public String getPurgeId() {
+        return purgeId;
+    }
+    
+    public void setPurgeId(String purgeId) {
+        this.purgeId = purgeId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public long getMatchesTotal() {
+        return matchesTotal;
+    }
+    
+    public void setMatchesTotal(long matchesTotal) {
+        this.matchesTotal = matchesTotal;
+    }
+    
+    public long getMatchesPurged() {
+        return matchesPurged;
+    }
+    
+    public void setMatchesPurged(long matchesPurged) {
+        this.matchesPurged = matchesPurged;
+    }
+    
+    public long getArchivedTotal() {
+        return archivedTotal;
+    }
+    
+    public void setArchivedTotal(long archivedTotal) {
+        this.archivedTotal = archivedTotal;
+    }
+    
+    public long getArchivedPurged() {
+        return archivedPurged;
+    }
+    
+    public void setArchivedPurged(long archivedPurged) {
+        this.archivedPurged = archivedPurged;
+    }
+    
+    public String getRequestedAt() {
+        return requestedAt;
+    }
+    
+    public void setRequestedAt(String requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+    
+    public String getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(String completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.volleyball.scoretracker.dto;
+
+public class ClaimResponse {
+    private int claimedMatches;
+    
+    // Default constructor
+    public ClaimResponse() {}
+    
+    // Constructor with parameter
+    public ClaimResponse(int claimedMatches) {
+        this.claimedMatches = claimedMatches;
+    }
+    
+    // Getters and setters
+    public int getClaimedMatches() {
+        return claimedMatches;
+    }
+    
+    public void setClaimedMatches(int claimedMatches) {
+        this.claimedMatches = claimedMatches;
+    }
+}
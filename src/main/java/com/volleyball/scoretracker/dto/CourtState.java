@@ -0,0 +1,60 @@
+package com.volleyball.scoretracker.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One match as the venue dashboard shows it
+public class CourtState {
+    private Long matchId;
+    private String team1Name;
+    private String team2Name;
+    private int team1Score;
+    private int team2Score;
+    private int team1Sets;
+    private int team2Sets;
+    private int currentSet;
+    private String status;
+    private String rules;
+    private List<String> setScores;   // Completed sets as "25-21"
+    private LocalDateTime lastScoreTime;
+    
+    // Default constructor
+    public CourtState() {}
+    
+    // Getters and setters
+    public Long getMatchId() { return matchId; }
+    public void setMatchId(Long matchId) { this.matchId = matchId; }
+    
+    public String getTeam1Name() { return team1Name; }
+    public void setTeam1Name(String team1Name) { this.team1Name = team1Name; }
+    
+    public String getTeam2Name() { return team2Name; }
+    public void setTeam2Name(String team2Name) { this.team2Name = team2Name; }
+    
+    public int getTeam1Score() { return team1Score; }
+    public void setTeam1Score(int team1Score) { this.team1Score = team1Score; }
+    
+    public int getTeam2Score() { return team2Score; }
+    public void setTeam2Score(int team2Score) { this.team2Score = team2Score; }
+    
+    public int getTeam1Sets() { return team1Sets; }
+    public void setTeam1Sets(int team1Sets) { this.team1Sets = team1Sets; }
+    
+    public int getTeam2Sets() { return team2Sets; }
+    public void setTeam2Sets(int team2Sets) { this.team2Sets = team2Sets; }
+    
+    public int getCurrentSet() { return currentSet; }
+    public void setCurrentSet(int currentSet) { this.currentSet = currentSet; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public String getRules() { return rules; }
+    public void setRules(String rules) { this.rules = rules; }
+    
+    public List<String> getSetScores() { return setScores; }
+    public void setSetScores(List<String> setScores) { this.setScores = setScores; }
+    
+    public LocalDateTime getLastScoreTime() { return lastScoreTime; }
+    public void setLastScoreTime(LocalDateTime lastScoreTime) { this.lastScoreTime = lastScoreTime; }
+}
@@ -4,6 +4,13 @@ public class CreateMatchRequest {
     private String team1Name;
     private String team2Name;
     
+    // "indoor" (default), "beach", "youth" or "custom" with the fields below; unset custom fields default to indoor
+    private String ruleSet;
+    private Integer setPoints;
+    private Integer decidingSetPoints;
+    private Integer winBy;
+    private Integer bestOf;
+    
     // Default constructor
     public CreateMatchRequest() {}
     
@@ -29,4 +36,44 @@ public class CreateMatchRequest {
     public void setTeam2Name(String team2Name) {
         this.team2Name = team2Name;
     }
-}
\ No newline at end of file
+    
+    public String getRuleSet() {
+        return ruleSet;
+    }
+    
+    public void setRuleSet(String ruleSet) {
+        this.ruleSet = ruleSet;
+    }
+    
+    public Integer getSetPoints() {
+        return setPoints;
+    }
+    
+    public void setSetPoints(Integer setPoints) {
+        this.setPoints = setPoints;
+    }
+    
+    public Integer getDecidingSetPoints() {
+        return decidingSetPoints;
+    }
+    
+    public void setDecidingSetPoints(Integer decidingSetPoints) {
+        this.decidingSetPoints = decidingSetPoints;
+    }
+    
+    public Integer getWinBy() {
+        return winBy;
+    }
+    
+    public void setWinBy(Integer winBy) {
+        this.winBy = winBy;
+    }
+    
+    public Integer getBestOf() {
+        return bestOf;
+    }
+    
+    public void setBestOf(Integer bestOf) {
+        this.bestOf = bestOf;
+    }
+}
@@ -0,0 +1,24 @@
+package com.volleyball.scoretracker.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class DashboardResponse {
+    private LocalDateTime generatedAt;   // When the shared snapshot behind this response was built
+    private List<CourtState> courts;
+    
+    // Default constructor
+    public DashboardResponse() {}
+    
+    public DashboardResponse(LocalDateTime generatedAt, List<CourtState> courts) {
+        this.generatedAt = generatedAt;
+        this.courts = courts;
+    }
+    
+    // Getters and setters
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+    
+    public List<CourtState> getCourts() { return courts; }
+    public void setCourts(List<CourtState> courts) { this.courts = courts; }
+}
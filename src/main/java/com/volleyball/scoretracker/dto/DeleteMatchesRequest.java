@@ -0,0 +1,19 @@
+package com.volleyball.scoretracker.dto;
+
+import java.util.List;
+
+public class DeleteMatchesRequest {
+    private List<Long> matchIds;
+    
+    // Default constructor
+    public DeleteMatchesRequest() {}
+    
+    // Getters and setters
+    public List<Long> getMatchIds() {
+        return matchIds;
+    }
+    
+    public void setMatchIds(List<Long> matchIds) {
+        this.matchIds = matchIds;
+    }
+}
@@ -0,0 +1,22 @@
+package com.volleyball.scoretracker.dto;
+
+public class DeleteMatchesResponse {
+    private int deletedMatches;
+    
+    // Default constructor
+    public DeleteMatchesResponse() {}
+    
+    // Constructor with parameter
+    public DeleteMatchesResponse(int deletedMatches) {
+        this.deletedMatches = deletedMatches;
+    }
+    
+    // Getters and setters
+    public int getDeletedMatches() {
+        return deletedMatches;
+    }
+    
+    public void setDeletedMatches(int deletedMatches) {
+        this.deletedMatches = deletedMatches;
+    }
+}
@@ -0,0 +1,31 @@
+package com.volleyball.scoretracker.dto;
+
+public class LeaderboardEntry {
+    private int rank;
+    private String team;
+    private double rating;
+    private int matchesRated;
+    
+    // Default constructor
+    public LeaderboardEntry() {}
+    
+    public LeaderboardEntry(int rank, String team, double rating, int matchesRated) {
+        this.rank = rank;
+        this.team = team;
+        this.rating = rating;
+        this.matchesRated = matchesRated;
+    }
+    
+    // Getters and setters
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+    
+    public String getTeam() { return team; }
+    public void setTeam(String team) { this.team = team; }
+    
+    public double getRating() { return rating; }
+    public void setRating(double rating) { this.rating = rating; }
+    
+    public int getMatchesRated() { return matchesRated; }
+    public void setMatchesRated(int matchesRated) { this.matchesRated = matchesRated; }
+}
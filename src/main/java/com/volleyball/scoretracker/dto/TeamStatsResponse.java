@@ -0,0 +1,52 @@
+package com.volleyball.scoretracker.dto;
+
+public class TeamStatsResponse {
+    private String team;
+    private int matchesPlayed;
+    private int wins;
+    private int losses;
+    private double winRate;
+    private double averageSetMargin;   // Mean point difference per set, from this team's side
+    private int trailedZeroTwo;        // Matches in which the team was down 0-2 in sets
+    private int comebackWins;          // ...and still won
+    private double comebackRate;
+    private int decidingSetWins;
+    private int decidingSetLosses;
+    
+    // Default constructor
+    public TeamStatsResponse() {}
+    
+    // Getters and setters
+    public String getTeam() { return team; }
+    public void setTeam(String team) { this.team = team; }
+    
+    public int getMatchesPlayed() { return matchesPlayed; }
+    public void setMatchesPlayed(int matchesPlayed) { this.matchesPlayed = matchesPlayed; }
+    
+    public int getWins() { return wins; }
+    public void setWins(int wins) { this.wins = wins; }
+    
+    public int getLosses() { return losses; }
+    public void setLosses(int losses) { this.losses = losses; }
+    
+    public double getWinRate() { return winRate; }
+    public void setWinRate(double winRate) { this.winRate = winRate; }
+    
+    public double getAverageSetMargin() { return averageSetMargin; }
+    public void setAverageSetMargin(double averageSetMargin) { this.averageSetMargin = averageSetMargin; }
+    
+    public int getTrailedZeroTwo() { return trailedZeroTwo; }
+    public void setTrailedZeroTwo(int trailedZeroTwo) { this.trailedZeroTwo = trailedZeroTwo; }
+    
+    public int getComebackWins() { return comebackWins; }
+    public void setComebackWins(int comebackWins) { this.comebackWins = comebackWins; }
+    
+    public double getComebackRate() { return comebackRate; }
+    public void setComebackRate(double comebackRate) { this.comebackRate = comebackRate; }
+    
+    public int getDecidingSetWins() { return decidingSetWins; }
+    public void setDecidingSetWins(int decidingSetWins) { this.decidingSetWins = decidingSetWins; }
+    
+    public int getDecidingSetLosses() { return decidingSetLosses; }
+    public void setDecidingSetLosses(int decidingSetLosses) { this.decidingSetLosses = decidingSetLosses; }
+}
@@ -0,0 +1,88 @@
+package com.volleyball.scoretracker.event;
+
+/**
+ * A change notification shared between application nodes.
+ *
+ * Events are deliberately small: they say what changed, never the new state, so
+ * every node reloads from the database. On the wire an event is "code|origin|key",
+ * well under the 8000 byte NOTIFY payload limit.
+ */
+public final class ClusterEvent {
+
+    public enum Type {
+        // key: match id
+        MATCH_UPDATED('U'),
+        MATCH_DELETED('D'),
+        // A bulk delete removed some of an owner's matches, in one event whatever the count;
+        // key: "user:<id>" or "guest:<session id>"
+        MATCHES_DELETED('B'),
+        // key: guest session id whose matches moved to a registered account
+        MATCHES_CLAIMED('C'),
+        // key: guest session id
+        SESSION_REMOVED('S'),
+        // A completed result an owner's analytics depend on changed; key: "user:<id>" or "guest:<session id>"
+        RESULTS_CHANGED('O'),
+        // key: normalized team name whose rating changed
+        RATING_CHANGED('E'),
+        // Local only: the node may have missed events (e.g. its listener reconnected),
+        // so subscribers should drop everything they cache
+        RESYNC('R');
+
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        static Type fromCode(char code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown event type " + code);
+        }
+    }
+
+    private final Type type;
+    private final String key;
+    private final String origin;
+
+    public ClusterEvent(Type type, String key, String origin) {
+        this.type = type;
+        this.key = key;
+        this.origin = origin;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // Node id of the publisher
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String encode() {
+        return type.code + "|" + origin + "|" + key;
+    }
+
+    public static ClusterEvent decode(String payload) {
+        int first = payload.indexOf('|');
+        int second = payload.indexOf('|', first + 1);
+        if (first != 1 || second < 0) {
+            throw new IllegalArgumentException("Malformed event payload: " + payload);
+        }
+        return new ClusterEvent(Type.fromCode(payload.charAt(0)),
+            payload.substring(second + 1), payload.substring(first + 1, second));
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
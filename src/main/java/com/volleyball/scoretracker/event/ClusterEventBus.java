@@ -0,0 +1,12 @@
+package com.volleyball.scoretracker.event;
+
+import java.util.function.Consumer;
+
+// Publishes change events to every node, this one included, and delivers them to local subscribers
+public interface ClusterEventBus {
+
+    // Inside a transaction the event is only delivered once it commits
+    void publish(ClusterEvent.Type type, String key);
+
+    void subscribe(Consumer<ClusterEvent> listener);
+}
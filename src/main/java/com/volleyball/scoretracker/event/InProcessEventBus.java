@@ -0,0 +1,56 @@
+package com.volleyball.scoretracker.event;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Event bus for a single node: events go straight to the local subscribers.
+ * Used when there is no Postgres to carry events (H2, tests) and as the local
+ * half of {@link PostgresEventBus}.
+ */
+public class InProcessEventBus implements ClusterEventBus {
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final List<Consumer<ClusterEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ClusterEvent.Type type, String key) {
+        ClusterEvent event = new ClusterEvent(type, key, nodeId);
+        // Subscribers reload from the database, so they must not run before the change is visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(event);
+                }
+            });
+        } else {
+            deliver(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEvent> listener) {
+        listeners.add(listener);
+    }
+
+    // Hand an event to the local subscribers, as the transport does for events from other nodes
+    public void deliver(ClusterEvent event) {
+        for (Consumer<ClusterEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("Event listener failed for " + event + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,128 @@
+package com.volleyball.scoretracker.event;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Carries events between nodes with Postgres LISTEN/NOTIFY, so no separate broker is needed.
+ *
+ * Publishing runs pg_notify on the caller's connection. Inside a transaction Postgres
+ * only sends the notification on commit and drops it on rollback. Each node keeps one
+ * dedicated connection (outside the pool) listening on the channel. It ignores its own
+ * events, since those were already delivered locally. After the listener reconnects it
+ * delivers a RESYNC event, because notifications sent while it was disconnected are lost.
+ */
+public class PostgresEventBus extends InProcessEventBus {
+
+    public static final String CHANNEL = "scoretracker_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMs;
+    private final long reconnectDelayMs;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listenerThread;
+
+    public PostgresEventBus(JdbcTemplate jdbcTemplate, String url, String username, String password,
+                            int pollMs, long reconnectDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollMs = pollMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @Override
+    public void publish(ClusterEvent.Type type, String key) {
+        ClusterEvent event = new ClusterEvent(type, key, getNodeId());
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, event.encode());
+        } catch (RuntimeException e) {
+            // The change itself is already written; other nodes catch up on their next resync
+            System.err.println("Failed to notify other nodes of " + event + ": " + e.getMessage());
+        }
+        super.publish(type, key);
+    }
+
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "event-bus-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    // True once the LISTEN is in place; tests wait for this before publishing
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                if (connectedBefore) {
+                    deliver(new ClusterEvent(ClusterEvent.Type.RESYNC, "", getNodeId()));
+                }
+                connectedBefore = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                System.err.println("Event bus listener lost its connection: " + e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+        listening = false;
+    }
+
+    private void receive(String payload) {
+        ClusterEvent event;
+        try {
+            event = ClusterEvent.decode(payload);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring event: " + e.getMessage());
+            return;
+        }
+        if (!event.getOrigin().equals(getNodeId())) {
+            deliver(event);
+        }
+    }
+}
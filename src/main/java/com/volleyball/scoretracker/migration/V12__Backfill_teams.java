@@ -0,0 +1,87 @@
+package com.volleyball.scoretracker.migration;
+
+import com.volleyball.scoretracker.model.TeamNames;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Creates a team for each distinct normalized name per owner and points existing hot
+// and archived matches at them. A bean, like V3 and V9.
+@Component
+public class V12__Backfill_teams extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        Map<String, Long> teamIds = new HashMap<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try (PreparedStatement insertTeam = connection.prepareStatement(
+                 "INSERT INTO teams (user_id, guest_session_id, name, normalized_name, created_at) VALUES (?, ?, ?, ?, ?)",
+                 new String[] {"id"})) {
+            insertTeam.setTimestamp(5, now);
+            backfill(connection, insertTeam, teamIds,
+                "SELECT id, user_id, guest_session_id, team1name, team2name FROM matches WHERE team1_id IS NULL",
+                "UPDATE matches SET team1_id = ?, team2_id = ? WHERE id = ?");
+            backfill(connection, insertTeam, teamIds,
+                "SELECT id, user_id, NULL, team1name, team2name FROM archived_matches WHERE team1_id IS NULL",
+                "UPDATE archived_matches SET team1_id = ?, team2_id = ? WHERE id = ?");
+        }
+    }
+
+    private void backfill(Connection connection, PreparedStatement insertTeam, Map<String, Long> teamIds,
+                          String selectSql, String updateSql) throws Exception {
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(updateSql)) {
+
+            ResultSet rows = select.executeQuery(selectSql);
+            int pending = 0;
+            while (rows.next()) {
+                Long userId = (Long) rows.getObject(2, Long.class);
+                Long guestSessionId = (Long) rows.getObject(3, Long.class);
+                update.setLong(1, teamId(insertTeam, teamIds, userId, guestSessionId, rows.getString(4)));
+                update.setLong(2, teamId(insertTeam, teamIds, userId, guestSessionId, rows.getString(5)));
+                update.setLong(3, rows.getLong(1));
+                update.addBatch();
+                if (++pending >= BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            update.executeBatch();
+        }
+    }
+
+    private long teamId(PreparedStatement insertTeam, Map<String, Long> teamIds,
+                        Long userId, Long guestSessionId, String name) throws Exception {
+        String normalized = TeamNames.normalize(name);
+        String key = userId + "/" + guestSessionId + "/" + normalized;
+        Long id = teamIds.get(key);
+        if (id != null) {
+            return id;
+        }
+
+        insertTeam.setObject(1, userId);
+        insertTeam.setObject(2, guestSessionId);
+        insertTeam.setString(3, name.trim());
+        insertTeam.setString(4, normalized);
+        insertTeam.executeUpdate();
+        try (ResultSet keys = insertTeam.getGeneratedKeys()) {
+            keys.next();
+            id = keys.getLong(1);
+        }
+        teamIds.put(key, id);
+        return id;
+    }
+}
@@ -0,0 +1,99 @@
+package com.volleyball.scoretracker.migration;
+
+import com.volleyball.scoretracker.repository.MatchPartitions;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Postgres only: rebuilds matches and set_scores as tables range-partitioned by the month
+// the match was created (set_scores by its match_created_at copy, so a match and its set
+// scores always share a month). The primary keys and the set_scores foreign key gain the
+// partition key, which Postgres requires. Other databases (H2 in tests) keep the plain
+// tables; nothing in the application depends on the partitioning. A bean, like V3.
+@Component
+public class V16__Partition_matches_by_month extends BaseJavaMigration {
+
+    // Partitions created up front; MatchPartitionService keeps extending them
+    private static final int MONTHS_AHEAD = 3;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            YearMonth current = YearMonth.now();
+            YearMonth first = current;
+            ResultSet oldest = statement.executeQuery("SELECT MIN(created_at) FROM matches");
+            if (oldest.next()) {
+                Timestamp createdAt = oldest.getTimestamp(1);
+                if (createdAt != null && YearMonth.from(createdAt.toLocalDateTime()).isBefore(current)) {
+                    first = YearMonth.from(createdAt.toLocalDateTime());
+                }
+            }
+
+            for (String sql : rebuild(first, current.plusMonths(MONTHS_AHEAD))) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private List<String> rebuild(YearMonth first, YearMonth last) {
+        List<String> sql = new ArrayList<>();
+        sql.add("ALTER TABLE set_scores RENAME TO set_scores_unpartitioned");
+        sql.add("ALTER TABLE matches RENAME TO matches_unpartitioned");
+
+        // Same columns, defaults and NOT NULLs; the new identity sequences continue after the copied ids
+        sql.add("CREATE TABLE matches (LIKE matches_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY) " +
+                "PARTITION BY RANGE (created_at)");
+        sql.add("CREATE TABLE set_scores (LIKE set_scores_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY) " +
+                "PARTITION BY RANGE (match_created_at)");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            sql.add(MatchPartitions.createSql(MatchPartitions.MATCHES, month));
+            sql.add(MatchPartitions.createSql(MatchPartitions.SET_SCORES, month));
+        }
+        sql.add(MatchPartitions.createDefaultSql(MatchPartitions.MATCHES));
+        sql.add(MatchPartitions.createDefaultSql(MatchPartitions.SET_SCORES));
+
+        sql.add("INSERT INTO matches SELECT * FROM matches_unpartitioned");
+        sql.add("INSERT INTO set_scores SELECT * FROM set_scores_unpartitioned");
+        sql.add("DROP TABLE set_scores_unpartitioned");
+        sql.add("DROP TABLE matches_unpartitioned");
+
+        sql.add("SELECT setval(pg_get_serial_sequence('matches', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM matches");
+        sql.add("SELECT setval(pg_get_serial_sequence('set_scores', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM set_scores");
+
+        // Ids stay unique through their sequences; the keys include the partition key
+        sql.add("ALTER TABLE matches ADD CONSTRAINT matches_pkey PRIMARY KEY (id, created_at)");
+        sql.add("ALTER TABLE set_scores ADD CONSTRAINT set_scores_pkey PRIMARY KEY (id, match_created_at)");
+        sql.add("ALTER TABLE matches ADD CONSTRAINT fk_matches_user FOREIGN KEY (user_id) REFERENCES users (id)");
+        sql.add("ALTER TABLE matches ADD CONSTRAINT fk_matches_guest_session " +
+                "FOREIGN KEY (guest_session_id) REFERENCES guest_sessions (id)");
+        sql.add("ALTER TABLE matches ADD CONSTRAINT fk_matches_team1 FOREIGN KEY (team1_id) REFERENCES teams (id)");
+        sql.add("ALTER TABLE matches ADD CONSTRAINT fk_matches_team2 FOREIGN KEY (team2_id) REFERENCES teams (id)");
+        sql.add("ALTER TABLE set_scores ADD CONSTRAINT fk_set_scores_match " +
+                "FOREIGN KEY (match_id, match_created_at) REFERENCES matches (id, created_at)");
+
+        // The V4 and V13 indexes, now on every partition
+        sql.add("CREATE INDEX idx_matches_user_created ON matches (user_id, created_at DESC)");
+        sql.add("CREATE INDEX idx_matches_guest_created ON matches (guest_session_id, created_at DESC)");
+        sql.add("CREATE INDEX idx_matches_user_status ON matches (user_id, status)");
+        sql.add("CREATE INDEX idx_matches_guest_status ON matches (guest_session_id, status)");
+        sql.add("CREATE INDEX idx_matches_status_id ON matches (status, id)");
+        sql.add("CREATE INDEX idx_matches_team_pair ON matches (team1_id, team2_id, status)");
+        sql.add("CREATE INDEX idx_matches_team2 ON matches (team2_id)");
+        // A unique index on a partitioned table must contain the partition key
+        sql.add("CREATE UNIQUE INDEX uk_set_scores_match_set ON set_scores (match_id, set_number, match_created_at)");
+        return sql;
+    }
+}
@@ -0,0 +1,112 @@
+package com.volleyball.scoretracker.migration;
+
+import com.volleyball.scoretracker.service.TeamRatingService;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Ratings were keyed by team name alone and fed by guest matches too. Replays every
+// registered user's completed result, hot and archived, in the order they finished,
+// into ratings keyed per owner (TeamRatingService.teamKey), and stores each hot match's
+// new rating change so a later result flip undoes the right amount. Uses the default
+// app.ratings values. A bean, like V3 and V9.
+@Component
+public class V21__Rebuild_team_ratings extends BaseJavaMigration {
+
+    private static final double INITIAL_RATING = 1500;
+    private static final double K_FACTOR = 32;
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        Map<String, Rating> ratings = new LinkedHashMap<>();
+
+        try (Statement statement = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement("UPDATE matches SET rating_delta = ? WHERE id = ?")) {
+            statement.executeUpdate("DELETE FROM team_ratings");
+            statement.executeUpdate("UPDATE matches SET rating_delta = NULL WHERE rating_delta IS NOT NULL");
+
+            ResultSet rows = statement.executeQuery(
+                "SELECT r.hot, r.id, r.team1sets, r.team2sets, t1.user_id, t1.name, t2.name FROM (" +
+                "SELECT TRUE AS hot, id, team1_id, team2_id, team1sets, team2sets, last_score_time AS finished_at " +
+                "FROM matches WHERE user_id IS NOT NULL AND status = 'COMPLETED' AND deleted_at IS NULL " +
+                "UNION ALL " +
+                "SELECT FALSE, id, team1_id, team2_id, team1sets, team2sets, completed_at " +
+                "FROM archived_matches WHERE deleted_at IS NULL) r " +
+                "JOIN teams t1 ON t1.id = r.team1_id JOIN teams t2 ON t2.id = r.team2_id " +
+                "WHERE t1.user_id IS NOT NULL AND r.team1_id <> r.team2_id AND r.team1sets <> r.team2sets " +
+                "ORDER BY r.finished_at, r.id");
+            int pending = 0;
+            while (rows.next()) {
+                Rating team1 = rating(ratings, rows.getLong(5), rows.getString(6));
+                Rating team2 = rating(ratings, rows.getLong(5), rows.getString(7));
+                if (team1 == team2) {
+                    continue; // Same name on both sides, which TeamRatingService does not rate either
+                }
+                boolean team1Won = rows.getInt(3) > rows.getInt(4);
+                double expected = 1.0 / (1.0 + Math.pow(10, (team2.rating - team1.rating) / 400.0));
+                double delta = K_FACTOR * ((team1Won ? 1.0 : 0.0) - expected);
+                team1.add(delta);
+                team2.add(-delta);
+                if (rows.getBoolean(1)) {
+                    update.setDouble(1, delta);
+                    update.setLong(2, rows.getLong(2));
+                    update.addBatch();
+                    if (++pending >= BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            update.executeBatch();
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO team_ratings (team_key, team_name, rating, matches_rated, updated_at) VALUES (?, ?, ?, ?, ?)")) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int pending = 0;
+            for (Map.Entry<String, Rating> entry : ratings.entrySet()) {
+                insert.setString(1, entry.getKey());
+                insert.setString(2, entry.getValue().teamName);
+                insert.setDouble(3, entry.getValue().rating);
+                insert.setInt(4, entry.getValue().matchesRated);
+                insert.setTimestamp(5, now);
+                insert.addBatch();
+                if (++pending >= BATCH_SIZE) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static Rating rating(Map<String, Rating> ratings, long ownerId, String teamName) {
+        return ratings.computeIfAbsent(TeamRatingService.teamKey(ownerId, teamName), key -> new Rating(teamName.trim()));
+    }
+
+    private static final class Rating {
+        final String teamName;
+        double rating = INITIAL_RATING;
+        int matchesRated;
+
+        Rating(String teamName) {
+            this.teamName = teamName;
+        }
+
+        void add(double delta) {
+            rating += delta;
+            matchesRated++;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.volleyball.scoretracker.migration;
+
+import com.volleyball.scoretracker.model.PackedSetScores;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Packs set_scores into matches.packed_sets for rows saved before that column existed.
+// Registered with Flyway as a bean rather than found by classpath scanning, which
+// does not work in a native image.
+@Component
+public class V3__Backfill_packed_sets extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE matches SET packed_sets = ? WHERE id = ?")) {
+
+            ResultSet rows = select.executeQuery(
+                "SELECT s.match_id, s.set_number, s.team1points, s.team2points " +
+                "FROM set_scores s JOIN matches m ON m.id = s.match_id " +
+                "WHERE m.packed_sets IS NULL ORDER BY s.match_id, s.set_number");
+
+            long currentMatch = -1;
+            byte[] packed = null;
+            int pending = 0;
+            while (rows.next()) {
+                long matchId = rows.getLong(1);
+                if (matchId != currentMatch) {
+                    if (packed != null) {
+                        pending = addBatch(update, currentMatch, packed, pending);
+                    }
+                    currentMatch = matchId;
+                    packed = PackedSetScores.empty();
+                }
+                packed = PackedSetScores.withSet(packed, rows.getInt(2), rows.getInt(3), rows.getInt(4));
+            }
+            if (packed != null) {
+                addBatch(update, currentMatch, packed, pending);
+            }
+            update.executeBatch();
+        }
+
+        // Matches without any completed set
+        try (PreparedStatement fill = connection.prepareStatement(
+                "UPDATE matches SET packed_sets = ? WHERE packed_sets IS NULL")) {
+            fill.setBytes(1, PackedSetScores.empty());
+            fill.executeUpdate();
+        }
+    }
+
+    private int addBatch(PreparedStatement update, long matchId, byte[] packed, int pending) throws Exception {
+        update.setBytes(1, packed);
+        update.setLong(2, matchId);
+        update.addBatch();
+        if (++pending >= BATCH_SIZE) {
+            update.executeBatch();
+            return 0;
+        }
+        return pending;
+    }
+}
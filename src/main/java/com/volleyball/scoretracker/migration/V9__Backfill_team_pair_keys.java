@@ -0,0 +1,49 @@
+package com.volleyball.scoretracker.migration;
+
+import com.volleyball.scoretracker.model.TeamNames;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Computes team_pair_key for existing hot and archived matches. The key uses the
+// application's name normalization, which plain SQL cannot reproduce on both
+// Postgres and H2, hence a Java migration (a bean, like V3).
+@Component
+public class V9__Backfill_team_pair_keys extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        backfill(connection, "matches");
+        backfill(connection, "archived_matches");
+    }
+
+    private void backfill(Connection connection, String table) throws Exception {
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE " + table + " SET team_pair_key = ? WHERE id = ?")) {
+
+            ResultSet rows = select.executeQuery(
+                "SELECT id, team1name, team2name FROM " + table + " WHERE team_pair_key IS NULL");
+
+            int pending = 0;
+            while (rows.next()) {
+                update.setString(1, TeamNames.pairKey(rows.getString(2), rows.getString(3)));
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+                if (++pending >= BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            update.executeBatch();
+        }
+    }
+}
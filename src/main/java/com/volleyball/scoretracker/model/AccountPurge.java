@@ -0,0 +1,110 @@
+package com.volleyball.scoretracker.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Progress of one account deletion; the id doubles as the handle the account holder polls
+@Entity
+@Table(name = "account_purges")
+public class AccountPurge implements Persistable<String> {
+    @Id
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+
+    @Column(name = "matches_total", nullable = false)
+    private long matchesTotal;
+
+    @Column(name = "matches_purged", nullable = false)
+    private long matchesPurged;
+
+    @Column(name = "archived_total", nullable = false)
+    private long archivedTotal;
+
+    @Column(name = "archived_purged", nullable = false)
+    private long archivedPurged;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public AccountPurge() {}
+
+    public AccountPurge(Long userId, long matchesTotal, long archivedTotal) {
+        this.id = UUID.randomUUID().toString();
+        this.userId = userId;
+        this.requestedAt = LocalDateTime.now();
+        this.matchesTotal = matchesTotal;
+        this.archivedTotal = archivedTotal;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+
+    public void addMatchesPurged(int count) {
+        this.matchesPurged += count;
+    }
+
+    public void addArchivedPurged(int count) {
+        this.archivedPurged += count;
+    }
+
+    // Getters and setters
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public long getMatchesTotal() {
+        return matchesTotal;
+    }
+
+    public long getMatchesPurged() {
+        return matchesPurged;
+    }
+
+    public long getArchivedTotal() {
+        return archivedTotal;
+    }
+
+    public long getArchivedPurged() {
+        return archivedPurged;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
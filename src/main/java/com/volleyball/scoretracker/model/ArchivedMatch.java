@@ -0,0 +1,167 @@
+package com.volleyball.scoretracker.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+// Compact, read-only copy of a completed match moved out of the hot matches table
+@Entity
+@Table(name = "archived_matches")
+@SQLRestriction("deleted_at IS NULL") // Same tombstones as Match
+public class ArchivedMatch implements Persistable<Long> {
+    @Id
+    private Long id; // Same id the match had in the hot table
+
+    @ManyToOne
+    @JoinColumn(name = "team1_id", nullable = false)
+    private Team team1;
+
+    @ManyToOne
+    @JoinColumn(name = "team2_id", nullable = false)
+    private Team team2;
+
+    @Convert(converter = ScoringRulesConverter.class)
+    @Column(name = "rule_set", nullable = false, length = ScoringRules.SPEC_LENGTH)
+    private ScoringRules rules;
+
+    @Column(nullable = false)
+    private int team1Sets;
+
+    @Column(nullable = false)
+    private int team2Sets;
+
+    @Column(name = "packed_sets", nullable = false, length = PackedSetScores.WIDTH)
+    private byte[] packedSets; // All set scores in one fixed-width column
+
+    @Column(name = "rally_log")
+    private byte[] rallyLog;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime completedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt = LocalDateTime.now();
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Ids are assigned from the hot table, so tell Spring Data to insert without a lookup
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public ArchivedMatch() {}
+
+    public static ArchivedMatch from(Match match) {
+        ArchivedMatch archived = new ArchivedMatch();
+        archived.id = match.getId();
+        archived.team1 = match.getTeam1();
+        archived.team2 = match.getTeam2();
+        archived.rules = match.getRules();
+        archived.team1Sets = match.getTeam1Sets();
+        archived.team2Sets = match.getTeam2Sets();
+        archived.packedSets = match.getPackedSets();
+        archived.rallyLog = match.getRallyLog();
+        archived.userId = match.getUser().getId();
+        archived.createdAt = match.getCreatedAt();
+        archived.completedAt = match.getLastScoreTime();
+        return archived;
+    }
+
+    // Rebuild a detached Match for API responses; it is never saved back
+    public Match toMatch() {
+        Match match = new Match(team1, team2);
+        match.setId(id);
+        match.setRules(rules);
+        match.setTeam1Sets(team1Sets);
+        match.setTeam2Sets(team2Sets);
+        match.setStatus(MatchStatus.COMPLETED);
+        match.setCreatedAt(createdAt);
+        match.setLastScoreTime(completedAt);
+
+        int setCount = PackedSetScores.setCount(packedSets);
+        match.setCurrentSet(Math.max(1, setCount));
+        if (setCount > 0) {
+            // A completed match keeps the final set's score on the scoreboard
+            match.setTeam1Score(PackedSetScores.team1Points(packedSets, setCount));
+            match.setTeam2Score(PackedSetScores.team2Points(packedSets, setCount));
+        }
+        // The winning point of a match is always the winner's last point
+        match.setLastScoringTeam(team1Sets > team2Sets ? "team1" : "team2");
+        match.setPackedSets(packedSets);
+        match.setRallyLog(rallyLog);
+        return match;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public Team getTeam1() {
+        return team1;
+    }
+
+    public Team getTeam2() {
+        return team2;
+    }
+
+    public ScoringRules getRules() {
+        return rules;
+    }
+
+    public int getTeam1Sets() {
+        return team1Sets;
+    }
+
+    public int getTeam2Sets() {
+        return team2Sets;
+    }
+
+    public byte[] getPackedSets() {
+        return packedSets;
+    }
+
+    public byte[] getRallyLog() {
+        return rallyLog;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
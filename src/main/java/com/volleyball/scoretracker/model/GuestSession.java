@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.UUID;
 
 @Entity
 @Table(name = "guest_sessions")
@@ -14,7 +15,7 @@ public class GuestSession {
     private Long id;
     
     @Column(unique = true, nullable = false)
-    private String sessionId;
+    private UUID sessionId;
     
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -29,9 +30,9 @@ public class GuestSession {
     // Constructors
     public GuestSession() {}
     
-    public GuestSession(String sessionId) {
+    public GuestSession(UUID sessionId, LocalDateTime expiresAt) {
         this.sessionId = sessionId;
-        this.expiresAt = LocalDateTime.now().plusDays(1); // Expires after 1 day
+        this.expiresAt = expiresAt;
     }
     
     // Getters and setters
@@ -43,11 +44,11 @@ public class GuestSession {
         this.id = id;
     }
     
-    public String getSessionId() {
+    public UUID getSessionId() {
         return sessionId;
     }
     
-    public void setSessionId(String sessionId) {
+    public void setSessionId(UUID sessionId) {
         this.sessionId = sessionId;
     }
     
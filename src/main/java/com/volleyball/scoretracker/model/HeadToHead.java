@@ -0,0 +1,75 @@
+package com.volleyball.scoretracker.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Record between two teams over one owner's completed matches, from team1's point of view
+public class HeadToHead {
+    private String team1;
+    private String team2;
+    private int matches;
+    private int team1Wins;
+    private int team2Wins;
+    private int team1Sets;
+    private int team2Sets;
+    private int team1Points;
+    private int team2Points;
+    private List<Result> recent = new ArrayList<>();   // Newest first
+
+    public HeadToHead() {}
+
+    public HeadToHead(String team1, String team2) {
+        this.team1 = team1;
+        this.team2 = team2;
+    }
+
+    public String getTeam1() { return team1; }
+    public void setTeam1(String team1) { this.team1 = team1; }
+
+    public String getTeam2() { return team2; }
+    public void setTeam2(String team2) { this.team2 = team2; }
+
+    public int getMatches() { return matches; }
+    public void setMatches(int matches) { this.matches = matches; }
+
+    public int getTeam1Wins() { return team1Wins; }
+    public void setTeam1Wins(int team1Wins) { this.team1Wins = team1Wins; }
+
+    public int getTeam2Wins() { return team2Wins; }
+    public void setTeam2Wins(int team2Wins) { this.team2Wins = team2Wins; }
+
+    public int getTeam1Sets() { return team1Sets; }
+    public void setTeam1Sets(int team1Sets) { this.team1Sets = team1Sets; }
+
+    public int getTeam2Sets() { return team2Sets; }
+    public void setTeam2Sets(int team2Sets) { this.team2Sets = team2Sets; }
+
+    public int getTeam1Points() { return team1Points; }
+    public void setTeam1Points(int team1Points) { this.team1Points = team1Points; }
+
+    public int getTeam2Points() { return team2Points; }
+    public void setTeam2Points(int team2Points) { this.team2Points = team2Points; }
+
+    public List<Result> getRecent() { return recent; }
+    public void setRecent(List<Result> recent) { this.recent = recent; }
+
+    public static class Result {
+        private LocalDateTime playedAt;
+        private int team1Sets;
+        private int team2Sets;
+        private List<String> setScores = new ArrayList<>();   // "25-21", team1 first
+
+        public LocalDateTime getPlayedAt() { return playedAt; }
+        public void setPlayedAt(LocalDateTime playedAt) { this.playedAt = playedAt; }
+
+        public int getTeam1Sets() { return team1Sets; }
+        public void setTeam1Sets(int team1Sets) { this.team1Sets = team1Sets; }
+
+        public int getTeam2Sets() { return team2Sets; }
+        public void setTeam2Sets(int team2Sets) { this.team2Sets = team2Sets; }
+
+        public List<String> getSetScores() { return setScores; }
+        public void setSetScores(List<String> setScores) { this.setScores = setScores; }
+    }
+}
@@ -1,24 +1,41 @@
 package com.volleyball.scoretracker.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "matches")
+@SQLRestriction("deleted_at IS NULL") // Tombstoned matches are invisible to every entity query; MatchPurgeService removes them
+@JsonFilter(MatchFields.FILTER) // ?fields= on match reads; everything otherwise
 public class Match {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(nullable = false)
-    private String team1Name;
+    // Dictionary-encoded team names (TeamService); the pair is indexed for head-to-head lookups
+    @ManyToOne
+    @JoinColumn(name = "team1_id", nullable = false)
+    @JsonIgnore
+    private Team team1;
     
-    @Column(nullable = false)
-    private String team2Name;
+    @ManyToOne
+    @JoinColumn(name = "team2_id", nullable = false)
+    @JsonIgnore
+    private Team team2;
+    
+    // Scoring format chosen at creation; serialized as "rules"
+    @Convert(converter = ScoringRulesConverter.class)
+    @Column(name = "rule_set", nullable = false, length = ScoringRules.SPEC_LENGTH)
+    private ScoringRules rules = ScoringRules.INDOOR;
     
     @Column(nullable = false)
     private int team1Score = 0;  // Current set score
@@ -38,8 +55,10 @@ public class Match {
     @Enumerated(EnumType.STRING)
     private MatchStatus status = MatchStatus.IN_PROGRESS;
     
-    @Column(nullable = false)
-    private LocalDateTime createdAt = LocalDateTime.now();
+    // Partition key on Postgres (V16); never changes, and kept at the column's microsecond precision
+    // so set scores can copy it exactly
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 
     @Column
     private Boolean undoUsed = false; // Tracks if undo was used for the current state
@@ -58,9 +77,31 @@ public class Match {
     @Column
     private LocalDateTime lastScoreTime; // When the last point was scored
     
+    // Completed set scores, denormalized so reads never need the set_scores join
+    @Column(name = "packed_sets", nullable = false, length = PackedSetScores.WIDTH)
+    private byte[] packedSets = PackedSetScores.empty();
+    
+    // Every rally with its timestamp plus the momentum detector state; null until the first point
+    @Column(name = "rally_log")
+    private byte[] rallyLog;
+    
+    // Rating change this result applied to team 1 (team 2 got the opposite); null when unrated
+    @Column(name = "rating_delta")
+    private Double ratingDelta;
+    
+    // Set by a delete; only written by bulk updates
+    @Column(name = "deleted_at")
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+    
+    // Per-set rows, kept in sync by MatchService; only used for the set detail view
     @OneToMany(mappedBy = "match", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JsonManagedReference
-    private List<SetScore> sets = new ArrayList<>();
+    @JsonIgnore
+    private List<SetScore> setDetails = new ArrayList<>();
+    
+    // Filled in by match creation only, so the record between the teams shows right away
+    @Transient
+    private HeadToHead headToHead;
     
     // User relationships
     @ManyToOne(fetch = FetchType.LAZY)
@@ -76,9 +117,9 @@ public class Match {
     // Constructors
     public Match() {}
     
-    public Match(String team1Name, String team2Name) {
-        this.team1Name = team1Name;
-        this.team2Name = team2Name;
+    public Match(Team team1, Team team2) {
+        this.team1 = team1;
+        this.team2 = team2;
     }
     
     // Getters and Setters
@@ -90,20 +131,45 @@ public class Match {
         this.id = id;
     }
     
+    public Team getTeam1() {
+        return team1;
+    }
+    
+    public void setTeam1(Team team1) {
+        this.team1 = team1;
+    }
+    
+    public Team getTeam2() {
+        return team2;
+    }
+    
+    public void setTeam2(Team team2) {
+        this.team2 = team2;
+    }
+    
+    // Serialized as before: the names, plus the ids for clients that key by team
+    public Long getTeam1Id() {
+        return team1.getId();
+    }
+    
     public String getTeam1Name() {
-        return team1Name;
+        return team1.getName();
     }
     
-    public void setTeam1Name(String team1Name) {
-        this.team1Name = team1Name;
+    public Long getTeam2Id() {
+        return team2.getId();
     }
     
     public String getTeam2Name() {
-        return team2Name;
+        return team2.getName();
     }
     
-    public void setTeam2Name(String team2Name) {
-        this.team2Name = team2Name;
+    public ScoringRules getRules() {
+        return rules;
+    }
+    
+    public void setRules(ScoringRules rules) {
+        this.rules = rules;
     }
     
     public int getTeam1Score() {
@@ -205,12 +271,63 @@ public class Match {
         this.lastScoreTime = lastScoreTime;
     }
     
+    // Serialized as "sets", built from the packed column without touching set_scores
+    @JsonManagedReference
     public List<SetScore> getSets() {
-        return sets;
+        return PackedSetScores.unpack(packedSets, this);
+    }
+    
+    @JsonIgnore
+    public byte[] getPackedSets() {
+        return packedSets;
+    }
+    
+    public void setPackedSets(byte[] packedSets) {
+        this.packedSets = packedSets;
+    }
+    
+    @JsonIgnore
+    public byte[] getRallyLog() {
+        return rallyLog;
+    }
+    
+    public void setRallyLog(byte[] rallyLog) {
+        this.rallyLog = rallyLog;
+    }
+    
+    @JsonIgnore
+    public Double getRatingDelta() {
+        return ratingDelta;
+    }
+    
+    public void setRatingDelta(Double ratingDelta) {
+        this.ratingDelta = ratingDelta;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    // Serialized as "momentum": runs and pace from the rally log header, no rescan
+    public Momentum getMomentum() {
+        return RallyLog.momentum(rallyLog);
+    }
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public HeadToHead getHeadToHead() {
+        return headToHead;
+    }
+    
+    public void setHeadToHead(HeadToHead headToHead) {
+        this.headToHead = headToHead;
+    }
+    
+    public List<SetScore> getSetDetails() {
+        return setDetails;
     }
     
-    public void setSets(List<SetScore> sets) {
-        this.sets = sets;
+    public void setSetDetails(List<SetScore> setDetails) {
+        this.setDetails = setDetails;
     }
     
     public User getUser() {
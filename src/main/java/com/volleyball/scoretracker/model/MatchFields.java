@@ -0,0 +1,62 @@
+package com.volleyball.scoretracker.model;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// The ?fields= parameter of match responses: which top-level properties of a match are written.
+// Match and MatchScoreboard carry the Jackson filter that applies it
+public final class MatchFields {
+
+    public static final String FILTER = "matchFields";
+
+    // Every property of a serialized match
+    public static final Set<String> ALL = Set.of(
+        "id", "team1Id", "team1Name", "team2Id", "team2Name", "rules", "team1Score", "team2Score",
+        "team1Sets", "team2Sets", "currentSet", "status", "createdAt", "undoUsed", "previousTeam1Score",
+        "previousTeam2Score", "lastScoringTeam", "lastScoreTime", "sets", "momentum", "headToHead");
+
+    // The ones a MatchScoreboard carries: a list asking only for these skips loading whole matches
+    public static final Set<String> SCOREBOARD = Set.of(
+        "id", "team1Id", "team1Name", "team2Id", "team2Name", "team1Score", "team2Score",
+        "team1Sets", "team2Sets", "currentSet", "status", "createdAt", "lastScoreTime");
+
+    // No parameter: every property. The application's ObjectMapper has this as its default
+    public static final FilterProvider EVERYTHING =
+        new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+    private MatchFields() {}
+
+    // Comma-separated names; null (everything) if the parameter is absent or blank
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!ALL.contains(field)) {
+                throw new RuntimeException("Unknown match field: " + field);
+            }
+            selected.add(field);
+        }
+        return selected.isEmpty() ? null : selected;
+    }
+
+    public static boolean onScoreboard(Set<String> fields) {
+        return fields != null && SCOREBOARD.containsAll(fields);
+    }
+
+    public static FilterProvider filter(Set<String> fields) {
+        if (fields == null) {
+            return EVERYTHING;
+        }
+        return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+}
@@ -0,0 +1,39 @@
+package com.volleyball.scoretracker.model;
+
+// A completed match reduced to what the team analytics read; loaded with a JPQL constructor expression
+public class MatchResult {
+
+    private final long team1Id;
+    private final String team1Name;
+    private final long team2Id;
+    private final String team2Name;
+    private final byte[] packedSets;
+
+    public MatchResult(long team1Id, String team1Name, long team2Id, String team2Name, byte[] packedSets) {
+        this.team1Id = team1Id;
+        this.team1Name = team1Name;
+        this.team2Id = team2Id;
+        this.team2Name = team2Name;
+        this.packedSets = packedSets;
+    }
+
+    public long getTeam1Id() {
+        return team1Id;
+    }
+
+    public String getTeam1Name() {
+        return team1Name;
+    }
+
+    public long getTeam2Id() {
+        return team2Id;
+    }
+
+    public String getTeam2Name() {
+        return team2Name;
+    }
+
+    public byte[] getPackedSets() {
+        return packedSets;
+    }
+}
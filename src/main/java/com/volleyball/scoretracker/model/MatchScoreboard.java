@@ -0,0 +1,112 @@
+package com.volleyball.scoretracker.model;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.time.LocalDateTime;
+
+// A match reduced to its scoreboard columns, loaded with a JPQL constructor expression: no set
+// blobs, rally log or undo state. Serialized with the same property names as Match
+@JsonFilter(MatchFields.FILTER)
+public class MatchScoreboard {
+
+    private final Long id;
+    private final Long team1Id;
+    private final String team1Name;
+    private final Long team2Id;
+    private final String team2Name;
+    private final int team1Score;
+    private final int team2Score;
+    private final int team1Sets;
+    private final int team2Sets;
+    private final int currentSet;
+    private final MatchStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime lastScoreTime;
+
+    public MatchScoreboard(Long id, Long team1Id, String team1Name, Long team2Id, String team2Name,
+                           int team1Score, int team2Score, int team1Sets, int team2Sets, int currentSet,
+                           MatchStatus status, LocalDateTime createdAt, LocalDateTime lastScoreTime) {
+        this.id = id;
+        this.team1Id = team1Id;
+        this.team1Name = team1Name;
+        this.team2Id = team2Id;
+        this.team2Name = team2Name;
+        this.team1Score = team1Score;
+        this.team2Score = team2Score;
+        this.team1Sets = team1Sets;
+        this.team2Sets = team2Sets;
+        this.currentSet = currentSet;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.lastScoreTime = lastScoreTime;
+    }
+
+    // An archived match, shown the way ArchivedMatch.toMatch shows it: the final set stays on the scoreboard
+    public MatchScoreboard(Long id, Long team1Id, String team1Name, Long team2Id, String team2Name,
+                           int team1Sets, int team2Sets, byte[] packedSets,
+                           LocalDateTime createdAt, LocalDateTime completedAt) {
+        this(id, team1Id, team1Name, team2Id, team2Name,
+             finalSetPoints(packedSets, true), finalSetPoints(packedSets, false), team1Sets, team2Sets,
+             Math.max(1, PackedSetScores.setCount(packedSets)), MatchStatus.COMPLETED, createdAt, completedAt);
+    }
+
+    private static int finalSetPoints(byte[] packedSets, boolean team1) {
+        int setCount = PackedSetScores.setCount(packedSets);
+        if (setCount == 0) {
+            return 0;
+        }
+        return team1 ? PackedSetScores.team1Points(packedSets, setCount) : PackedSetScores.team2Points(packedSets, setCount);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTeam1Id() {
+        return team1Id;
+    }
+
+    public String getTeam1Name() {
+        return team1Name;
+    }
+
+    public Long getTeam2Id() {
+        return team2Id;
+    }
+
+    public String getTeam2Name() {
+        return team2Name;
+    }
+
+    public int getTeam1Score() {
+        return team1Score;
+    }
+
+    public int getTeam2Score() {
+        return team2Score;
+    }
+
+    public int getTeam1Sets() {
+        return team1Sets;
+    }
+
+    public int getTeam2Sets() {
+        return team2Sets;
+    }
+
+    public int getCurrentSet() {
+        return currentSet;
+    }
+
+    public MatchStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getLastScoreTime() {
+        return lastScoreTime;
+    }
+}
@@ -0,0 +1,43 @@
+package com.volleyball.scoretracker.model;
+
+// Scoring runs and rally pace of a match, read from its RallyLog header
+public class Momentum {
+    private int rallies;
+    private String currentRunTeam;          // "team1", "team2", or null before the first rally
+    private int currentRun;                 // Consecutive rallies won in the current set
+    private int longestRunTeam1;
+    private int longestRunTeam2;
+    private Double averageRallySeconds;     // Between rallies of the same set, whole match
+    private Double setAverageRallySeconds;  // Same, latest set only
+    private Double lastRallySeconds;
+    private Long lastRallyAt;               // Epoch millis
+
+    public Momentum() {}
+
+    public int getRallies() { return rallies; }
+    public void setRallies(int rallies) { this.rallies = rallies; }
+
+    public String getCurrentRunTeam() { return currentRunTeam; }
+    public void setCurrentRunTeam(String currentRunTeam) { this.currentRunTeam = currentRunTeam; }
+
+    public int getCurrentRun() { return currentRun; }
+    public void setCurrentRun(int currentRun) { this.currentRun = currentRun; }
+
+    public int getLongestRunTeam1() { return longestRunTeam1; }
+    public void setLongestRunTeam1(int longestRunTeam1) { this.longestRunTeam1 = longestRunTeam1; }
+
+    public int getLongestRunTeam2() { return longestRunTeam2; }
+    public void setLongestRunTeam2(int longestRunTeam2) { this.longestRunTeam2 = longestRunTeam2; }
+
+    public Double getAverageRallySeconds() { return averageRallySeconds; }
+    public void setAverageRallySeconds(Double averageRallySeconds) { this.averageRallySeconds = averageRallySeconds; }
+
+    public Double getSetAverageRallySeconds() { return setAverageRallySeconds; }
+    public void setSetAverageRallySeconds(Double setAverageRallySeconds) { this.setAverageRallySeconds = setAverageRallySeconds; }
+
+    public Double getLastRallySeconds() { return lastRallySeconds; }
+    public void setLastRallySeconds(Double lastRallySeconds) { this.lastRallySeconds = lastRallySeconds; }
+
+    public Long getLastRallyAt() { return lastRallyAt; }
+    public void setLastRallyAt(Long lastRallyAt) { this.lastRallyAt = lastRallyAt; }
+}
@@ -0,0 +1,76 @@
+package com.volleyball.scoretracker.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-width binary encoding of a match's completed set scores.
+ *
+ * Layout: {@value #WIDTH} bytes, two unsigned bytes (team1, team2) per set in set
+ * order. A completed set always has a winner with points, so a 0-0 pair marks the
+ * end of the played sets.
+ */
+public final class PackedSetScores {
+
+    public static final int MAX_SETS = 5;
+    public static final int MAX_POINTS = 255;
+    public static final int WIDTH = MAX_SETS * 2;
+
+    private PackedSetScores() {}
+
+    public static byte[] empty() {
+        return new byte[WIDTH];
+    }
+
+    public static byte[] pack(List<SetScore> sets) {
+        byte[] packed = empty();
+        for (SetScore set : sets) {
+            packed = withSet(packed, set.getSetNumber(), set.getTeam1Points(), set.getTeam2Points());
+        }
+        return packed;
+    }
+
+    // Returns a copy of packed with the given set's score written in
+    public static byte[] withSet(byte[] packed, int setNumber, int team1Points, int team2Points) {
+        if (setNumber < 1 || setNumber > MAX_SETS) {
+            throw new RuntimeException("Invalid set number " + setNumber);
+        }
+        if (team1Points < 0 || team2Points < 0 || team1Points > MAX_POINTS || team2Points > MAX_POINTS) {
+            throw new RuntimeException("Set score out of range for set " + setNumber);
+        }
+        byte[] copy = packed == null ? empty() : Arrays.copyOf(packed, WIDTH);
+        copy[(setNumber - 1) * 2] = (byte) team1Points;
+        copy[(setNumber - 1) * 2 + 1] = (byte) team2Points;
+        return copy;
+    }
+
+    public static int setCount(byte[] packed) {
+        if (packed == null) {
+            return 0;
+        }
+        int count = 0;
+        while (count < MAX_SETS && (packed[count * 2] != 0 || packed[count * 2 + 1] != 0)) {
+            count++;
+        }
+        return count;
+    }
+
+    public static int team1Points(byte[] packed, int setNumber) {
+        return packed[(setNumber - 1) * 2] & 0xFF;
+    }
+
+    public static int team2Points(byte[] packed, int setNumber) {
+        return packed[(setNumber - 1) * 2 + 1] & 0xFF;
+    }
+
+    // Expand into SetScore objects (not persisted) for API responses
+    public static List<SetScore> unpack(byte[] packed, Match match) {
+        int count = setCount(packed);
+        List<SetScore> sets = new ArrayList<>(count);
+        for (int setNumber = 1; setNumber <= count; setNumber++) {
+            sets.add(new SetScore(setNumber, team1Points(packed, setNumber), team2Points(packed, setNumber), match));
+        }
+        return sets;
+    }
+}
@@ -0,0 +1,161 @@
+package com.volleyball.scoretracker.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Binary log of every rally in a match, with the momentum detector's state kept
+ * in a fixed header so that recording a rally never decodes earlier ones.
+ *
+ * Appending still copies the log, so a point costs time linear in the rallies
+ * played: about 1 KB of copying by the end of a five-set match. The stored column
+ * is rewritten whole on every point anyway, so spare capacity would only add
+ * padding to every stored log without saving the write.
+ *
+ * Layout: a {@value #HEADER}-byte header followed by one {@value #ENTRY}-byte entry
+ * per rally in the order played. An entry packs the set number (3 bits), whether
+ * team 2 won the rally (1 bit) and the milliseconds since the previous rally
+ * (28 bits, capped at about three days). A null log means no rallies yet.
+ *
+ * Runs count consecutive rallies won by one team within a set. Pace only counts
+ * gaps between rallies of the same set, so set breaks don't skew it.
+ */
+public final class RallyLog {
+
+    public static final int HEADER = 32;
+    public static final int ENTRY = 4;
+
+    private static final int STARTED_AT = 0;          // long: epoch millis of the first rally
+    private static final int LAST_OFFSET = 8;         // int: millis from the first to the last rally
+    private static final int RUN_TEAM = 12;           // byte: 0 none, 1 team 1, 2 team 2
+    private static final int RUN_LENGTH = 13;         // unsigned byte
+    private static final int LONGEST_TEAM1 = 14;      // unsigned byte
+    private static final int LONGEST_TEAM2 = 15;      // unsigned byte
+    private static final int TIMED_MS = 16;           // int: sum of same-set gaps
+    private static final int TIMED_COUNT = 20;        // int: number of same-set gaps
+    private static final int SET_TIMED_MS = 24;       // int: sum of gaps in the latest set
+    private static final int SET_TIMED_COUNT = 28;    // int: number of gaps in the latest set
+
+    private static final int MAX_DELTA = (1 << 28) - 1;
+    private static final int MAX_RUN = 255;
+
+    private RallyLog() {}
+
+    public static int rallyCount(byte[] log) {
+        return log == null ? 0 : (log.length - HEADER) / ENTRY;
+    }
+
+    public static int setNumber(byte[] log, int index) {
+        return entry(log, index) >>> 29;
+    }
+
+    public static boolean team2Won(byte[] log, int index) {
+        return (entry(log, index) & (1 << 28)) != 0;
+    }
+
+    public static int deltaMs(byte[] log, int index) {
+        return entry(log, index) & MAX_DELTA;
+    }
+
+    // Returns a copy of log with one more rally. The copy is linear in the log's length; only the
+    // header and the new entry are computed
+    public static byte[] append(byte[] log, int setNumber, boolean team2, long rallyAtMillis) {
+        if (setNumber < 1 || setNumber > PackedSetScores.MAX_SETS) {
+            throw new RuntimeException("Invalid set number " + setNumber);
+        }
+        int count = rallyCount(log);
+        byte[] next = log == null ? new byte[HEADER + ENTRY] : Arrays.copyOf(log, log.length + ENTRY);
+        ByteBuffer buffer = ByteBuffer.wrap(next);
+
+        int delta = 0;
+        boolean sameSet = false;
+        if (count == 0) {
+            buffer.putLong(STARTED_AT, rallyAtMillis);
+            buffer.putInt(LAST_OFFSET, 0);
+        } else {
+            long startedAt = buffer.getLong(STARTED_AT);
+            long lastAt = startedAt + buffer.getInt(LAST_OFFSET);
+            delta = (int) Math.min(MAX_DELTA, Math.max(0, rallyAtMillis - lastAt));
+            buffer.putInt(LAST_OFFSET, (int) Math.min(Integer.MAX_VALUE, lastAt + delta - startedAt));
+            sameSet = setNumber(log, count - 1) == setNumber;
+        }
+
+        int team = team2 ? 2 : 1;
+        int run = sameSet && next[RUN_TEAM] == team ? Math.min(MAX_RUN, (next[RUN_LENGTH] & 0xFF) + 1) : 1;
+        next[RUN_TEAM] = (byte) team;
+        next[RUN_LENGTH] = (byte) run;
+        int longestSlot = team2 ? LONGEST_TEAM2 : LONGEST_TEAM1;
+        if (run > (next[longestSlot] & 0xFF)) {
+            next[longestSlot] = (byte) run;
+        }
+
+        if (sameSet) {
+            buffer.putInt(TIMED_MS, saturatedAdd(buffer.getInt(TIMED_MS), delta));
+            buffer.putInt(TIMED_COUNT, buffer.getInt(TIMED_COUNT) + 1);
+            buffer.putInt(SET_TIMED_MS, saturatedAdd(buffer.getInt(SET_TIMED_MS), delta));
+            buffer.putInt(SET_TIMED_COUNT, buffer.getInt(SET_TIMED_COUNT) + 1);
+        } else {
+            buffer.putInt(SET_TIMED_MS, 0);
+            buffer.putInt(SET_TIMED_COUNT, 0);
+        }
+
+        buffer.putInt(HEADER + count * ENTRY, (setNumber << 29) | (team2 ? 1 << 28 : 0) | delta);
+        return next;
+    }
+
+    // Drops the last rally (undo); the header is rebuilt by replaying what is left
+    public static byte[] withoutLastRally(byte[] log) {
+        int count = rallyCount(log);
+        return count == 0 ? log : replay(log, count - 1, 0);
+    }
+
+    // Drops every rally of one set (reset current set)
+    public static byte[] withoutSet(byte[] log, int setNumber) {
+        return rallyCount(log) == 0 ? log : replay(log, rallyCount(log), setNumber);
+    }
+
+    public static Momentum momentum(byte[] log) {
+        Momentum momentum = new Momentum();
+        int count = rallyCount(log);
+        momentum.setRallies(count);
+        if (count == 0) {
+            return momentum;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(log);
+        int runTeam = log[RUN_TEAM];
+        momentum.setCurrentRunTeam(runTeam == 0 ? null : "team" + runTeam);
+        momentum.setCurrentRun(log[RUN_LENGTH] & 0xFF);
+        momentum.setLongestRunTeam1(log[LONGEST_TEAM1] & 0xFF);
+        momentum.setLongestRunTeam2(log[LONGEST_TEAM2] & 0xFF);
+        momentum.setAverageRallySeconds(seconds(buffer.getInt(TIMED_MS), buffer.getInt(TIMED_COUNT)));
+        momentum.setSetAverageRallySeconds(seconds(buffer.getInt(SET_TIMED_MS), buffer.getInt(SET_TIMED_COUNT)));
+        momentum.setLastRallySeconds(seconds(deltaMs(log, count - 1), 1));
+        momentum.setLastRallyAt(buffer.getLong(STARTED_AT) + buffer.getInt(LAST_OFFSET));
+        return momentum;
+    }
+
+    // Rebuild from the first `limit` entries, skipping one set (0 skips none)
+    private static byte[] replay(byte[] log, int limit, int skipSet) {
+        long at = ByteBuffer.wrap(log).getLong(STARTED_AT);
+        byte[] rebuilt = null;
+        for (int i = 0; i < limit; i++) {
+            at += deltaMs(log, i);
+            if (setNumber(log, i) != skipSet) {
+                rebuilt = append(rebuilt, setNumber(log, i), team2Won(log, i), at);
+            }
+        }
+        return rebuilt;
+    }
+
+    private static int entry(byte[] log, int index) {
+        return ByteBuffer.wrap(log).getInt(HEADER + index * ENTRY);
+    }
+
+    private static int saturatedAdd(int total, int delta) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) total + delta);
+    }
+
+    private static Double seconds(int totalMs, int count) {
+        return count == 0 ? null : Math.round(totalMs / (double) count / 100.0) / 10.0;
+    }
+}
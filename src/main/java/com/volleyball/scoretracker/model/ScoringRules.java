@@ -0,0 +1,138 @@
+package com.volleyball.scoretracker.model;
+
+import java.util.Locale;
+
+/**
+ * The scoring format of a match: points per set, points in the deciding set, the
+ * winning margin and the number of sets.
+ *
+ * A rule set is compiled once into a per-set table of target points, so the checks
+ * run on every scored point are an array read and two comparisons, with no
+ * branching on the format and no allocation. Instances are immutable and the
+ * built-in formats are shared constants.
+ *
+ * Stored on the match as its spec: the built-in name ("indoor", "beach", "youth") or
+ * "custom:setPoints/decidingSetPoints/winBy/bestOf".
+ */
+public final class ScoringRules {
+
+    public static final ScoringRules INDOOR = new ScoringRules("indoor", 25, 15, 2, 5);
+    public static final ScoringRules BEACH = new ScoringRules("beach", 21, 15, 2, 3);
+    public static final ScoringRules YOUTH = new ScoringRules("youth", 25, 15, 2, 3);
+
+    public static final int SPEC_LENGTH = 32;
+    public static final int MAX_SET_POINTS = 99;
+
+    private static final String CUSTOM = "custom";
+
+    private final String name;
+    private final int setPoints;
+    private final int decidingSetPoints;
+    private final int winBy;
+    private final int bestOf;
+    private final int setsToWin;
+    private final int[] targetBySet; // Index = set number; the deciding set has its own target
+    private final String spec;
+
+    private ScoringRules(String name, int setPoints, int decidingSetPoints, int winBy, int bestOf) {
+        this.name = name;
+        this.setPoints = setPoints;
+        this.decidingSetPoints = decidingSetPoints;
+        this.winBy = winBy;
+        this.bestOf = bestOf;
+        this.setsToWin = bestOf / 2 + 1;
+        this.targetBySet = new int[bestOf + 1];
+        for (int set = 1; set <= bestOf; set++) {
+            targetBySet[set] = set == bestOf ? decidingSetPoints : setPoints;
+        }
+        this.spec = CUSTOM.equals(name)
+            ? CUSTOM + ":" + setPoints + "/" + decidingSetPoints + "/" + winBy + "/" + bestOf
+            : name;
+    }
+
+    // Validated against what a match can store: at most MAX_SETS sets, and set scores that
+    // stay well under MAX_POINTS even in a long deuce
+    public static ScoringRules custom(int setPoints, int decidingSetPoints, int winBy, int bestOf) {
+        if (bestOf < 1 || bestOf > PackedSetScores.MAX_SETS || bestOf % 2 == 0) {
+            throw new RuntimeException("Best of must be an odd number of sets up to " + PackedSetScores.MAX_SETS);
+        }
+        if (winBy < 1 || winBy > 10) {
+            throw new RuntimeException("Win by must be between 1 and 10 points");
+        }
+        if (setPoints < 1 || setPoints > MAX_SET_POINTS || decidingSetPoints < 1 || decidingSetPoints > MAX_SET_POINTS) {
+            throw new RuntimeException("Set points must be between 1 and " + MAX_SET_POINTS);
+        }
+        for (ScoringRules builtIn : new ScoringRules[] {INDOOR, BEACH, YOUTH}) {
+            if (builtIn.setPoints == setPoints && builtIn.decidingSetPoints == decidingSetPoints
+                && builtIn.winBy == winBy && builtIn.bestOf == bestOf) {
+                return builtIn;
+            }
+        }
+        return new ScoringRules(CUSTOM, setPoints, decidingSetPoints, winBy, bestOf);
+    }
+
+    // A built-in name, or a stored custom spec
+    public static ScoringRules fromSpec(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return INDOOR;
+        }
+        String value = spec.trim().toLowerCase(Locale.ROOT);
+        switch (value) {
+            case "indoor":
+                return INDOOR;
+            case "beach":
+                return BEACH;
+            case "youth":
+                return YOUTH;
+            default:
+                break;
+        }
+        if (value.startsWith(CUSTOM + ":")) {
+            String[] parts = value.substring(CUSTOM.length() + 1).split("/");
+            if (parts.length == 4) {
+                try {
+                    return custom(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                        Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                } catch (NumberFormatException e) {
+                    // Reported below
+                }
+            }
+        }
+        throw new RuntimeException("Unknown rule set: " + spec);
+    }
+
+    // Hot path of every scored point
+    public boolean isSetWon(int setNumber, int team1Points, int team2Points) {
+        int target = targetBySet[setNumber];
+        return team1Points >= target && team1Points - team2Points >= winBy
+            || team2Points >= target && team2Points - team1Points >= winBy;
+    }
+
+    public boolean isMatchWon(int team1Sets, int team2Sets) {
+        return team1Sets >= setsToWin || team2Sets >= setsToWin;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSetPoints() {
+        return setPoints;
+    }
+
+    public int getDecidingSetPoints() {
+        return decidingSetPoints;
+    }
+
+    public int getWinBy() {
+        return winBy;
+    }
+
+    public int getBestOf() {
+        return bestOf;
+    }
+
+    public String toSpec() {
+        return spec;
+    }
+}
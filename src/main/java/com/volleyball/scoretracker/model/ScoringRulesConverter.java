@@ -0,0 +1,19 @@
+package com.volleyball.scoretracker.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores a match's rule set as its spec string; built-in formats load as the shared constants
+@Converter
+public class ScoringRulesConverter implements AttributeConverter<ScoringRules, String> {
+
+    @Override
+    public String convertToDatabaseColumn(ScoringRules rules) {
+        return (rules == null ? ScoringRules.INDOOR : rules).toSpec();
+    }
+
+    @Override
+    public ScoringRules convertToEntityAttribute(String spec) {
+        return ScoringRules.fromSpec(spec);
+    }
+}
@@ -3,6 +3,8 @@ package com.volleyball.scoretracker.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "set_scores")
@@ -25,6 +27,11 @@ public class SetScore {
     @JsonBackReference
     private Match match;
     
+    // The match's created_at: partition key on Postgres, keeps set scores in their match's month
+    @Column(name = "match_created_at", nullable = false, updatable = false)
+    @JsonIgnore
+    private LocalDateTime matchCreatedAt;
+    
     // Constructors
     public SetScore() {}
     
@@ -32,7 +39,7 @@ public class SetScore {
         this.setNumber = setNumber;
         this.team1Points = team1Points;
         this.team2Points = team2Points;
-        this.match = match;
+        setMatch(match);
     }
     
     // Getters and Setters
@@ -74,5 +81,10 @@ public class SetScore {
     
     public void setMatch(Match match) {
         this.match = match;
+        this.matchCreatedAt = match != null ? match.getCreatedAt() : null;
+    }
+    
+    public LocalDateTime getMatchCreatedAt() {
+        return matchCreatedAt;
     }
 }
\ No newline at end of file
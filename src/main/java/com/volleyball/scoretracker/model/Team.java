@@ -0,0 +1,64 @@
+package com.volleyball.scoretracker.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A team name in one owner's dictionary; matches reference it by id. Never renamed, so
+// TeamService can hand out cached instances
+@Entity
+@Table(name = "teams")
+public class Team {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "guest_session_id")
+    private Long guestSessionId;
+
+    @Column(nullable = false)
+    private String name; // First spelling used, for display
+
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName; // TeamNames.normalize(name)
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructors
+    public Team() {}
+
+    public Team(Long userId, Long guestSessionId, String name) {
+        this.userId = userId;
+        this.guestSessionId = guestSessionId;
+        this.name = name.trim();
+        this.normalizedName = TeamNames.normalize(name);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getGuestSessionId() {
+        return guestSessionId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
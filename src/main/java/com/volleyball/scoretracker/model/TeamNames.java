@@ -0,0 +1,28 @@
+package com.volleyball.scoretracker.model;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// How team names are compared: case- and whitespace-insensitively
+public final class TeamNames {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Separates the two names in a pair key; normalized names never contain it
+    private static final char PAIR_SEPARATOR = '\t';
+
+    private TeamNames() {}
+
+    public static String normalize(String name) {
+        return WHITESPACE.matcher(name.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    // Same key whichever team is listed first (the V8-V10 pair key, superseded by team ids)
+    public static String pairKey(String team1Name, String team2Name) {
+        String first = normalize(team1Name);
+        String second = normalize(team2Name);
+        return first.compareTo(second) <= 0
+            ? first + PAIR_SEPARATOR + second
+            : second + PAIR_SEPARATOR + first;
+    }
+}
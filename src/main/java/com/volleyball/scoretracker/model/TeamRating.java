@@ -0,0 +1,61 @@
+package com.volleyball.scoretracker.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Current Elo rating of one team across every tracked match
+@Entity
+@Table(name = "team_ratings")
+public class TeamRating {
+    @Id
+    @Column(name = "team_key")
+    private String teamKey; // Normalized team name
+
+    @Column(name = "team_name", nullable = false)
+    private String teamName; // First spelling seen, for display
+
+    @Column(nullable = false)
+    private double rating;
+
+    @Column(name = "matches_rated", nullable = false)
+    private int matchesRated;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructors
+    public TeamRating() {}
+
+    // Getters and setters
+    public String getTeamKey() {
+        return teamKey;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public int getMatchesRated() {
+        return matchesRated;
+    }
+
+    public void setMatchesRated(int matchesRated) {
+        this.matchesRated = matchesRated;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.volleyball.scoretracker.repository;
+
+import com.volleyball.scoretracker.model.AccountPurge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountPurgeRepository extends JpaRepository<AccountPurge, String> {
+
+    Optional<AccountPurge> findByUserId(Long userId);
+
+    List<AccountPurge> findByCompletedAtIsNullOrderByRequestedAt();
+
+    // Finished purges are kept for a while so their status can still be read
+    @Modifying
+    @Query("DELETE FROM AccountPurge p WHERE p.completedAt < :before")
+    int deleteCompletedBefore(LocalDateTime before);
+}
@@ -0,0 +1,55 @@
+package com.volleyball.scoretracker.repository;
+
+import com.volleyball.scoretracker.model.ArchivedMatch;
+import com.volleyball.scoretracker.model.MatchResult;
+import com.volleyball.scoretracker.model.MatchScoreboard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedMatchRepository extends JpaRepository<ArchivedMatch, Long> {
+
+    @Query("SELECT a FROM ArchivedMatch a JOIN FETCH a.team1 JOIN FETCH a.team2 WHERE a.userId = :userId ORDER BY a.createdAt DESC")
+    List<ArchivedMatch> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // Scoreboard columns; the final set's points come out of packed_sets, the rally log is not read
+    @Query("SELECT new com.volleyball.scoretracker.model.MatchScoreboard(a.id, t1.id, t1.name, t2.id, t2.name, " +
+           "a.team1Sets, a.team2Sets, a.packedSets, a.createdAt, a.completedAt) " +
+           "FROM ArchivedMatch a JOIN a.team1 t1 JOIN a.team2 t2 WHERE a.userId = :userId ORDER BY a.createdAt DESC")
+    List<MatchScoreboard> findScoreboardsByUserId(Long userId);
+
+    // Archived matches are always completed
+    @Query("SELECT new com.volleyball.scoretracker.model.MatchResult(t1.id, t1.name, t2.id, t2.name, a.packedSets) " +
+           "FROM ArchivedMatch a JOIN a.team1 t1 JOIN a.team2 t2 WHERE a.userId = :userId")
+    List<MatchResult> findResultsByUserId(Long userId);
+
+    @Query("SELECT a.id FROM ArchivedMatch a WHERE a.id IN :ids AND a.userId = :userId")
+    List<Long> findIdsOwnedByUser(Collection<Long> ids, Long userId);
+
+    @Modifying
+    @Query("UPDATE ArchivedMatch a SET a.deletedAt = :deletedAt WHERE a.id IN :ids")
+    int markDeleted(Collection<Long> ids, LocalDateTime deletedAt);
+
+    @Query(value = "SELECT id FROM archived_matches WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT :limit", nativeQuery = true)
+    List<Long> findDeletedIds(int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM archived_matches WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM archived_matches WHERE user_id = :userId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsForAccountPurge(Long userId, int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM archived_matches WHERE user_id = :userId", nativeQuery = true)
+    long countForAccountPurge(Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM archived_matches WHERE id IN (:ids)", nativeQuery = true)
+    int deleteRowsByIdIn(Collection<Long> ids);
+}
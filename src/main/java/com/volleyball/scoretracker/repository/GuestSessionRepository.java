@@ -2,16 +2,39 @@ package com.volleyball.scoretracker.repository;
 
 import com.volleyball.scoretracker.model.GuestSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface GuestSessionRepository extends JpaRepository<GuestSession, Long> {
-    Optional<GuestSession> findBySessionId(String sessionId);
+    Optional<GuestSession> findBySessionId(UUID sessionId);
     
     @Query("SELECT gs FROM GuestSession gs WHERE gs.expiresAt < :now")
     List<GuestSession> findExpiredSessions(LocalDateTime now);
+    
+    // Stores a session on first use in the caller's transaction; a concurrent insert of the same
+    // session wins and this one does nothing (re-select with findBySessionId)
+    @Modifying
+    @Query(value = "INSERT INTO guest_sessions (session_id, created_at, expires_at) " +
+                   "VALUES (:sessionId, :createdAt, :expiresAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(UUID sessionId, LocalDateTime createdAt, LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query(value = "INSERT INTO revoked_guest_sessions (session_id, expires_at) " +
+                   "VALUES (:sessionId, :expiresAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int revoke(UUID sessionId, LocalDateTime expiresAt);
+    
+    // As text: native UUID columns come back as raw bytes on some drivers
+    @Query(value = "SELECT CAST(session_id AS VARCHAR) FROM revoked_guest_sessions WHERE expires_at > :now", nativeQuery = true)
+    List<String> findRevokedSessionIds(LocalDateTime now);
+    
+    // A revoked token that has expired is rejected on its expiry alone
+    @Modifying
+    @Query(value = "DELETE FROM revoked_guest_sessions WHERE expires_at <= :now", nativeQuery = true)
+    int deleteExpiredRevocations(LocalDateTime now);
 }
\ No newline at end of file
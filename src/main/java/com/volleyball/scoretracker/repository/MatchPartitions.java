@@ -0,0 +1,56 @@
+package com.volleyball.scoretracker.repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Names and DDL of the monthly partitions of matches and set_scores (Postgres only, see
+ * V16). A month's partitions are "matches_pYYYYMM" and "set_scores_pYYYYMM" and hold the
+ * matches created in that month, and their set scores. Anything outside every month
+ * partition lands in "matches_default" / "set_scores_default".
+ */
+public final class MatchPartitions {
+
+    public static final String MATCHES = "matches";
+    public static final String SET_SCORES = "set_scores";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private MatchPartitions() {
+    }
+
+    public static String name(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    public static String defaultName(String table) {
+        return table + "_default";
+    }
+
+    // Null if the name is not one of table's month partitions
+    public static YearMonth monthOf(String table, String partitionName) {
+        String prefix = table + "_p";
+        if (!partitionName.startsWith(prefix) || partitionName.length() != prefix.length() + 6) {
+            return null;
+        }
+        return YearMonth.parse(partitionName.substring(prefix.length()), SUFFIX);
+    }
+
+    public static LocalDateTime start(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    public static LocalDateTime end(YearMonth month) {
+        return start(month.plusMonths(1));
+    }
+
+    public static String createSql(String table, YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + name(table, month) + " PARTITION OF " + table +
+               " FOR VALUES FROM ('" + start(month) + "') TO ('" + end(month) + "')";
+    }
+
+    public static String createDefaultSql(String table) {
+        return "CREATE TABLE IF NOT EXISTS " + defaultName(table) + " PARTITION OF " + table + " DEFAULT";
+    }
+}
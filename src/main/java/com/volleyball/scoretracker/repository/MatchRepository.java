@@ -1,33 +1,150 @@
 package com.volleyball.scoretracker.repository;
 
 import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchResult;
+import com.volleyball.scoretracker.model.MatchScoreboard;
 import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
     
+    // Ownership checks read the guest session's id: loaded with the teams in the same statement as the match
+    @Override
+    @EntityGraph(attributePaths = {"team1", "team2", "guestSession"})
+    Optional<Match> findById(Long id);
+    
     List<Match> findByStatus(MatchStatus status);
     
     @Query("SELECT m FROM Match m ORDER BY m.createdAt DESC")
     List<Match> findAllOrderByCreatedAtDesc();
     
-    List<Match> findByTeam1NameContainingOrTeam2NameContaining(String team1Name, String team2Name);
+    List<Match> findByTeam1_NameContainingOrTeam2_NameContaining(String team1Name, String team2Name);
 
-    //Database Query
-    @Query("SELECT m FROM Match m WHERE m.user.id = :userId ORDER BY m.createdAt DESC")
+    //Database Query (teams are fetched in the same statement)
+    @Query("SELECT m FROM Match m JOIN FETCH m.team1 JOIN FETCH m.team2 WHERE m.user.id = :userId ORDER BY m.createdAt DESC")
     List<Match> findByUserIdOrderByCreatedAtDesc(Long userId);
 
-    @Query("SELECT m FROM Match m WHERE m.guestSession.sessionId = :sessionId ORDER BY m.createdAt DESC")
-    List<Match> findByGuestSessionIdOrderByCreatedAtDesc(String sessionId);
+    @Query("SELECT m FROM Match m JOIN FETCH m.team1 JOIN FETCH m.team2 WHERE m.guestSession.sessionId = :sessionId ORDER BY m.createdAt DESC")
+    List<Match> findByGuestSessionIdOrderByCreatedAtDesc(UUID sessionId);
 
-    @Query("SELECT m FROM Match m WHERE m.user.id = :userId AND m.status = :status")
+    @Query("SELECT m FROM Match m JOIN FETCH m.team1 JOIN FETCH m.team2 WHERE m.user.id = :userId AND m.status = :status")
     List<Match> findByUserIdAndStatus(Long userId, MatchStatus status);
+    
+    // Scoreboard columns only, for lists asked for scoreboard fields (no set blobs, rally log or undo state)
+    @Query("SELECT new com.volleyball.scoretracker.model.MatchScoreboard(m.id, t1.id, t1.name, t2.id, t2.name, " +
+           "m.team1Score, m.team2Score, m.team1Sets, m.team2Sets, m.currentSet, m.status, m.createdAt, m.lastScoreTime) " +
+           "FROM Match m JOIN m.team1 t1 JOIN m.team2 t2 WHERE m.user.id = :userId ORDER BY m.createdAt DESC")
+    List<MatchScoreboard> findScoreboardsByUserId(Long userId);
+    
+    @Query("SELECT new com.volleyball.scoretracker.model.MatchScoreboard(m.id, t1.id, t1.name, t2.id, t2.name, " +
+           "m.team1Score, m.team2Score, m.team1Sets, m.team2Sets, m.currentSet, m.status, m.createdAt, m.lastScoreTime) " +
+           "FROM Match m JOIN m.team1 t1 JOIN m.team2 t2 WHERE m.user.id = :userId AND m.status = :status")
+    List<MatchScoreboard> findScoreboardsByUserIdAndStatus(Long userId, MatchStatus status);
+    
+    @Query("SELECT new com.volleyball.scoretracker.model.MatchScoreboard(m.id, t1.id, t1.name, t2.id, t2.name, " +
+           "m.team1Score, m.team2Score, m.team1Sets, m.team2Sets, m.currentSet, m.status, m.createdAt, m.lastScoreTime) " +
+           "FROM Match m JOIN m.team1 t1 JOIN m.team2 t2 WHERE m.guestSession.sessionId = :sessionId ORDER BY m.createdAt DESC")
+    List<MatchScoreboard> findScoreboardsByGuestSessionId(UUID sessionId);
+    
+    @Query("SELECT new com.volleyball.scoretracker.model.MatchScoreboard(m.id, t1.id, t1.name, t2.id, t2.name, " +
+           "m.team1Score, m.team2Score, m.team1Sets, m.team2Sets, m.currentSet, m.status, m.createdAt, m.lastScoreTime) " +
+           "FROM Match m JOIN m.team1 t1 JOIN m.team2 t2 WHERE m.guestSession.sessionId = :sessionId AND m.status = :status")
+    List<MatchScoreboard> findScoreboardsByGuestSessionIdAndStatus(UUID sessionId, MatchStatus status);
+
+    @Query("SELECT m FROM Match m JOIN FETCH m.team1 JOIN FETCH m.team2 WHERE m.guestSession.sessionId = :sessionId AND m.status = :status")
+    List<Match> findByGuestSessionIdAndStatus(UUID sessionId, MatchStatus status);
+
+    // Team analytics: only team ids, names and packed set scores, no entity hydration
+    @Query("SELECT new com.volleyball.scoretracker.model.MatchResult(t1.id, t1.name, t2.id, t2.name, m.packedSets) " +
+           "FROM Match m JOIN m.team1 t1 JOIN m.team2 t2 WHERE m.user.id = :userId AND m.status = :status")
+    List<MatchResult> findResultsByUserIdAndStatus(Long userId, MatchStatus status);
+
+    @Query("SELECT new com.volleyball.scoretracker.model.MatchResult(t1.id, t1.name, t2.id, t2.name, m.packedSets) " +
+           "FROM Match m JOIN m.team1 t1 JOIN m.team2 t2 WHERE m.guestSession.sessionId = :sessionId AND m.status = :status")
+    List<MatchResult> findResultsByGuestSessionIdAndStatus(UUID sessionId, MatchStatus status);
+
+    // Venue dashboard: the owner's matches still on court plus those finished since the cutoff
+    @Query("SELECT m FROM Match m JOIN FETCH m.team1 JOIN FETCH m.team2 WHERE m.user.id = :userId " +
+           "AND (m.status <> :completed OR m.lastScoreTime >= :since) ORDER BY m.createdAt DESC")
+    List<Match> findDashboardMatchesForUser(Long userId, MatchStatus completed, LocalDateTime since, Pageable pageable);
+
+    @Query("SELECT m FROM Match m JOIN FETCH m.team1 JOIN FETCH m.team2 WHERE m.guestSession.sessionId = :sessionId " +
+           "AND (m.status <> :completed OR m.lastScoreTime >= :since) ORDER BY m.createdAt DESC")
+    List<Match> findDashboardMatchesForGuest(UUID sessionId, MatchStatus completed, LocalDateTime since, Pageable pageable);
+
+    // Archive tier: completed, user-owned matches finished before the cutoff. The createdAt bound
+    // prunes month partitions that are retired whole (MatchPartitionService)
+    @Query("SELECT m.id FROM Match m WHERE m.status = :status AND m.user IS NOT NULL " +
+           "AND COALESCE(m.lastScoreTime, m.createdAt) < :cutoff AND m.createdAt < :createdBefore ORDER BY m.id")
+    List<Long> findArchivableMatchIds(MatchStatus status, LocalDateTime cutoff, LocalDateTime createdBefore, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Match m WHERE m.id IN :ids")
+    int deleteByIdIn(List<Long> ids);
+
+    // Bulk delete: which of the ids are the caller's (visible) matches
+    @Query("SELECT m.id FROM Match m WHERE m.id IN :ids AND m.user.id = :userId")
+    List<Long> findIdsOwnedByUser(Collection<Long> ids, Long userId);
+
+    @Query("SELECT m.id FROM Match m WHERE m.id IN :ids AND m.guestSession.sessionId = :sessionId")
+    List<Long> findIdsOwnedByGuest(Collection<Long> ids, UUID sessionId);
+
+    // Tombstone: hidden from every read from here on, removed later by MatchPurgeService
+    @Modifying
+    @Query("UPDATE Match m SET m.deletedAt = :deletedAt WHERE m.id IN :ids")
+    int markDeleted(Collection<Long> ids, LocalDateTime deletedAt);
+
+    // Tombstones are invisible to JPQL (@SQLRestriction on Match), so the purge uses SQL
+    @Query(value = "SELECT id FROM matches WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT :limit", nativeQuery = true)
+    List<Long> findDeletedIds(int limit);
+
+    @Query(value = "SELECT id FROM matches WHERE guest_session_id = :guestSessionId AND deleted_at IS NOT NULL", nativeQuery = true)
+    List<Long> findDeletedIdsForGuestSession(Long guestSessionId);
+
+    @Modifying
+    @Query(value = "DELETE FROM matches WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeByIdIn(Collection<Long> ids);
+
+    // Account purge: every match of the user, tombstoned or not
+    @Query(value = "SELECT id FROM matches WHERE user_id = :userId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsForAccountPurge(Long userId, int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM matches WHERE user_id = :userId", nativeQuery = true)
+    long countForAccountPurge(Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM matches WHERE id IN (:ids)", nativeQuery = true)
+    int deleteRowsByIdIn(Collection<Long> ids);
+
+    // Move every match of a guest session to a registered user in one statement
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Match m SET m.user = :user, m.guestSession = NULL WHERE m.guestSession.id = :guestSessionId")
+    int reassignGuestMatchesToUser(Long guestSessionId, User user);
 
-    @Query("SELECT m FROM Match m WHERE m.guestSession.sessionId = :sessionId AND m.status = :status")
-    List<Match> findByGuestSessionIdAndStatus(String sessionId, MatchStatus status);
-}
\ No newline at end of file
+    // Head-to-head: completed matches between two teams in either order, hot and archived
+    // tiers in one round trip, newest first. Team ids belong to one owner, so no owner filter
+    // is needed. Columns: team1_id, packed_sets, created_at
+    @Query(value = "SELECT m.team1_id, m.packed_sets, m.created_at FROM matches m " +
+                   "WHERE m.team1_id IN (:teamA, :teamB) AND m.team2_id IN (:teamA, :teamB) " +
+                   "AND m.team1_id <> m.team2_id AND m.status = 'COMPLETED' AND m.deleted_at IS NULL " +
+                   "UNION ALL " +
+                   "SELECT a.team1_id, a.packed_sets, a.created_at FROM archived_matches a " +
+                   "WHERE a.team1_id IN (:teamA, :teamB) AND a.team2_id IN (:teamA, :teamB) " +
+                   "AND a.team1_id <> a.team2_id AND a.deleted_at IS NULL " +
+                   "ORDER BY 3 DESC",
+           nativeQuery = true)
+    List<Object[]> findHeadToHead(Long teamA, Long teamB);
+}
@@ -2,14 +2,25 @@ package com.volleyball.scoretracker.repository;
 
 import com.volleyball.scoretracker.model.SetScore;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SetScoreRepository extends JpaRepository<SetScore, Long> {
     
-    List<SetScore> findByMatchId(Long matchId);
+    // Lookups also pass the match's created_at, the partition key on Postgres, so they read one partition
+    @Query("SELECT s FROM SetScore s WHERE s.match.id = :matchId AND s.matchCreatedAt = :matchCreatedAt ORDER BY s.setNumber")
+    List<SetScore> findByMatchOrderBySetNumber(Long matchId, LocalDateTime matchCreatedAt);
     
-    List<SetScore> findByMatchIdOrderBySetNumber(Long matchId);
-}
\ No newline at end of file
+    @Query("SELECT s FROM SetScore s WHERE s.match.id = :matchId AND s.matchCreatedAt = :matchCreatedAt AND s.setNumber = :setNumber")
+    Optional<SetScore> findByMatchAndSetNumber(Long matchId, LocalDateTime matchCreatedAt, int setNumber);
+    
+    @Modifying
+    @Query("DELETE FROM SetScore s WHERE s.match.id IN :matchIds")
+    int deleteByMatchIdIn(List<Long> matchIds);
+}
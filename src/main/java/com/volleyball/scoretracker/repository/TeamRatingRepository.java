@@ -0,0 +1,29 @@
+package com.volleyball.scoretracker.repository;
+
+import com.volleyball.scoretracker.model.TeamRating;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TeamRatingRepository extends JpaRepository<TeamRating, String> {
+
+    // In the caller's transaction; a team that already has a rating (or is being given one by a
+    // concurrent transaction, which this waits for) is left as it is
+    @Modifying
+    @Query(value = "INSERT INTO team_ratings (team_key, team_name, rating, matches_rated, updated_at) " +
+                   "VALUES (:teamKey, :teamName, :rating, 0, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertRatingIfAbsent(String teamKey, String teamName, double rating);
+
+    // Locked in key order so two matches between the same teams cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TeamRating r WHERE r.teamKey IN :teamKeys ORDER BY r.teamKey")
+    List<TeamRating> lockByTeamKeys(Collection<String> teamKeys);
+}
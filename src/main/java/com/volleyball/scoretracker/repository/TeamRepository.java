@@ -0,0 +1,76 @@
+package com.volleyball.scoretracker.repository;
+
+import com.volleyball.scoretracker.model.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    Optional<Team> findByUserIdAndNormalizedName(Long userId, String normalizedName);
+
+    Optional<Team> findByGuestSessionIdAndNormalizedName(Long guestSessionId, String normalizedName);
+
+    // New names are inserted in the caller's transaction; a concurrent insert of the same name
+    // wins and this one does nothing (re-select with the find above). One query per owner kind
+    // so neither binds a typeless null
+    @Modifying
+    @Query(value = "INSERT INTO teams (user_id, name, normalized_name, created_at) " +
+                   "VALUES (:userId, :name, :normalizedName, :createdAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertForUserIfAbsent(Long userId, String name, String normalizedName, LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO teams (guest_session_id, name, normalized_name, created_at) " +
+                   "VALUES (:guestSessionId, :name, :normalizedName, :createdAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertForGuestIfAbsent(Long guestSessionId, String name, String normalizedName, LocalDateTime createdAt);
+
+    @Query("SELECT t FROM Team t, GuestSession g WHERE g.id = t.guestSessionId " +
+           "AND g.sessionId = :sessionId AND t.normalizedName = :normalizedName")
+    Optional<Team> findByGuestSessionAndNormalizedName(UUID sessionId, String normalizedName);
+
+    // Claiming guest matches, step 1: point matches at the user's team where the user already
+    // has one with the same name (run for team1_id and team2_id)
+    @Modifying
+    @Query(value = "UPDATE matches SET team1_id = (" +
+                   "SELECT u.id FROM teams g JOIN teams u ON u.normalized_name = g.normalized_name " +
+                   "WHERE g.id = matches.team1_id AND u.user_id = :userId) " +
+                   "WHERE guest_session_id = :guestSessionId AND team1_id IN (" +
+                   "SELECT g.id FROM teams g JOIN teams u ON u.normalized_name = g.normalized_name " +
+                   "WHERE g.guest_session_id = :guestSessionId AND u.user_id = :userId)",
+           nativeQuery = true)
+    int remapGuestTeam1ToUserTeams(Long guestSessionId, Long userId);
+
+    @Modifying
+    @Query(value = "UPDATE matches SET team2_id = (" +
+                   "SELECT u.id FROM teams g JOIN teams u ON u.normalized_name = g.normalized_name " +
+                   "WHERE g.id = matches.team2_id AND u.user_id = :userId) " +
+                   "WHERE guest_session_id = :guestSessionId AND team2_id IN (" +
+                   "SELECT g.id FROM teams g JOIN teams u ON u.normalized_name = g.normalized_name " +
+                   "WHERE g.guest_session_id = :guestSessionId AND u.user_id = :userId)",
+           nativeQuery = true)
+    int remapGuestTeam2ToUserTeams(Long guestSessionId, Long userId);
+
+    // Step 2: the guest teams remapped above are no longer referenced
+    @Modifying
+    @Query(value = "DELETE FROM teams WHERE guest_session_id = :guestSessionId AND normalized_name IN (" +
+                   "SELECT u.normalized_name FROM teams u WHERE u.user_id = :userId)",
+           nativeQuery = true)
+    int deleteGuestTeamsKnownToUser(Long guestSessionId, Long userId);
+
+    // Step 3: every remaining guest team becomes the user's
+    @Modifying
+    @Query(value = "UPDATE teams SET user_id = :userId, guest_session_id = NULL WHERE guest_session_id = :guestSessionId",
+           nativeQuery = true)
+    int reassignGuestTeamsToUser(Long guestSessionId, Long userId);
+
+    // Account purge, last step: only the account's own matches referenced these
+    @Modifying
+    @Query("DELETE FROM Team t WHERE t.userId = :userId")
+    int deleteByOwner(Long userId);
+}
@@ -2,7 +2,13 @@ package com.volleyball.scoretracker.repository;
 
 import com.volleyball.scoretracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLoginAt = :loginAt WHERE u.id IN :ids")
+    int updateLastLoginAt(List<Long> ids, LocalDateTime loginAt);
+
+    // Account purge: a bulk delete, so the matches collection is never loaded for its cascade
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteRowById(Long id);
+}
@@ -0,0 +1,79 @@
+package com.volleyball.scoretracker.scheduling;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Postgres transaction-level advisory lock, held by an open transaction while the job runs.
+ * Each lease opens a connection of its own straight from the driver, like the event bus
+ * listener, so a running job never keeps a pooled connection idle in a transaction: the
+ * pool stays whole for requests, and a node uses at most app.jobs.threads extra connections.
+ * Closing the lease ends the transaction and the connection, which releases the lock; so
+ * does the connection dropping if the node dies.
+ */
+public class AdvisoryJobLock implements JobLock {
+
+    // First half of the two-int advisory key, so our locks cannot collide with anyone else's
+    static final int LOCK_NAMESPACE = 0x5C0E;
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    public AdvisoryJobLock(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public Lease tryAcquire(String jobName) {
+        int key = jobName.hashCode();
+        Connection connection = null;
+        try {
+            connection = DriverManager.getConnection(url, username, password);
+            // The transaction only ever runs this one statement, so it holds no snapshot while the job runs
+            connection.setAutoCommit(false);
+            if (!call(connection, "SELECT pg_try_advisory_xact_lock(?, ?)", key)) {
+                release(connection, jobName);
+                return null;
+            }
+            Connection held = connection;
+            return () -> release(held, jobName);
+        } catch (SQLException e) {
+            if (connection != null) {
+                release(connection, jobName);
+            }
+            throw new RuntimeException("Failed to acquire job lock " + jobName, e);
+        }
+    }
+
+    // Ends the transaction, which releases the lock, then the connection. If the rollback fails,
+    // closing the connection ends the backend and the lock with it
+    private void release(Connection connection, String jobName) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Failed to roll back job lock " + jobName + ", closing its connection: " + e.getMessage());
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Already gone
+        }
+    }
+
+    private boolean call(Connection connection, String sql, int key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setInt(2, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.volleyball.scoretracker.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs maintenance jobs on exactly one node per interval.
+ *
+ * Every node calls {@link #submitIfDue} from a frequent @Scheduled tick. The job runs only
+ * if this node wins the job lock (Postgres advisory lock, lease row elsewhere) and the
+ * job's interval has passed since its last run on any node. The short tick means a run
+ * missed because its node was down is caught up within one tick. Attempts run on a pool
+ * of their own after a random delay, so nodes started together do not contend on every
+ * tick and a long job never holds up the scheduler thread.
+ */
+@Component
+public class ClusterJobRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final JobLock jobLock;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final long maxJitterMillis;
+    private final long tickMillis;
+    private final ScheduledThreadPoolExecutor executor;
+    // Jobs waiting for their delay or running on this node
+    private final Set<String> submitted = ConcurrentHashMap.newKeySet();
+
+    public ClusterJobRunner(DataSource dataSource, DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry,
+                            @Value("${app.jobs.leaseMs:3600000}") long leaseMillis,
+                            @Value("${app.jobs.maxJitterMs:5000}") long maxJitterMillis,
+                            @Value("${app.jobs.tickMs:60000}") long tickMillis,
+                            @Value("${app.jobs.threads:2}") int threads) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.meterRegistry = meterRegistry;
+        this.maxJitterMillis = maxJitterMillis;
+        this.tickMillis = tickMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "cluster-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.jobLock = supportsAdvisoryLocks(dataSource)
+            ? new AdvisoryJobLock(dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword())
+            : new LeaseJobLock(jdbcTemplate, nodeId, leaseMillis);
+    }
+
+    private static boolean supportsAdvisoryLocks(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new RuntimeException("Cannot determine database type for job locks", e);
+        }
+    }
+
+    /**
+     * Queue {@link #runIfDue} on the job pool after a random delay up to maxJitterMs and
+     * return at once. A job still queued or running on this node from an earlier tick is
+     * not queued again.
+     */
+    public void submitIfDue(String jobName, Duration interval, Runnable job) {
+        if (!submitted.add(jobName)) {
+            return;
+        }
+        long delayMillis = maxJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMillis + 1) : 0;
+        try {
+            executor.schedule(() -> {
+                try {
+                    runIfDue(jobName, interval, job);
+                } catch (RuntimeException e) {
+                    // Lock or bookkeeping failed before the job started; the next tick tries again
+                    System.err.println("Job " + jobName + " not attempted: " + e.getMessage());
+                } finally {
+                    submitted.remove(jobName);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            submitted.remove(jobName);
+        }
+    }
+
+    /**
+     * Run the job here if no other node is running it and it has not run within interval.
+     * Returns true if this call ran it. Failures are logged and counted, not rethrown, so
+     * a failing job is retried on the next tick.
+     */
+    public boolean runIfDue(String jobName, Duration interval, Runnable job) {
+        ensureRegistered(jobName);
+
+        try (JobLock.Lease lease = jobLock.tryAcquire(jobName)) {
+            if (lease == null) {
+                skipped(jobName, "locked");
+                return false;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime lastFinished = lastFinishedAt(jobName);
+            if (lastFinished != null && lastFinished.plus(interval).isAfter(now)) {
+                skipped(jobName, "not_due");
+                return false;
+            }
+            if (lastFinished != null && lastFinished.plus(interval).plusNanos(tickMillis * 1_000_000).isBefore(now)) {
+                Counter.builder("jobs.catchup").tag("job", jobName)
+                    .description("Runs that started late because a scheduled run was missed")
+                    .register(meterRegistry).increment();
+                System.out.println("Job " + jobName + " missed its schedule, catching up (last run " + lastFinished + ")");
+            }
+
+            return execute(jobName, job, now);
+        }
+    }
+
+    private boolean execute(String jobName, Runnable job, LocalDateTime startedAt) {
+        jdbcTemplate.update("UPDATE scheduled_jobs SET last_started_at = ?, last_node = ? WHERE name = ?",
+            startedAt, nodeId, jobName);
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            job.run();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            System.err.println("Job " + jobName + " failed: " + e.getMessage());
+        }
+        long durationNanos = System.nanoTime() - start;
+        Timer.builder("jobs.run").tag("job", jobName).tag("outcome", outcome)
+            .description("Duration of cluster job runs")
+            .register(meterRegistry)
+            .record(Duration.ofNanos(durationNanos));
+
+        // Only a successful run counts; a failed one is retried on the next tick
+        if ("success".equals(outcome)) {
+            jdbcTemplate.update("UPDATE scheduled_jobs SET last_finished_at = ?, last_duration_ms = ? WHERE name = ?",
+                LocalDateTime.now(), durationNanos / 1_000_000, jobName);
+            return true;
+        }
+        return false;
+    }
+
+    private void ensureRegistered(String jobName) {
+        Integer rows = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM scheduled_jobs WHERE name = ?", Integer.class, jobName);
+        if (rows != null && rows == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO scheduled_jobs (name) VALUES (?)", jobName);
+            } catch (DuplicateKeyException e) {
+                // Another node registered it first
+            }
+        }
+    }
+
+    private LocalDateTime lastFinishedAt(String jobName) {
+        List<LocalDateTime> result = jdbcTemplate.queryForList(
+            "SELECT last_finished_at FROM scheduled_jobs WHERE name = ?", LocalDateTime.class, jobName);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    private void skipped(String jobName, String reason) {
+        Counter.builder("jobs.skipped").tag("job", jobName).tag("reason", reason)
+            .description("Job ticks that did not run the job on this node")
+            .register(meterRegistry).increment();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+}
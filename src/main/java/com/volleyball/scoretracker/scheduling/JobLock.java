@@ -0,0 +1,13 @@
+package com.volleyball.scoretracker.scheduling;
+
+// Cluster-wide mutual exclusion for a named job
+public interface JobLock {
+
+    // Returns null when another node holds the lock
+    Lease tryAcquire(String jobName);
+
+    interface Lease extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,37 @@
+package com.volleyball.scoretracker.scheduling;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fallback for databases without advisory locks (H2): a time-limited lease stored in
+ * scheduled_jobs. A node that dies mid-run blocks the job only until the lease expires.
+ */
+public class LeaseJobLock implements JobLock {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final long leaseMillis;
+
+    public LeaseJobLock(JdbcTemplate jdbcTemplate, String nodeId, long leaseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @Override
+    public Lease tryAcquire(String jobName) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update(
+            "UPDATE scheduled_jobs SET locked_by = ?, locked_until = ? " +
+            "WHERE name = ? AND (locked_by IS NULL OR locked_until < ?)",
+            nodeId, now.plusNanos(leaseMillis * 1_000_000), jobName, now);
+        if (updated == 0) {
+            return null;
+        }
+        return () -> jdbcTemplate.update(
+            "UPDATE scheduled_jobs SET locked_by = NULL, locked_until = NULL WHERE name = ? AND locked_by = ?",
+            jobName, nodeId);
+    }
+}
@@ -0,0 +1,129 @@
+package com.volleyball.scoretracker.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Adaptive limit on concurrent requests, with lower ceilings for lower priorities.
+ *
+ * The limit follows AIMD over short windows. A window is congested when connections
+ * waited on the pool longer than {@code poolWaitTargetMillis} on average, or when
+ * critical (scoring) requests took longer than {@code latencyTargetMillis} on
+ * average. A congested window cuts the limit by a fifth. A window without congestion
+ * that used the limit raises it by one.
+ *
+ * Critical requests may use the whole limit, normal ones {@code normalShare} of it
+ * and low-priority ones {@code lowShare}. As the limit shrinks, low-priority
+ * traffic is turned away first, and scoring keeps the headroom.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    public enum Priority { CRITICAL, NORMAL, LOW }
+
+    private static final double BACKOFF = 0.8;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double normalShare;
+    private final double lowShare;
+    private final long windowNanos;
+    private final double latencyTargetMillis;
+    private final double poolWaitTargetMillis;
+    private final DoubleSupplier poolWaitMillis; // Mean pool wait since the previous call
+
+    private volatile double limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Current window
+    private final AtomicLong windowStart;
+    private final LongAdder criticalNanos = new LongAdder();
+    private final LongAdder criticalCount = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double normalShare, double lowShare,
+                                    long windowMillis, double latencyTargetMillis, double poolWaitTargetMillis,
+                                    DoubleSupplier poolWaitMillis) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit
+                || lowShare <= 0 || normalShare < lowShare || normalShare > 1 || windowMillis <= 0) {
+            throw new IllegalArgumentException("Invalid admission control configuration");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.normalShare = normalShare;
+        this.lowShare = lowShare;
+        this.windowNanos = windowMillis * 1_000_000L;
+        this.latencyTargetMillis = latencyTargetMillis;
+        this.poolWaitTargetMillis = poolWaitTargetMillis;
+        this.poolWaitMillis = poolWaitMillis;
+        this.windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    // True if the request may run; every admitted request must be released
+    public boolean tryAcquire(Priority priority) {
+        int allowed = allowed(priority);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release(Priority priority, long latencyNanos) {
+        release(priority, latencyNanos, System.nanoTime());
+    }
+
+    void release(Priority priority, long latencyNanos, long now) {
+        inFlight.decrementAndGet();
+        if (priority == Priority.CRITICAL) {
+            criticalNanos.add(latencyNanos);
+            criticalCount.increment();
+        }
+        long start = windowStart.get();
+        // One completion per window adjusts the limit
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            adjust();
+        }
+    }
+
+    private void adjust() {
+        long count = criticalCount.sumThenReset();
+        long totalNanos = criticalNanos.sumThenReset();
+        double latencyMillis = count == 0 ? 0 : totalNanos / (double) count / 1_000_000;
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        long shed = rejected.sumThenReset();
+
+        double current = limit;
+        if (poolWaitMillis.getAsDouble() > poolWaitTargetMillis || latencyMillis > latencyTargetMillis) {
+            limit = Math.max(minLimit, current * BACKOFF);
+        } else if (shed > 0 || peak >= allowed(Priority.LOW)) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    private int allowed(Priority priority) {
+        double current = limit;
+        return switch (priority) {
+            case CRITICAL -> (int) current;
+            case NORMAL -> Math.max(1, (int) (current * normalShare));
+            case LOW -> Math.max(1, (int) (current * lowShare));
+        };
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,138 @@
+package com.volleyball.scoretracker.security;
+
+import com.volleyball.scoretracker.security.AdaptiveConcurrencyLimit.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for /api/matches, ahead of authentication so a shed request
+ * never takes a connection for its user lookup. See {@link AdaptiveConcurrencyLimit}.
+ *
+ * Scoring calls (every PUT) are critical. Lists, statistics, analytics, head-to-head
+ * and bulk deletes are low priority. Everything else is normal. The live stream is
+ * long-lived and holds no connection, so it is not counted.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String BUSY_BODY = "{\"message\":\"Server busy, please retry shortly\"}";
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit limit;
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    // Pool acquire totals at the previous window, across every Hikari pool
+    private final MeterRegistry meterRegistry;
+    private double lastAcquireMillis;
+    private long lastAcquireCount;
+    private double lastTimeouts;
+
+    public AdmissionControlFilter(MeterRegistry meterRegistry,
+                                  @Value("${app.admission.enabled:true}") boolean enabled,
+                                  @Value("${app.admission.initialLimit:20}") int initialLimit,
+                                  @Value("${app.admission.minLimit:4}") int minLimit,
+                                  @Value("${app.admission.maxLimit:200}") int maxLimit,
+                                  @Value("${app.admission.normalShare:0.8}") double normalShare,
+                                  @Value("${app.admission.lowShare:0.5}") double lowShare,
+                                  @Value("${app.admission.windowMs:250}") long windowMillis,
+                                  @Value("${app.admission.scoreLatencyTargetMs:200}") double latencyTargetMillis,
+                                  @Value("${app.admission.poolWaitTargetMs:10}") double poolWaitTargetMillis) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, normalShare, lowShare,
+            windowMillis, latencyTargetMillis, poolWaitTargetMillis, this::poolWaitSinceLastWindow);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Counter.builder("admission.rejected").tag("priority", priority.name().toLowerCase())
+                .description("Requests turned away with 503 by admission control").register(meterRegistry));
+        }
+        Gauge.builder("admission.limit", limit, AdaptiveConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder("admission.inFlight", limit, AdaptiveConcurrencyLimit::getInFlight).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !(path.equals("/api/matches") || path.startsWith("/api/matches/"))
+            || path.endsWith("/live") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Priority priority = priorityOf(request);
+        if (!limit.tryAcquire(priority)) {
+            shed.get(priority).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setIntHeader("Retry-After", 1);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(BUSY_BODY);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(priority, System.nanoTime() - start);
+        }
+    }
+
+    // Paths are relative to /api/matches
+    private static Priority priorityOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring("/api/matches".length());
+        if ("PUT".equals(method)) {
+            return Priority.CRITICAL;
+        }
+        if ("GET".equals(method) && (path.isEmpty() || path.equals("/") || path.equals("/statistics")
+                || path.equals("/analytics") || path.equals("/head-to-head"))) {
+            return Priority.LOW;
+        }
+        if ("POST".equals(method) && path.equals("/bulk-delete")) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    // Mean connection wait since the previous window; any acquire timeout counts as unbounded
+    private synchronized double poolWaitSinceLastWindow() {
+        double acquireMillis = 0;
+        long acquireCount = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            acquireMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+            acquireCount += timer.count();
+        }
+        double timeouts = 0;
+        for (Counter counter : meterRegistry.find("hikaricp.connections.timeout").counters()) {
+            timeouts += counter.count();
+        }
+
+        double waitMillis = acquireCount > lastAcquireCount
+            ? (acquireMillis - lastAcquireMillis) / (acquireCount - lastAcquireCount) : 0;
+        if (timeouts > lastTimeouts) {
+            waitMillis = Double.POSITIVE_INFINITY;
+        }
+        lastAcquireMillis = acquireMillis;
+        lastAcquireCount = acquireCount;
+        lastTimeouts = timeouts;
+        return waitMillis;
+    }
+}
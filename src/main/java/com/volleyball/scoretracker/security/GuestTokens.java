@@ -0,0 +1,92 @@
+package com.volleyball.scoretracker.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Signed guest session tokens, checked without a database read.
+ *
+ * A token is {@code payload.signature}, both base64url: the payload is the session id
+ * (16 bytes) and its expiry (epoch seconds, 8 bytes), the signature an HMAC-SHA256 of
+ * the payload. Verifying recomputes the HMAC and compares it in constant time.
+ */
+@Component
+public class GuestTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_BYTES = 24;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public GuestTokens(@Value("${app.guest.tokenSecret:${app.jwtSecret:volleyballSecretKey}}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(UUID sessionId, Instant expiresAt) {
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+            .putLong(sessionId.getMostSignificantBits())
+            .putLong(sessionId.getLeastSignificantBits())
+            .putLong(expiresAt.getEpochSecond())
+            .array();
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    // The session id, if the token is intact and has not expired at the given time
+    public Optional<UUID> verify(String token, Instant now) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (payload.length != PAYLOAD_BYTES || !MessageDigest.isEqual(sign(payload), signature)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        UUID sessionId = new UUID(buffer.getLong(), buffer.getLong());
+        if (buffer.getLong() <= now.getEpochSecond()) {
+            return Optional.empty();
+        }
+        return Optional.of(sessionId);
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
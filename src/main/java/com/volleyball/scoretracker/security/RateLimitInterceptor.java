@@ -0,0 +1,110 @@
+package com.volleyball.scoretracker.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String TOO_MANY_REQUESTS_BODY = "{\"message\":\"Too many requests\"}";
+
+    @Value("${app.rateLimit.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private GuestTokens guestTokens;
+
+    private final TokenBucketRateLimiter scoringLimiter;
+    private final TokenBucketRateLimiter readLimiter;
+    private final TokenBucketRateLimiter sessionCreationLimiter;
+
+    public RateLimitInterceptor(
+            @Value("${app.rateLimit.scoring.capacity:20}") int scoringCapacity,
+            @Value("${app.rateLimit.scoring.refillPerSecond:10}") double scoringRefill,
+            @Value("${app.rateLimit.reads.capacity:60}") int readCapacity,
+            @Value("${app.rateLimit.reads.refillPerSecond:20}") double readRefill,
+            @Value("${app.rateLimit.sessionCreation.capacity:10}") int sessionCapacity,
+            @Value("${app.rateLimit.sessionCreation.refillPerSecond:0.2}") double sessionRefill,
+            @Value("${app.rateLimit.maxBuckets:16384}") int maxBuckets) {
+        this.scoringLimiter = new TokenBucketRateLimiter(scoringCapacity, scoringRefill, maxBuckets);
+        this.readLimiter = new TokenBucketRateLimiter(readCapacity, readRefill, maxBuckets);
+        this.sessionCreationLimiter = new TokenBucketRateLimiter(sessionCapacity, sessionRefill, maxBuckets);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!enabled) {
+            return true;
+        }
+
+        TokenBucketRateLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            return true;
+        }
+
+        // Prefer the most specific identity: user id, then guest session, then client IP. Only a
+        // signed guest token counts as a session; anything else in the header would give every
+        // request a fresh bucket. Session creation is always per IP for the same reason
+        long waitMillis;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Optional<UUID> guestSession = limiter == sessionCreationLimiter
+            ? Optional.empty() : guestTokens.verify(request.getHeader("Guest-Session-Id"), Instant.now());
+        if (limiter != sessionCreationLimiter && authentication != null
+                && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            waitMillis = limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, user.getId());
+        } else if (guestSession.isPresent()) {
+            waitMillis = limiter.tryAcquire(TokenBucketRateLimiter.KIND_GUEST, guestSession.get());
+        } else {
+            waitMillis = limiter.tryAcquire(TokenBucketRateLimiter.KIND_IP, request.getRemoteAddr());
+        }
+
+        if (waitMillis == 0) {
+            return true;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setIntHeader("Retry-After", TokenBucketRateLimiter.retryAfterSeconds(waitMillis));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(TOO_MANY_REQUESTS_BODY);
+        return false;
+    }
+
+    // Map a request onto its endpoint class: session creation, reads or scoring
+    private TokenBucketRateLimiter limiterFor(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+
+        if (path.startsWith("/api/guest/")) {
+            if ("POST".equals(method) && path.equals("/api/guest/session")) {
+                return sessionCreationLimiter;
+            }
+            return "GET".equals(method) ? readLimiter : null;
+        }
+
+        if ("GET".equals(method)) {
+            return readLimiter;
+        }
+        if ("OPTIONS".equals(method)) {
+            return null;
+        }
+        return scoringLimiter;
+    }
+
+    // Called periodically by CleanupService to keep limiter memory bounded
+    public int evictIdleBuckets() {
+        return scoringLimiter.evictIdle() + readLimiter.evictIdle() + sessionCreationLimiter.evictIdle();
+    }
+}
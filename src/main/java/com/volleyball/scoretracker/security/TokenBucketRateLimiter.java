@@ -0,0 +1,206 @@
+package com.volleyball.scoretracker.security;
+
+/**
+ * In-memory token-bucket limiter keyed by client identity.
+ *
+ * Buckets live in a fixed number of lock stripes, each an open-addressing table
+ * backed by parallel primitive arrays, so {@link #tryAcquire} never allocates.
+ * Memory is bounded by {@code maxBuckets}; when a stripe fills up the least
+ * recently used bucket is dropped, and {@link #evictIdle} removes buckets that
+ * have been idle long enough to refill completely (which is the same as absent).
+ */
+public class TokenBucketRateLimiter {
+
+    // Key kinds keep user ids, guest sessions and IPs in separate namespaces
+    public static final byte KIND_USER = 1;
+    public static final byte KIND_GUEST = 2;
+    public static final byte KIND_IP = 3;
+
+    private static final int STRIPES = 64;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final long idleNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxBuckets) {
+        if (capacity < 1 || refillPerSecond <= 0 || maxBuckets < STRIPES) {
+            throw new IllegalArgumentException("Invalid rate limit configuration");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        // A bucket idle for this long is full again, so forgetting it changes nothing
+        this.idleNanos = (long) Math.ceil(capacity / refillPerSecond * NANOS_PER_SECOND);
+
+        int perStripe = maxBuckets / STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Takes one token for the given key.
+     *
+     * @return 0 if the request is allowed, otherwise the number of milliseconds
+     *         until the next token becomes available
+     */
+    public long tryAcquire(byte kind, Object key) {
+        return tryAcquire(kind, key, System.nanoTime());
+    }
+
+    long tryAcquire(byte kind, Object key, long now) {
+        int hash = spread(key.hashCode() * 31 + kind);
+        Stripe stripe = stripes[stripeOf(hash)];
+        synchronized (stripe) {
+            int slot = stripe.findOrInsert(kind, key, hash >>> 6, now, capacity);
+
+            double tokens = Math.min(capacity,
+                    stripe.tokens[slot] + (now - stripe.lastRefill[slot]) * refillPerNano);
+            stripe.lastRefill[slot] = now;
+
+            if (tokens >= 1.0) {
+                stripe.tokens[slot] = tokens - 1.0;
+                return 0;
+            }
+            stripe.tokens[slot] = tokens;
+            return (long) Math.ceil((1.0 - tokens) / refillPerNano / 1_000_000L);
+        }
+    }
+
+    // Whole seconds for a Retry-After header, rounded up so a client that waits them gets a token
+    public static int retryAfterSeconds(long waitMillis) {
+        return (int) Math.max(1, (waitMillis + 999) / 1000);
+    }
+
+    // Drop every bucket that has refilled to capacity since it was last used
+    public int evictIdle() {
+        return evictIdle(System.nanoTime());
+    }
+
+    int evictIdle(long now) {
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                evicted += stripe.evictOlderThan(now - idleNanos);
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    // Stripe a key lands in; keys sharing one compete for its maxBuckets / 64 slots
+    static int stripeOf(byte kind, Object key) {
+        return stripeOf(spread(key.hashCode() * 31 + kind));
+    }
+
+    private static int stripeOf(int hash) {
+        return hash & (STRIPES - 1);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // One lock stripe: linear-probing table with backward-shift deletion
+    private static final class Stripe {
+        private final int maxEntries;
+        private final int mask;
+        private final Object[] keys;
+        private final byte[] kinds;
+        private final int[] hashes;
+        private final double[] tokens;
+        private final long[] lastRefill;
+        private int size;
+
+        Stripe(int maxEntries) {
+            // Keep the load factor at or below one half
+            int tableSize = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+            this.maxEntries = maxEntries;
+            this.mask = tableSize - 1;
+            this.keys = new Object[tableSize];
+            this.kinds = new byte[tableSize];
+            this.hashes = new int[tableSize];
+            this.tokens = new double[tableSize];
+            this.lastRefill = new long[tableSize];
+        }
+
+        int findOrInsert(byte kind, Object key, int hash, long now, double capacity) {
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && kinds[slot] == kind && keys[slot].equals(key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            if (size >= maxEntries) {
+                removeAt(leastRecentlyUsed());
+                // Removal may have shifted entries into the free slot we found
+                return findOrInsert(kind, key, hash, now, capacity);
+            }
+
+            keys[slot] = key;
+            kinds[slot] = kind;
+            hashes[slot] = hash;
+            tokens[slot] = capacity;
+            lastRefill[slot] = now;
+            size++;
+            return slot;
+        }
+
+        int evictOlderThan(long cutoff) {
+            int evicted = 0;
+            int slot = 0;
+            while (slot <= mask) {
+                if (keys[slot] != null && lastRefill[slot] - cutoff < 0) {
+                    removeAt(slot);
+                    evicted++;
+                    // Re-check this slot: backward shift may have moved an entry into it
+                } else {
+                    slot++;
+                }
+            }
+            return evicted;
+        }
+
+        private int leastRecentlyUsed() {
+            int oldest = -1;
+            for (int slot = 0; slot <= mask; slot++) {
+                if (keys[slot] != null && (oldest < 0 || lastRefill[slot] - lastRefill[oldest] < 0)) {
+                    oldest = slot;
+                }
+            }
+            return oldest;
+        }
+
+        private void removeAt(int slot) {
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (keys[next] != null) {
+                int home = hashes[next] & mask;
+                // Move the entry back if its home slot is not inside (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    kinds[hole] = kinds[next];
+                    hashes[hole] = hashes[next];
+                    tokens[hole] = tokens[next];
+                    lastRefill[hole] = lastRefill[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = null;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.AccountPurge;
+import com.volleyball.scoretracker.model.User;
+import com.volleyball.scoretracker.repository.AccountPurgeRepository;
+import com.volleyball.scoretracker.repository.ArchivedMatchRepository;
+import com.volleyball.scoretracker.repository.MatchRepository;
+import com.volleyball.scoretracker.repository.SetScoreRepository;
+import com.volleyball.scoretracker.repository.TeamRepository;
+import com.volleyball.scoretracker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deletes accounts without loading their history.
+ *
+ * A deletion request only renames the account out of the way (its tokens and its
+ * username stop resolving at once) and records an account_purges row. The purge job
+ * then removes the account's rows one chunk per short transaction: hot matches with
+ * their set scores, archived matches, teams and finally the user row. Each chunk
+ * updates the progress counters in the same transaction, and the next chunk is
+ * always derived from what is left, so a purge interrupted by a crash or a deploy
+ * simply continues on the next run.
+ */
+@Service
+public class AccountPurgeService {
+
+    @Autowired
+    private AccountPurgeRepository accountPurgeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private ArchivedMatchRepository archivedMatchRepository;
+
+    @Autowired
+    private SetScoreRepository setScoreRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.accountPurge.batchSize:500}")
+    private int batchSize;
+
+    // Between chunks, so live scoring gets the rows and connections in between
+    @Value("${app.accountPurge.pauseMs:50}")
+    private long pauseMillis;
+
+    // Per job run, kept to seconds so the scheduler thread is free again soon; whatever is
+    // left continues on the next run
+    @Value("${app.accountPurge.maxRunMs:5000}")
+    private long maxRunMillis;
+
+    @Value("${app.accountPurge.retentionDays:7}")
+    private int retentionDays;
+
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Lock the account out and queue its purge; asking again returns the purge already queued
+    @Transactional
+    public AccountPurge requestPurge(Long userId) {
+        Optional<AccountPurge> existing = accountPurgeRepository.findByUserId(userId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+
+        AccountPurge purge = new AccountPurge(userId,
+            matchRepository.countForAccountPurge(userId), archivedMatchRepository.countForAccountPurge(userId));
+        // Longer than any username registration accepts, so never taken; the old username and email are free again
+        user.setUsername("deleted-" + purge.getId());
+        user.setEmail(purge.getId() + "@deleted.invalid");
+        user.setPassword("");
+        userRepository.save(user);
+        accountPurgeRepository.save(purge);
+
+        eventBus.publish(ClusterEvent.Type.RESULTS_CHANGED, TeamAnalyticsService.userOwner(userId));
+        System.out.println("Account purge " + purge.getId() + " queued for user " + userId + ": " +
+                           purge.getMatchesTotal() + " matches, " + purge.getArchivedTotal() + " archived");
+        return purge;
+    }
+
+    public Optional<AccountPurge> findPurge(String purgeId) {
+        return accountPurgeRepository.findById(purgeId);
+    }
+
+    // Work through the queued purges, oldest first, until they are done or maxRunMs has passed;
+    // returns how many chunks ran
+    public int runPendingPurges() {
+        long deadline = System.currentTimeMillis() + maxRunMillis;
+        int chunks = 0;
+        for (AccountPurge pending : accountPurgeRepository.findByCompletedAtIsNullOrderByRequestedAt()) {
+            try {
+                boolean more;
+                do {
+                    more = Boolean.TRUE.equals(chunkTransaction.execute(status -> purgeChunk(pending.getId())));
+                    chunks++;
+                    if (more) {
+                        pause();
+                    }
+                } while (more && System.currentTimeMillis() < deadline);
+            } catch (RuntimeException e) {
+                // Rolled back to the last finished chunk; retried on the next run
+                System.err.println("Account purge " + pending.getId() + " stopped: " + e.getMessage());
+            }
+            findPurge(pending.getId()).ifPresent(this::logProgress);
+            if (System.currentTimeMillis() >= deadline) {
+                break;
+            }
+        }
+        chunkTransaction.executeWithoutResult(status ->
+            accountPurgeRepository.deleteCompletedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        return chunks;
+    }
+
+    // One bounded step in the current transaction; true while the account still has rows
+    private boolean purgeChunk(String purgeId) {
+        AccountPurge purge = accountPurgeRepository.findById(purgeId).orElse(null);
+        if (purge == null || purge.isCompleted()) {
+            return false;
+        }
+        Long userId = purge.getUserId();
+
+        List<Long> matchIds = matchRepository.findIdsForAccountPurge(userId, batchSize);
+        if (!matchIds.isEmpty()) {
+            setScoreRepository.deleteByMatchIdIn(matchIds);
+            purge.addMatchesPurged(matchRepository.deleteRowsByIdIn(matchIds));
+            return true;
+        }
+        List<Long> archivedIds = archivedMatchRepository.findIdsForAccountPurge(userId, batchSize);
+        if (!archivedIds.isEmpty()) {
+            purge.addArchivedPurged(archivedMatchRepository.deleteRowsByIdIn(archivedIds));
+            return true;
+        }
+
+        // A match created or archived meanwhile fails these on its foreign key; the retry picks it up
+        teamRepository.deleteByOwner(userId);
+        userRepository.deleteRowById(userId);
+        purge.setCompletedAt(LocalDateTime.now());
+        return false;
+    }
+
+    private void logProgress(AccountPurge purge) {
+        System.out.println("Account purge " + purge.getId() + (purge.isCompleted() ? " completed" : " in progress") + ": " +
+                           purge.getMatchesPurged() + "/" + purge.getMatchesTotal() + " matches, " +
+                           purge.getArchivedPurged() + "/" + purge.getArchivedTotal() + " archived");
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted", e);
+        }
+    }
+}
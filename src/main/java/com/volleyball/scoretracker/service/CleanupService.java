@@ -1,18 +1,114 @@
 package com.volleyball.scoretracker.service;
 
+import com.volleyball.scoretracker.datasource.RecentWrites;
+import com.volleyball.scoretracker.scheduling.ClusterJobRunner;
+import com.volleyball.scoretracker.security.RateLimitInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 public class CleanupService {
     
     @Autowired
     private GuestSessionService guestSessionService;
     
-    // Run every hour
-    @Scheduled(fixedRate = 3600000)
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+    
+    @Autowired
+    private MatchArchiveService matchArchiveService;
+    
+    @Autowired
+    private MatchPartitionService matchPartitionService;
+    
+    @Autowired
+    private MatchPurgeService matchPurgeService;
+    
+    @Autowired
+    private AccountPurgeService accountPurgeService;
+    
+    @Autowired
+    private RecentWrites recentWrites;
+    
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+    
+    @Value("${app.archive.enabled:true}")
+    private boolean archiveEnabled;
+    
+    @Value("${app.archive.intervalMs:3600000}")
+    private long archiveIntervalMs;
+    
+    @Value("${app.purge.intervalMs:60000}")
+    private long purgeIntervalMs;
+    
+    @Value("${app.accountPurge.intervalMs:60000}")
+    private long accountPurgeIntervalMs;
+    
+    // Hourly, on one node of the cluster (checked every tick so a missed run is caught up)
+    @Scheduled(fixedRateString = "${app.jobs.tickMs:60000}", initialDelayString = "${app.jobs.initialDelayMs:30000}")
     public void cleanupExpiredGuestSessions() {
-        guestSessionService.cleanupExpiredSessions();
+        clusterJobRunner.submitIfDue("guest-session-cleanup", Duration.ofHours(1),
+            guestSessionService::cleanupExpiredSessions);
+    }
+    
+    // Run every minute - drop rate limit buckets that have fully refilled (per node state)
+    @Scheduled(fixedRate = 60000)
+    public void cleanupIdleRateLimitBuckets() {
+        rateLimitInterceptor.evictIdleBuckets();
+    }
+    
+    // Run every minute - forget clients whose read-your-writes window has passed (per node state)
+    @Scheduled(fixedRate = 60000)
+    public void cleanupRecentWrites() {
+        recentWrites.evictExpired();
+    }
+    
+    // Every archive interval, on one node - move old completed matches to the archive tier: whole expired
+    // month partitions first (Postgres), then the rest one short batch at a time
+    @Scheduled(fixedRateString = "${app.jobs.tickMs:60000}", initialDelayString = "${app.archive.initialDelayMs:60000}")
+    public void archiveCompletedMatches() {
+        if (!archiveEnabled) {
+            return;
+        }
+        clusterJobRunner.submitIfDue("match-archive", Duration.ofMillis(archiveIntervalMs), () -> {
+            matchArchiveService.archiveExpiredPartitions();
+            int archived;
+            do {
+                archived = matchArchiveService.archiveBatch();
+            } while (archived > 0);
+        });
+    }
+    
+    // Daily, on one node - keep monthly match partitions created ahead of time (Postgres only)
+    @Scheduled(fixedRateString = "${app.jobs.tickMs:60000}", initialDelayString = "${app.jobs.initialDelayMs:30000}")
+    public void createMatchPartitions() {
+        if (!matchPartitionService.isPartitioned()) {
+            return;
+        }
+        clusterJobRunner.submitIfDue("match-partitions", Duration.ofDays(1),
+            matchPartitionService::createUpcomingPartitions);
+    }
+    
+    // Every purge interval, on one node - physically remove deleted (tombstoned) matches, one short chunk at a time
+    @Scheduled(fixedRateString = "${app.jobs.tickMs:60000}", initialDelayString = "${app.jobs.initialDelayMs:30000}")
+    public void purgeDeletedMatches() {
+        clusterJobRunner.submitIfDue("match-purge", Duration.ofMillis(purgeIntervalMs), () -> {
+            int purged;
+            do {
+                purged = matchPurgeService.purgeBatch();
+            } while (purged > 0);
+        });
+    }
+    
+    // Every account purge interval, on one node - remove deleted accounts chunk by chunk, resuming where the last run stopped
+    @Scheduled(fixedRateString = "${app.jobs.tickMs:60000}", initialDelayString = "${app.jobs.initialDelayMs:30000}")
+    public void purgeDeletedAccounts() {
+        clusterJobRunner.submitIfDue("account-purge", Duration.ofMillis(accountPurgeIntervalMs),
+            accountPurgeService::runPendingPurges);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,235 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.datasource.DataSourceRouting;
+import com.volleyball.scoretracker.dto.CourtState;
+import com.volleyball.scoretracker.dto.DashboardResponse;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.model.PackedSetScores;
+import com.volleyball.scoretracker.repository.MatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Venue dashboard: the state of all of an owner's courts in one response.
+ *
+ * Every owner has one shared snapshot, built from a single bounded query and reused by
+ * all screens polling it for refreshMs. When it expires, one request rebuilds it while
+ * concurrent requests keep getting the previous snapshot, so an owner costs at most
+ * one query per refreshMs however many screens poll. A snapshot is also reused past
+ * its expiry if no match changed anywhere since it was built.
+ */
+@Service
+public class DashboardService {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Value("${app.dashboard.refreshMs:250}")
+    private long refreshMs;
+
+    @Value("${app.dashboard.maxCourts:64}")
+    private int maxCourts;
+
+    @Value("${app.dashboard.finishedMinutes:30}")
+    private long finishedMinutes;
+
+    @Value("${app.dashboard.cacheSize:1000}")
+    private int cacheSize;
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    // Bumped by every match change on any node; an unchanged version means a snapshot is still current
+    private final AtomicLong changes = new AtomicLong();
+
+    private final Timer rebuildTimer;
+    private final Counter servedCounter;
+
+    public DashboardService(MeterRegistry meterRegistry) {
+        this.rebuildTimer = Timer.builder("dashboard.rebuild")
+            .description("Time to rebuild one owner's dashboard snapshot")
+            .register(meterRegistry);
+        this.servedCounter = Counter.builder("dashboard.served")
+            .description("Dashboard responses served from a snapshot")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribeToEvents() {
+        eventBus.subscribe(event -> {
+            ClusterEvent.Type type = event.getType();
+            if (type == ClusterEvent.Type.MATCH_UPDATED || type == ClusterEvent.Type.MATCH_DELETED
+                || type == ClusterEvent.Type.MATCHES_DELETED || type == ClusterEvent.Type.MATCHES_CLAIMED || type == ClusterEvent.Type.RESYNC) {
+                changes.incrementAndGet();
+            } else if (type == ClusterEvent.Type.SESSION_REMOVED) {
+                slots.remove(guestOwner(event.getKey()));
+            }
+        });
+    }
+
+    public DashboardResponse getForUser(Long userId, Collection<Long> matchIds) {
+        return select(snapshot(userOwner(userId), since -> matchRepository.findDashboardMatchesForUser(
+            userId, MatchStatus.COMPLETED, since, PageRequest.of(0, maxCourts))), matchIds);
+    }
+
+    public DashboardResponse getForGuest(String sessionId, Collection<Long> matchIds) {
+        if (!guestSessionService.isSessionValid(sessionId)) {
+            throw new RuntimeException("Guest session has expired");
+        }
+        return select(snapshot(guestOwner(sessionId), since -> matchRepository.findDashboardMatchesForGuest(
+            UUID.fromString(sessionId), MatchStatus.COMPLETED, since, PageRequest.of(0, maxCourts))), matchIds);
+    }
+
+    private Snapshot snapshot(String owner, CourtLoader loader) {
+        Slot slot = slots.get(owner);
+        if (slot == null) {
+            if (slots.size() >= cacheSize) {
+                slots.clear();
+            }
+            slot = slots.computeIfAbsent(owner, key -> new Slot());
+        }
+
+        Snapshot current = slot.snapshot;
+        if (isCurrent(current)) {
+            return current;
+        }
+        // Someone else is rebuilding: the previous snapshot is at most one rebuild old
+        if (current != null && !slot.lock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            slot.lock.lock();
+        }
+        try {
+            current = slot.snapshot;
+            if (isCurrent(current)) {
+                return current;
+            }
+            if (current != null && current.version == changes.get()) {
+                // Nothing changed since the last build: keep it, just restart the clock
+                current = new Snapshot(current.builtAt, System.currentTimeMillis(), current.version, current.courts);
+            } else {
+                current = rebuildTimer.record(() -> build(loader));
+            }
+            slot.snapshot = current;
+            return current;
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private boolean isCurrent(Snapshot snapshot) {
+        return snapshot != null && System.currentTimeMillis() - snapshot.checkedAtMs < refreshMs;
+    }
+
+    private Snapshot build(CourtLoader loader) {
+        long version = changes.get();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, CourtState> courts = new LinkedHashMap<>();
+        // From the primary, even in a request routed to the replica: the snapshot is stamped with the
+        // current version, so one built from a lagging replica would be kept until the next change
+        for (Match match : DataSourceRouting.onPrimary(() -> loader.load(now.minusMinutes(finishedMinutes)))) {
+            courts.put(match.getId(), toCourt(match));
+        }
+        return new Snapshot(now, System.currentTimeMillis(), version, Collections.unmodifiableMap(courts));
+    }
+
+    // No ids: every court in the snapshot. Otherwise the requested ones in the requested order;
+    // ids the owner has no court for are left out
+    private DashboardResponse select(Snapshot snapshot, Collection<Long> matchIds) {
+        servedCounter.increment();
+        if (matchIds == null || matchIds.isEmpty()) {
+            return new DashboardResponse(snapshot.builtAt, new ArrayList<>(snapshot.courts.values()));
+        }
+        List<CourtState> courts = new ArrayList<>(matchIds.size());
+        for (Long matchId : matchIds) {
+            CourtState court = snapshot.courts.get(matchId);
+            if (court != null) {
+                courts.add(court);
+            }
+        }
+        return new DashboardResponse(snapshot.builtAt, courts);
+    }
+
+    private static CourtState toCourt(Match match) {
+        CourtState court = new CourtState();
+        court.setMatchId(match.getId());
+        court.setTeam1Name(match.getTeam1Name());
+        court.setTeam2Name(match.getTeam2Name());
+        court.setTeam1Score(match.getTeam1Score());
+        court.setTeam2Score(match.getTeam2Score());
+        court.setTeam1Sets(match.getTeam1Sets());
+        court.setTeam2Sets(match.getTeam2Sets());
+        court.setCurrentSet(match.getCurrentSet());
+        court.setStatus(match.getStatus().name());
+        court.setRules(match.getRules().getName());
+        court.setLastScoreTime(match.getLastScoreTime());
+
+        byte[] packed = match.getPackedSets();
+        int setCount = PackedSetScores.setCount(packed);
+        List<String> setScores = new ArrayList<>(setCount);
+        for (int set = 1; set <= setCount; set++) {
+            setScores.add(PackedSetScores.team1Points(packed, set) + "-" + PackedSetScores.team2Points(packed, set));
+        }
+        court.setSetScores(setScores);
+        return court;
+    }
+
+    private static String userOwner(Long userId) {
+        return "user:" + userId;
+    }
+
+    private static String guestOwner(String sessionId) {
+        return "guest:" + sessionId;
+    }
+
+    private interface CourtLoader {
+        List<Match> load(LocalDateTime finishedSince);
+    }
+
+    private static final class Slot {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile Snapshot snapshot;
+    }
+
+    // Immutable once built, so any number of requests can read it concurrently
+    private static final class Snapshot {
+        final LocalDateTime builtAt;
+        final long checkedAtMs;
+        final long version;
+        final Map<Long, CourtState> courts;
+
+        Snapshot(LocalDateTime builtAt, long checkedAtMs, long version, Map<Long, CourtState> courts) {
+            this.builtAt = builtAt;
+            this.checkedAtMs = checkedAtMs;
+            this.version = version;
+            this.courts = courts;
+        }
+    }
+}
@@ -1,38 +1,176 @@
 package com.volleyball.scoretracker.service;
 
+import com.volleyball.scoretracker.datasource.DataSourceRouting;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
 import com.volleyball.scoretracker.model.GuestSession;
 import com.volleyball.scoretracker.repository.GuestSessionRepository;
+import com.volleyball.scoretracker.security.GuestTokens;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Guest sessions without a row per visitor.
+ *
+ * A new session is only an id and an expiry, handed to the client as a signed token
+ * (see {@link GuestTokens}); checking a token reads nothing from the database. The
+ * guest_sessions row, which owns the guest's teams and matches, is inserted when the
+ * guest creates its first match.
+ *
+ * Session ids are time-ordered UUIDs (version 7) whose top 48 bits are the issue time.
+ * The expiry follows from the id, so the row inserted later gets the token's expiry and
+ * services can check an id they are handed without the token.
+ *
+ * Deleting a session revokes its token until it expires. Revocations are stored in
+ * revoked_guest_sessions and kept in memory for the token check: loaded at startup and
+ * after an event bus resync, and added to by SESSION_REMOVED events from other nodes.
+ */
 @Service
 public class GuestSessionService {
     
+    private static final Duration SESSION_LIFETIME = Duration.ofDays(1);
+    
     @Autowired
     private GuestSessionRepository guestSessionRepository;
     
+    @Autowired
+    private ClusterEventBus eventBus;
+    
+    @Autowired
+    private MatchPurgeService matchPurgeService;
+    
+    @Autowired
+    private GuestTokens guestTokens;
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    // Deleted sessions whose tokens have not expired yet, with that expiry: the stored
+    // revocations plus SESSION_REMOVED events that may not be visible to a read yet
+    private final Map<String, LocalDateTime> revokedSessions = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void subscribeToEvents() {
+        eventBus.subscribe(event -> {
+            if (event.getType() == ClusterEvent.Type.SESSION_REMOVED) {
+                revoke(event.getKey());
+            } else if (event.getType() == ClusterEvent.Type.RESYNC) {
+                loadRevocations();
+            }
+        });
+        loadRevocations();
+    }
+    
+    // A new session; nothing is stored until the guest creates a match
     public GuestSession createGuestSession() {
-        String sessionId = UUID.randomUUID().toString();
-        GuestSession session = new GuestSession(sessionId);
-        return guestSessionRepository.save(session);
+        long now = System.currentTimeMillis();
+        UUID sessionId = new UUID((now << 16) | 0x7000L | random.nextInt(0x1000),
+                                  (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+        return new GuestSession(sessionId, expiresAt(sessionId));
+    }
+    
+    public String issueToken(GuestSession session) {
+        return guestTokens.issue(session.getSessionId(), session.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+    
+    // The session id a token stands for, if it is intact, unexpired and not deleted
+    public Optional<String> resolveToken(String token) {
+        return guestTokens.verify(token, Instant.now())
+            .map(UUID::toString)
+            .filter(sessionId -> !revokedSessions.containsKey(sessionId));
     }
     
     public Optional<GuestSession> findBySessionId(String sessionId) {
-        return guestSessionRepository.findBySessionId(sessionId);
+        return guestSessionRepository.findBySessionId(UUID.fromString(sessionId));
     }
     
+    // For a session id resolved from a token: still valid unless it expired or was deleted since
     public boolean isSessionValid(String sessionId) {
+        UUID id;
+        try {
+            id = UUID.fromString(sessionId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return id.version() == 7 && expiresAt(id).isAfter(LocalDateTime.now()) && !revokedSessions.containsKey(sessionId);
+    }
+    
+    // The session's row, inserted on first use in the caller's transaction: it commits or rolls
+    // back with the match that needed it. A concurrent insert of the same session makes this one
+    // wait for it and then do nothing
+    @Transactional
+    public GuestSession persistedSession(String sessionId) {
+        Optional<GuestSession> existing = findBySessionId(sessionId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        UUID id = UUID.fromString(sessionId);
+        guestSessionRepository.insertIfAbsent(id, LocalDateTime.now(), expiresAt(id));
+        return guestSessionRepository.findBySessionId(id).orElseThrow();
+    }
+    
+    // Delete a session and its matches, and tell every node to stop accepting its token
+    @Transactional
+    public boolean deleteSession(String sessionId) {
+        if (!isSessionValid(sessionId)) {
+            return false;
+        }
+        revoke(sessionId);
+        UUID id = UUID.fromString(sessionId);
+        guestSessionRepository.revoke(id, expiresAt(id));
         Optional<GuestSession> session = findBySessionId(sessionId);
-        return session.isPresent() && session.get().getExpiresAt().isAfter(LocalDateTime.now());
+        if (session.isPresent()) {
+            matchPurgeService.purgeGuestSession(session.get().getId());
+            guestSessionRepository.delete(session.get());
+        }
+        eventBus.publish(ClusterEvent.Type.SESSION_REMOVED, sessionId);
+        return true;
     }
     
+    // No events needed here: tokens stop verifying at the same expiry on every node
+    @Transactional
     public void cleanupExpiredSessions() {
+        guestSessionRepository.deleteExpiredRevocations(LocalDateTime.now());
         List<GuestSession> expiredSessions = guestSessionRepository.findExpiredSessions(LocalDateTime.now());
+        for (GuestSession session : expiredSessions) {
+            matchPurgeService.purgeGuestSession(session.getId());
+        }
         guestSessionRepository.deleteAll(expiredSessions);
     }
-}
\ No newline at end of file
+    
+    // Issue time from the id, plus the lifetime; whole seconds, as in the token
+    private static LocalDateTime expiresAt(UUID sessionId) {
+        long issuedAtMillis = sessionId.getMostSignificantBits() >>> 16;
+        Instant expiry = Instant.ofEpochSecond((issuedAtMillis + SESSION_LIFETIME.toMillis()) / 1000);
+        return LocalDateTime.ofInstant(expiry, ZoneId.systemDefault());
+    }
+    
+    // From the primary: a revocation a lagging replica does not have yet would be missed until the next resync
+    private void loadRevocations() {
+        for (String sessionId : DataSourceRouting.onPrimary(() -> guestSessionRepository.findRevokedSessionIds(LocalDateTime.now()))) {
+            revoke(sessionId);
+        }
+    }
+    
+    private void revoke(String sessionId) {
+        LocalDateTime now = LocalDateTime.now();
+        revokedSessions.values().removeIf(expiry -> !expiry.isAfter(now));
+        try {
+            revokedSessions.put(sessionId, expiresAt(UUID.fromString(sessionId)));
+        } catch (IllegalArgumentException e) {
+            // Not a session id: nothing could be accepted for it anyway
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.model.HeadToHead;
+import com.volleyball.scoretracker.model.PackedSetScores;
+import com.volleyball.scoretracker.model.Team;
+import com.volleyball.scoretracker.repository.MatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Record between two of an owner's teams, read through the indexed team id pair in a single query
+@Service
+public class HeadToHeadService {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Value("${app.headToHead.recentLimit:5}")
+    private int recentLimit;
+
+    @Transactional(readOnly = true)
+    public HeadToHead getForUser(Long userId, String team1Name, String team2Name) {
+        return summarize(team1Name, team2Name,
+            teamService.findForUser(userId, team1Name), teamService.findForUser(userId, team2Name));
+    }
+
+    @Transactional(readOnly = true)
+    public HeadToHead getForGuest(String sessionId, String team1Name, String team2Name) {
+        if (!guestSessionService.isSessionValid(sessionId)) {
+            throw new RuntimeException("Guest session has expired");
+        }
+        return summarize(team1Name, team2Name,
+            teamService.findForGuest(sessionId, team1Name), teamService.findForGuest(sessionId, team2Name));
+    }
+
+    // A name the owner never used has no team and so no record
+    private HeadToHead summarize(String team1Name, String team2Name, Optional<Team> team1, Optional<Team> team2) {
+        HeadToHead headToHead = new HeadToHead(team1Name.trim(), team2Name.trim());
+        if (team1.isEmpty() || team2.isEmpty()) {
+            return headToHead;
+        }
+
+        // Rows are newest first; a row may list the teams in either order
+        Long team1Id = team1.get().getId();
+        for (Object[] row : matchRepository.findHeadToHead(team1Id, team2.get().getId())) {
+            boolean swapped = ((Number) row[0]).longValue() != team1Id;
+            byte[] packed = (byte[]) row[1];
+            int setCount = PackedSetScores.setCount(packed);
+
+            HeadToHead.Result result = new HeadToHead.Result();
+            result.setPlayedAt(toLocalDateTime(row[2]));
+            for (int set = 1; set <= setCount; set++) {
+                int team1Points = swapped ? PackedSetScores.team2Points(packed, set) : PackedSetScores.team1Points(packed, set);
+                int team2Points = swapped ? PackedSetScores.team1Points(packed, set) : PackedSetScores.team2Points(packed, set);
+                headToHead.setTeam1Points(headToHead.getTeam1Points() + team1Points);
+                headToHead.setTeam2Points(headToHead.getTeam2Points() + team2Points);
+                if (team1Points > team2Points) {
+                    result.setTeam1Sets(result.getTeam1Sets() + 1);
+                } else {
+                    result.setTeam2Sets(result.getTeam2Sets() + 1);
+                }
+                result.getSetScores().add(team1Points + "-" + team2Points);
+            }
+
+            headToHead.setMatches(headToHead.getMatches() + 1);
+            headToHead.setTeam1Sets(headToHead.getTeam1Sets() + result.getTeam1Sets());
+            headToHead.setTeam2Sets(headToHead.getTeam2Sets() + result.getTeam2Sets());
+            if (result.getTeam1Sets() > result.getTeam2Sets()) {
+                headToHead.setTeam1Wins(headToHead.getTeam1Wins() + 1);
+            } else if (result.getTeam2Sets() > result.getTeam1Sets()) {
+                headToHead.setTeam2Wins(headToHead.getTeam2Wins() + 1);
+            }
+            if (headToHead.getRecent().size() < recentLimit) {
+                headToHead.getRecent().add(result);
+            }
+        }
+        return headToHead;
+    }
+
+    // Native queries return TIMESTAMP columns as java.sql.Timestamp or LocalDateTime depending on the driver
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
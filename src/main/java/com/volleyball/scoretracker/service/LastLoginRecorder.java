@@ -0,0 +1,72 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Coalesces lastLoginAt updates in memory and writes them in periodic batches
+@Service
+public class LastLoginRecorder {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Latest login time per user id since the last flush
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(MeterRegistry meterRegistry) {
+        Gauge.builder("auth.lastlogin.pending", pending, Map::size)
+            .description("Users with a last-login time waiting to be written")
+            .register(meterRegistry);
+    }
+
+    public void record(Long userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (previous, latest) -> latest.isAfter(previous) ? latest : previous);
+    }
+
+    // Flush every few seconds: one UPDATE per distinct second instead of one per login
+    @Scheduled(fixedDelayString = "${app.login.lastLoginFlushMs:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<LocalDateTime, List<Long>> bySecond = new TreeMap<>();
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            // Only remove the entry we read, so a login recorded meanwhile is kept for the next flush
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                bySecond.computeIfAbsent(entry.getValue().truncatedTo(ChronoUnit.SECONDS), time -> new ArrayList<>())
+                    .add(entry.getKey());
+            }
+        }
+
+        for (Map.Entry<LocalDateTime, List<Long>> batch : bySecond.entrySet()) {
+            try {
+                userRepository.updateLastLoginAt(batch.getValue(), batch.getKey());
+            } catch (RuntimeException e) {
+                // Put the batch back so the next flush retries it
+                for (Long userId : batch.getValue()) {
+                    record(userId, batch.getKey());
+                }
+                System.err.println("Failed to flush last login times: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,162 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.datasource.DataSourceRouting;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.repository.MatchRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes score changes to clients connected to this node over Server-Sent Events.
+ *
+ * Subscribers only live on the node that holds their connection; match changes made
+ * on any node reach them through the cluster event bus, and the match is reloaded
+ * once per event no matter how many clients are watching it.
+ */
+@Service
+public class LiveMatchService {
+    
+    @Autowired
+    private MatchRepository matchRepository;
+    
+    @Autowired
+    private ClusterEventBus eventBus;
+    
+    @Value("${app.live.timeoutMs:1800000}")
+    private long timeoutMs;
+    
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    
+    public LiveMatchService(MeterRegistry meterRegistry) {
+        Gauge.builder("live.subscribers", subscribers, map -> map.values().stream().mapToInt(List::size).sum())
+            .description("Open live-score connections on this node")
+            .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void subscribeToEvents() {
+        eventBus.subscribe(this::onEvent);
+    }
+    
+    // Register a client for a match it has already been authorized to read; sends the current state first
+    public SseEmitter subscribe(Match match, String guestSessionId) {
+        Long matchId = match.getId();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        String owner = guestSessionId != null ? TeamAnalyticsService.guestOwner(guestSessionId)
+            : TeamAnalyticsService.userOwner(match.getUser().getId());
+        Subscriber subscriber = new Subscriber(emitter, guestSessionId, owner);
+        subscribers.computeIfAbsent(matchId, id -> new CopyOnWriteArrayList<>()).add(subscriber);
+        
+        emitter.onCompletion(() -> unsubscribe(matchId, subscriber));
+        emitter.onTimeout(() -> unsubscribe(matchId, subscriber));
+        emitter.onError(error -> unsubscribe(matchId, subscriber));
+        
+        send(matchId, subscriber, "match", match);
+        return emitter;
+    }
+    
+    private void onEvent(ClusterEvent event) {
+        ClusterEvent.Type type = event.getType();
+        if (type == ClusterEvent.Type.MATCH_UPDATED) {
+            pushLatest(Long.valueOf(event.getKey()));
+        } else if (type == ClusterEvent.Type.MATCH_DELETED) {
+            closeAll(Long.valueOf(event.getKey()));
+        } else if (type == ClusterEvent.Type.MATCHES_DELETED) {
+            // The event names the owner, not the matches: recheck the ones it watches here
+            for (Map.Entry<Long, List<Subscriber>> entry : subscribers.entrySet()) {
+                if (entry.getValue().stream().anyMatch(subscriber -> event.getKey().equals(subscriber.owner))) {
+                    pushLatest(entry.getKey());
+                }
+            }
+        } else if (type == ClusterEvent.Type.SESSION_REMOVED || type == ClusterEvent.Type.MATCHES_CLAIMED) {
+            // The guest no longer owns these matches
+            closeGuest(event.getKey());
+        } else if (type == ClusterEvent.Type.RESYNC) {
+            for (Long matchId : subscribers.keySet()) {
+                pushLatest(matchId);
+            }
+        }
+    }
+    
+    private void pushLatest(Long matchId) {
+        List<Subscriber> watching = subscribers.get(matchId);
+        if (watching == null || watching.isEmpty()) {
+            return;
+        }
+        // Pushed because the match changed: a replica may not have the change yet
+        Optional<Match> match = DataSourceRouting.onPrimary(() -> matchRepository.findById(matchId));
+        if (!match.isPresent()) {
+            closeAll(matchId);
+            return;
+        }
+        for (Subscriber subscriber : watching) {
+            send(matchId, subscriber, "match", match.get());
+        }
+    }
+    
+    private void closeAll(Long matchId) {
+        List<Subscriber> watching = subscribers.remove(matchId);
+        if (watching == null) {
+            return;
+        }
+        for (Subscriber subscriber : watching) {
+            send(matchId, subscriber, "deleted", matchId);
+            subscriber.emitter.complete();
+        }
+    }
+    
+    private void closeGuest(String guestSessionId) {
+        for (Map.Entry<Long, List<Subscriber>> entry : subscribers.entrySet()) {
+            for (Subscriber subscriber : entry.getValue()) {
+                if (guestSessionId.equals(subscriber.guestSessionId)) {
+                    unsubscribe(entry.getKey(), subscriber);
+                    subscriber.emitter.complete();
+                }
+            }
+        }
+    }
+    
+    private void send(Long matchId, Subscriber subscriber, String name, Object data) {
+        try {
+            subscriber.emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter
+            unsubscribe(matchId, subscriber);
+        }
+    }
+    
+    private void unsubscribe(Long matchId, Subscriber subscriber) {
+        subscribers.computeIfPresent(matchId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+    
+    private static class Subscriber {
+        final SseEmitter emitter;
+        // Set for guest clients, so they can be dropped when the session goes away
+        final String guestSessionId;
+        // Owner key of the match, for MATCHES_DELETED
+        final String owner;
+        
+        Subscriber(SseEmitter emitter, String guestSessionId, String owner) {
+            this.emitter = emitter;
+            this.guestSessionId = guestSessionId;
+            this.owner = owner;
+        }
+    }
+}
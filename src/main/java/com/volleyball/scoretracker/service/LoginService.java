@@ -0,0 +1,95 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.security.UserDetailsImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs BCrypt password verification on a dedicated bounded pool instead of request threads
+@Service
+public class LoginService {
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+
+    private final ThreadPoolExecutor executor;
+    private final Timer loginTimer;
+    private final Counter rejectedCounter;
+
+    public LoginService(MeterRegistry meterRegistry,
+                        @Value("${app.login.threads:0}") int threads,
+                        @Value("${app.login.queueCapacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        // AbortPolicy: when the queue is full we reject immediately rather than pile up waiters
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.login.queue.depth", executor, e -> e.getQueue().size())
+            .description("Logins waiting for a password verification thread")
+            .register(meterRegistry);
+        Gauge.builder("auth.login.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password verifications in progress")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.login.rejected")
+            .description("Logins rejected because the verification queue was full")
+            .register(meterRegistry);
+        this.loginTimer = Timer.builder("auth.login")
+            .description("Login latency including queueing")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Verifies the credentials asynchronously. The returned future completes with the
+     * authenticated user, or exceptionally with an AuthenticationException. If the
+     * verification queue is full this throws RejectedExecutionException straight away.
+     */
+    public CompletableFuture<UserDetailsImpl> login(String username, String password) {
+        long start = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password));
+                UserDetailsImpl user = (UserDetailsImpl) authentication.getPrincipal();
+                lastLoginRecorder.record(user.getId(), LocalDateTime.now());
+                return user;
+            }, executor).whenComplete((user, error) ->
+                loginTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
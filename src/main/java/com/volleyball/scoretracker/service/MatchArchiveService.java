@@ -0,0 +1,105 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.model.ArchivedMatch;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchScoreboard;
+import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.repository.ArchivedMatchRepository;
+import com.volleyball.scoretracker.repository.MatchRepository;
+import com.volleyball.scoretracker.repository.SetScoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves completed matches out of the hot matches/set_scores tables into
+ * archived_matches, where all set scores live in one packed column.
+ *
+ * Only user-owned matches are archived: guest matches are removed together with
+ * their session long before they would qualify. Archived matches are read-only.
+ */
+@Service
+public class MatchArchiveService {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private SetScoreRepository setScoreRepository;
+
+    @Autowired
+    private ArchivedMatchRepository archivedMatchRepository;
+    
+    @Autowired
+    private MatchPartitionService matchPartitionService;
+
+    @Value("${app.archive.afterDays:7}")
+    private int archiveAfterDays;
+
+    @Value("${app.archive.batchSize:200}")
+    private int batchSize;
+
+    // Partitioned tables: archive every month that ended before the cutoff by retiring its partitions
+    public int archiveExpiredPartitions() {
+        return matchPartitionService.retireExpiredPartitions(LocalDateTime.now().minusDays(archiveAfterDays));
+    }
+
+    // Archive one batch in a short transaction; returns how many matches were moved. With
+    // partitioned tables only matches older than every month partition go this way
+    @Transactional
+    public int archiveBatch() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        LocalDateTime createdBefore = matchPartitionService.isPartitioned()
+            ? matchPartitionService.firstPartitionStart()
+            : cutoff;
+        List<Long> ids = matchRepository.findArchivableMatchIds(
+            MatchStatus.COMPLETED, cutoff, createdBefore, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<ArchivedMatch> archived = new ArrayList<>(ids.size());
+        for (Match match : matchRepository.findAllById(ids)) {
+            archived.add(ArchivedMatch.from(match));
+        }
+        archivedMatchRepository.saveAll(archived);
+
+        // Set-based deletes instead of removing rows one by one
+        setScoreRepository.deleteByMatchIdIn(ids);
+        matchRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+
+    public Optional<ArchivedMatch> findArchived(Long matchId) {
+        return archivedMatchRepository.findById(matchId);
+    }
+
+    public List<Match> getArchivedMatchesForUser(Long userId) {
+        List<Match> matches = new ArrayList<>();
+        for (ArchivedMatch archived : archivedMatchRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
+            matches.add(archived.toMatch());
+        }
+        return matches;
+    }
+
+    public List<MatchScoreboard> getArchivedScoreboardsForUser(Long userId) {
+        return archivedMatchRepository.findScoreboardsByUserId(userId);
+    }
+
+    // Tombstone archived matches; MatchPurgeService removes them
+    public void deleteArchived(Collection<Long> matchIds, LocalDateTime deletedAt) {
+        archivedMatchRepository.markDeleted(matchIds, deletedAt);
+    }
+
+    public List<Long> findArchivedIdsOwnedByUser(Collection<Long> matchIds, Long userId) {
+        return archivedMatchRepository.findIdsOwnedByUser(matchIds, userId);
+    }
+}
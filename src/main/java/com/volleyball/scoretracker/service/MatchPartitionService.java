@@ -0,0 +1,199 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.repository.MatchPartitions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps the monthly partitions of matches and set_scores (Postgres, see V16).
+ *
+ * Partitions are created monthsAhead months in advance, so inserts never wait on DDL.
+ * Once a whole month is past the archive cutoff its partitions are retired: the month's
+ * completed user matches are copied to archived_matches in one statement, then both
+ * partitions are detached, the copies brought up to date with anything written in
+ * between, and the partitions dropped. The few rows that were not archived (unfinished
+ * matches, guest matches) move to the default partitions. Dropping a partition replaces
+ * deleting its archived rows batch by batch.
+ *
+ * On other databases the tables are not partitioned and every method does nothing.
+ */
+@Service
+public class MatchPartitionService {
+
+    // archived_matches columns copied from the match row; a refresh keeps the original archived_at
+    private static final List<String> ARCHIVED_VALUES = List.of("team1_id", "team2_id", "rule_set", "team1sets",
+        "team2sets", "packed_sets", "rally_log", "user_id", "created_at", "completed_at");
+    private static final String REFRESHED_COLUMNS = String.join(", ",
+        ARCHIVED_VALUES.stream().map(column -> column + " = EXCLUDED." + column).toList());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+    private final int monthsAhead;
+    private final long lockTimeoutMillis;
+
+    // Decided on first use: the tables are partitioned by a migration that may not have run yet at construction
+    private volatile Boolean partitioned;
+
+    public MatchPartitionService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                 @Value("${app.partitions.monthsAhead:3}") int monthsAhead,
+                                 @Value("${app.partitions.lockTimeoutMs:5000}") long lockTimeoutMillis) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    public boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = isPostgres() && "p".equals(jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = 'matches'::regclass", String.class));
+        }
+        return partitioned;
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new RuntimeException("Cannot determine database type for match partitions", e);
+        }
+    }
+
+    // Months that have their own partitions, oldest first
+    public TreeSet<YearMonth> partitionMonths() {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        if (!isPartitioned()) {
+            return months;
+        }
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'matches'::regclass", String.class);
+        for (String name : names) {
+            YearMonth month = MatchPartitions.monthOf(MatchPartitions.MATCHES, name);
+            if (month != null) {
+                months.add(month);
+            }
+        }
+        return months;
+    }
+
+    // Matches created before this are in the default partition; null if not partitioned
+    public LocalDateTime firstPartitionStart() {
+        if (!isPartitioned()) {
+            return null;
+        }
+        TreeSet<YearMonth> months = partitionMonths();
+        return MatchPartitions.start(months.isEmpty() ? YearMonth.now() : months.first());
+    }
+
+    // Create the missing partitions from this month to monthsAhead months ahead; returns how many months
+    public int createUpcomingPartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        TreeSet<YearMonth> existing = partitionMonths();
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+        int created = 0;
+        for (YearMonth month = YearMonth.now(); !month.isAfter(last); month = month.plusMonths(1)) {
+            if (!existing.contains(month)) {
+                jdbcTemplate.execute(MatchPartitions.createSql(MatchPartitions.MATCHES, month));
+                jdbcTemplate.execute(MatchPartitions.createSql(MatchPartitions.SET_SCORES, month));
+                created++;
+            }
+        }
+        if (created > 0) {
+            System.out.println("Created match partitions for " + created + " month(s) up to " + last);
+        }
+        return created;
+    }
+
+    // Retire every month that ended before the cutoff; returns how many months were retired
+    public int retireExpiredPartitions(LocalDateTime cutoff) {
+        int retired = 0;
+        for (YearMonth month : partitionMonths()) {
+            if (MatchPartitions.end(month).isAfter(cutoff)) {
+                break;
+            }
+            retire(month);
+            retired++;
+        }
+        return retired;
+    }
+
+    private void retire(YearMonth month) {
+        String matches = MatchPartitions.name(MatchPartitions.MATCHES, month);
+        String setScores = MatchPartitions.name(MatchPartitions.SET_SCORES, month);
+
+        // Copy while the partition is still attached: takes no lock that blocks other queries
+        Integer archived = transactionTemplate.execute(status -> jdbcTemplate.update(
+            archiveFrom(matches) + " ON CONFLICT (id) DO NOTHING", LocalDateTime.now()));
+
+        // Detaching locks both parent tables until commit, so everything in here is short; if
+        // a long query holds them, give up and retry on the next run instead of queueing traffic
+        Integer kept;
+        try {
+            kept = detachAndDrop(matches, setScores);
+        } catch (RuntimeException e) {
+            // Still attached: take the copies back out so the matches are not listed twice until the retry
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM archived_matches a USING " + matches + " m WHERE a.id = m.id"));
+            throw e;
+        }
+        System.out.println("Retired match partitions for " + month + ": " + archived + " archived, " +
+                           kept + " moved to the default partition");
+    }
+
+    private Integer detachAndDrop(String matches, String setScores) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMillis);
+            jdbcTemplate.execute("ALTER TABLE set_scores DETACH PARTITION " + setScores);
+            // The detached copy would otherwise keep referencing the match rows detached next
+            jdbcTemplate.execute("ALTER TABLE " + setScores + " DROP CONSTRAINT fk_set_scores_match");
+            jdbcTemplate.execute("ALTER TABLE matches DETACH PARTITION " + matches);
+
+            // Reopened or deleted since they were copied: the hot row wins
+            jdbcTemplate.update("DELETE FROM archived_matches a USING " + matches + " m " +
+                                "WHERE a.id = m.id AND (m.status IS DISTINCT FROM 'COMPLETED' OR m.deleted_at IS NOT NULL)");
+            // Edited or completed since the copy: the detached rows can no longer change, so bring the
+            // archive up to date from them. Only rows that differ are written
+            jdbcTemplate.update(archiveFrom(matches) + " ON CONFLICT (id) DO UPDATE SET " + REFRESHED_COLUMNS +
+                                " WHERE (" + columnsOf("archived_matches") + ") IS DISTINCT FROM (" + columnsOf("EXCLUDED") + ")",
+                                LocalDateTime.now());
+            // Deleted (tombstoned) matches are simply dropped with the partition
+            String stayHot = "m.deleted_at IS NULL AND NOT EXISTS (SELECT 1 FROM archived_matches a WHERE a.id = m.id)";
+            int moved = jdbcTemplate.update("INSERT INTO matches SELECT * FROM " + matches + " m WHERE " + stayHot);
+            jdbcTemplate.update("INSERT INTO set_scores SELECT * FROM " + setScores + " s " +
+                                "WHERE s.match_id IN (SELECT m.id FROM " + matches + " m WHERE " + stayHot + ")");
+
+            jdbcTemplate.execute("DROP TABLE " + setScores);
+            jdbcTemplate.execute("DROP TABLE " + matches);
+            return moved;
+        });
+    }
+
+    // Archivable rows of a month partition as archived_matches rows, archived_at bound to the
+    // parameter. Same columns as ArchivedMatch.from
+    private static String archiveFrom(String matches) {
+        return "INSERT INTO archived_matches (id, " + String.join(", ", ARCHIVED_VALUES) + ", archived_at) " +
+               "SELECT id, team1_id, team2_id, rule_set, team1sets, team2sets, packed_sets, " +
+               "rally_log, user_id, created_at, last_score_time, ? FROM " + matches + " " +
+               "WHERE status = 'COMPLETED' AND user_id IS NOT NULL AND deleted_at IS NULL";
+    }
+
+    private static String columnsOf(String table) {
+        return String.join(", ", ARCHIVED_VALUES.stream().map(column -> table + "." + column).toList());
+    }
+}
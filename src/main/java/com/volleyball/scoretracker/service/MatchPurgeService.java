@@ -0,0 +1,60 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.repository.ArchivedMatchRepository;
+import com.volleyball.scoretracker.repository.MatchRepository;
+import com.volleyball.scoretracker.repository.SetScoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Physically removes deleted matches. A delete only sets deleted_at (a tombstone), which
+ * hides the match from every read at once; this service removes tombstoned rows later,
+ * one chunk per short transaction: set scores first, then the matches, each with one
+ * set-based DELETE by id. Archived tombstones go the same way.
+ */
+@Service
+public class MatchPurgeService {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private SetScoreRepository setScoreRepository;
+
+    @Autowired
+    private ArchivedMatchRepository archivedMatchRepository;
+
+    @Value("${app.purge.batchSize:500}")
+    private int batchSize;
+
+    // Purge one chunk of the oldest tombstones; returns how many matches were removed
+    @Transactional
+    public int purgeBatch() {
+        List<Long> ids = matchRepository.findDeletedIds(batchSize);
+        int purged = 0;
+        if (!ids.isEmpty()) {
+            setScoreRepository.deleteByMatchIdIn(ids);
+            purged += matchRepository.purgeByIdIn(ids);
+        }
+        List<Long> archivedIds = archivedMatchRepository.findDeletedIds(batchSize);
+        if (!archivedIds.isEmpty()) {
+            purged += archivedMatchRepository.purgeByIdIn(archivedIds);
+        }
+        return purged;
+    }
+
+    // A guest session's tombstones, before the session row goes: its cascade only sees visible matches
+    @Transactional
+    public int purgeGuestSession(Long guestSessionId) {
+        List<Long> ids = matchRepository.findDeletedIdsForGuestSession(guestSessionId);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        setScoreRepository.deleteByMatchIdIn(ids);
+        return matchRepository.purgeByIdIn(ids);
+    }
+}
@@ -0,0 +1,253 @@
+package com.volleyball.scoretracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.volleyball.scoretracker.datasource.DataSourceRouting;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.ArchivedMatch;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.repository.MatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized GET /api/matches/{id} responses, shared by every reader of a match.
+ *
+ * A miss loads the match once and serializes it once: concurrent misses for the same
+ * id wait on the first one's load instead of starting their own. The JSON bytes are
+ * kept with the match's owner, so a hit checks ownership and returns the bytes
+ * without touching the database or Jackson.
+ *
+ * Every MatchService mutation publishes MATCH_UPDATED or MATCH_DELETED, which drops
+ * the entry on every node; a claim drops the claimed guest's entries, and a bulk
+ * delete (MATCHES_DELETED) all entries of its owner. An invalidation also marks the
+ * loads it may have raced as stale: the load of that match id, or every load in flight
+ * for the owner-wide events, whose owner is not known until the load finishes. A stale
+ * load is served but not cached, while loads of other matches are cached as usual.
+ * Loads always read the primary, even in requests routed to the replica.
+ */
+@Service
+public class MatchResponseCache {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MatchArchiveService matchArchiveService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.matchCache.size:10000}")
+    private int cacheSize;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Load> loading = new ConcurrentHashMap<>();
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public MatchResponseCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("match.response.cache").tag("result", "hit")
+            .description("Match reads served from cached JSON").register(meterRegistry);
+        this.misses = Counter.builder("match.response.cache").tag("result", "miss")
+            .description("Match reads that loaded and serialized the match").register(meterRegistry);
+        this.coalesced = Counter.builder("match.response.cache").tag("result", "coalesced")
+            .description("Match reads that waited on another request's load").register(meterRegistry);
+        Gauge.builder("match.response.cache.hitRate", this, MatchResponseCache::hitRate)
+            .description("Share of match reads that did not load the match themselves")
+            .register(meterRegistry);
+        Gauge.builder("match.response.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribeToEvents() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        eventBus.subscribe(event -> {
+            ClusterEvent.Type type = event.getType();
+            if (type == ClusterEvent.Type.MATCH_UPDATED || type == ClusterEvent.Type.MATCH_DELETED) {
+                Long matchId = Long.valueOf(event.getKey());
+                Load load = loading.get(matchId);
+                if (load != null) {
+                    load.stale = true;
+                }
+                entries.remove(matchId);
+            } else if (type == ClusterEvent.Type.MATCHES_DELETED) {
+                loading.values().forEach(load -> load.stale = true);
+                entries.values().removeIf(entry -> event.getKey().equals(entry.owner()));
+            } else if (type == ClusterEvent.Type.MATCHES_CLAIMED || type == ClusterEvent.Type.SESSION_REMOVED) {
+                loading.values().forEach(load -> load.stale = true);
+                entries.values().removeIf(entry -> event.getKey().equals(entry.guestSessionId));
+            } else if (type == ClusterEvent.Type.RESYNC) {
+                loading.values().forEach(load -> load.stale = true);
+                entries.clear();
+            }
+        });
+    }
+
+    // JSON of the match if the caller owns it; same errors as MatchService.getMatchById
+    public byte[] getMatchJson(Long matchId, Long userId, String guestSessionId) {
+        Entry entry = entries.get(matchId);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            entry = loadOnce(matchId);
+        }
+        checkOwnership(entry, userId, guestSessionId);
+        return entry.json;
+    }
+
+    // Same, reduced to the given top-level properties (null: all of them). The cached bytes stay
+    // whole; the reduced copy is cut from them per request
+    public byte[] getMatchJson(Long matchId, Long userId, String guestSessionId, Set<String> fields) {
+        byte[] json = getMatchJson(matchId, userId, guestSessionId);
+        if (fields == null) {
+            return json;
+        }
+        try {
+            ObjectNode match = (ObjectNode) objectMapper.readTree(json);
+            match.retain(fields);
+            return objectMapper.writeValueAsBytes(match);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read cached match " + matchId, e);
+        }
+    }
+
+    public double hitRate() {
+        double total = hits.count() + misses.count() + coalesced.count();
+        return total == 0 ? 0.0 : (hits.count() + coalesced.count()) / total;
+    }
+
+    private Entry loadOnce(Long matchId) {
+        Load mine = new Load();
+        Load inFlight = loading.putIfAbsent(matchId, mine);
+        if (inFlight != null) {
+            coalesced.increment();
+            try {
+                return inFlight.result.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        misses.increment();
+        try {
+            // From the primary: right after an invalidation a replica may still have the old state,
+            // which would then be served to every reader, the writer included
+            Entry entry = DataSourceRouting.onPrimary(() -> readOnlyTransaction.execute(status -> load(matchId)));
+            if (!mine.stale) {
+                if (entries.size() >= cacheSize) {
+                    entries.clear();
+                }
+                entries.put(matchId, entry);
+                // Marked between the check and the put: the invalidation may have run before the put
+                if (mine.stale) {
+                    entries.remove(matchId, entry);
+                }
+            }
+            mine.result.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(matchId, mine);
+        }
+    }
+
+    private Entry load(Long matchId) {
+        Optional<Match> match = matchRepository.findById(matchId);
+        if (match.isPresent()) {
+            Match found = match.get();
+            return new Entry(serialize(found),
+                found.getUser() != null ? found.getUser().getId() : null,
+                found.getGuestSession() != null ? found.getGuestSession().getSessionId().toString() : null);
+        }
+        Optional<ArchivedMatch> archived = matchArchiveService.findArchived(matchId);
+        if (archived.isPresent()) {
+            return new Entry(serialize(archived.get().toMatch()), archived.get().getUserId(), null);
+        }
+        throw new RuntimeException("Match not found");
+    }
+
+    // Same rules and messages as MatchService.checkOwnership
+    private void checkOwnership(Entry entry, Long userId, String guestSessionId) {
+        if (userId != null) {
+            if (!userId.equals(entry.userId)) {
+                throw new RuntimeException("Unauthorized: You don't own this match");
+            }
+        } else if (guestSessionId != null) {
+            if (!guestSessionService.isSessionValid(guestSessionId)) {
+                throw new RuntimeException("Guest session has expired");
+            }
+            if (!guestSessionId.equals(entry.guestSessionId)) {
+                throw new RuntimeException("Unauthorized: You don't own this match");
+            }
+        } else {
+            throw new RuntimeException("Authentication required");
+        }
+    }
+
+    private byte[] serialize(Match match) {
+        try {
+            return objectMapper.writeValueAsBytes(match);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize match " + match.getId(), e);
+        }
+    }
+
+    // A load in flight; readers of the same id wait on its result
+    private static final class Load {
+        final CompletableFuture<Entry> result = new CompletableFuture<>();
+        // Set by an invalidation that may have raced the load
+        volatile boolean stale;
+    }
+
+    // Immutable; the JSON array is never written after construction
+    private static final class Entry {
+        final byte[] json;
+        final Long userId;
+        final String guestSessionId;
+
+        Entry(byte[] json, Long userId, String guestSessionId) {
+            this.json = json;
+            this.userId = userId;
+            this.guestSessionId = guestSessionId;
+        }
+
+        // Owner key as in MATCHES_DELETED
+        String owner() {
+            return userId != null ? TeamAnalyticsService.userOwner(userId) : TeamAnalyticsService.guestOwner(guestSessionId);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.volleyball.scoretracker.service;
 
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.ArchivedMatch;
 import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchScoreboard;
 import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.model.PackedSetScores;
+import com.volleyball.scoretracker.model.RallyLog;
+import com.volleyball.scoretracker.model.ScoringRules;
 import com.volleyball.scoretracker.model.SetScore;
 import com.volleyball.scoretracker.model.User;
 import com.volleyball.scoretracker.model.GuestSession;
@@ -9,11 +16,17 @@ import com.volleyball.scoretracker.repository.MatchRepository;
 import com.volleyball.scoretracker.repository.SetScoreRepository;
 import com.volleyball.scoretracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 public class MatchService {
@@ -30,84 +43,215 @@ public class MatchService {
     @Autowired
     private GuestSessionService guestSessionService;
     
+    @Autowired
+    private MatchArchiveService matchArchiveService;
+    
+    @Autowired
+    private TeamRatingService teamRatingService;
+    
+    @Autowired
+    private HeadToHeadService headToHeadService;
+    
+    @Autowired
+    private TeamService teamService;
+    
+    @Autowired
+    private ClusterEventBus eventBus;
+    
+    @Value("${app.matches.bulkDeleteMax:1000}")
+    private int bulkDeleteMax;
+    
     // Create a new match for registered user
-    public Match createMatchForUser(String team1Name, String team2Name, Long userId) {
+    @Transactional
+    public Match createMatchForUser(String team1Name, String team2Name, ScoringRules rules, Long userId) {
         Optional<User> optionalUser = userRepository.findById(userId);
         if (!optionalUser.isPresent()) {
             throw new RuntimeException("User not found");
         }
         
         User user = optionalUser.get();
-        Match match = new Match(team1Name.trim(), team2Name.trim());
+        Match match = new Match(teamService.resolveForUser(user, team1Name), teamService.resolveForUser(user, team2Name));
+        match.setRules(rules);
         match.setUser(user);
         
-        return matchRepository.save(match);
+        Match saved = saveAndPublish(match);
+        saved.setHeadToHead(headToHeadService.getForUser(userId, saved.getTeam1Name(), saved.getTeam2Name()));
+        return saved;
     }
     
     // Create a new match for guest user
-    public Match createMatchForGuest(String team1Name, String team2Name, String sessionId) {
-        Optional<GuestSession> optionalSession = guestSessionService.findBySessionId(sessionId);
-        if (!optionalSession.isPresent()) {
-            throw new RuntimeException("Invalid guest session");
-        }
-        
+    @Transactional
+    public Match createMatchForGuest(String team1Name, String team2Name, ScoringRules rules, String sessionId) {
         if (!guestSessionService.isSessionValid(sessionId)) {
             throw new RuntimeException("Guest session has expired");
         }
         
-        GuestSession session = optionalSession.get();
-        Match match = new Match(team1Name.trim(), team2Name.trim());
+        // The session is stored with its first match
+        GuestSession session = guestSessionService.persistedSession(sessionId);
+        Match match = new Match(teamService.resolveForGuest(session, team1Name), teamService.resolveForGuest(session, team2Name));
+        match.setRules(rules);
         match.setGuestSession(session);
         
-        return matchRepository.save(match);
+        Match saved = saveAndPublish(match);
+        saved.setHeadToHead(headToHeadService.getForGuest(sessionId, saved.getTeam1Name(), saved.getTeam2Name()));
+        return saved;
     }
     
-    // Generic create match method that determines user type
+    // Generic create match method that determines user type; indoor rules
+    @Transactional
     public Match createMatch(String team1Name, String team2Name, Long userId, String guestSessionId) {
+        return createMatch(team1Name, team2Name, ScoringRules.INDOOR, userId, guestSessionId);
+    }
+    
+    @Transactional
+    public Match createMatch(String team1Name, String team2Name, ScoringRules rules, Long userId, String guestSessionId) {
         if (userId != null) {
-            return createMatchForUser(team1Name, team2Name, userId);
+            return createMatchForUser(team1Name, team2Name, rules, userId);
         } else if (guestSessionId != null) {
-            return createMatchForGuest(team1Name, team2Name, guestSessionId);
+            return createMatchForGuest(team1Name, team2Name, rules, guestSessionId);
         } else {
             throw new RuntimeException("Either user ID or guest session ID must be provided");
         }
     }
     
-    // Get matches for registered user
+    // Claim all matches of a guest session into a registered account (set-based UPDATEs: teams, then matches)
+    @Transactional
+    public int claimGuestMatches(Long userId, String guestSessionId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        if (!guestSessionService.isSessionValid(guestSessionId)) {
+            throw new RuntimeException("Guest session has expired");
+        }
+        // Never stored: the guest has not created a match
+        Optional<GuestSession> stored = guestSessionService.findBySessionId(guestSessionId);
+        if (!stored.isPresent()) {
+            return 0;
+        }
+        
+        GuestSession session = stored.get();
+        teamService.claimGuestTeams(session, user);
+        int claimed = matchRepository.reassignGuestMatchesToUser(session.getId(), user);
+        eventBus.publish(ClusterEvent.Type.MATCHES_CLAIMED, guestSessionId);
+        eventBus.publish(ClusterEvent.Type.RESULTS_CHANGED, TeamAnalyticsService.guestOwner(guestSessionId));
+        eventBus.publish(ClusterEvent.Type.RESULTS_CHANGED, TeamAnalyticsService.userOwner(userId));
+        return claimed;
+    }
+    
+    // Get matches for registered user - hot and archived, merged newest first
+    @Transactional(readOnly = true)
     public List<Match> getMatchesForUser(Long userId) {
-        return matchRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        return newestFirst(matchRepository.findByUserIdOrderByCreatedAtDesc(userId),
+                           matchArchiveService.getArchivedMatchesForUser(userId), Match::getCreatedAt);
+    }
+    
+    // Same list reduced to the scoreboard columns
+    @Transactional(readOnly = true)
+    public List<MatchScoreboard> getScoreboardsForUser(Long userId) {
+        return newestFirst(matchRepository.findScoreboardsByUserId(userId),
+                           matchArchiveService.getArchivedScoreboardsForUser(userId), MatchScoreboard::getCreatedAt);
+    }
+    
+    // Merge two lists that are each sorted newest first
+    private static <T> List<T> newestFirst(List<T> hot, List<T> archived, Function<T, LocalDateTime> createdAt) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        
+        List<T> merged = new ArrayList<>(hot.size() + archived.size());
+        int h = 0;
+        int a = 0;
+        while (h < hot.size() || a < archived.size()) {
+            if (a >= archived.size() ||
+                (h < hot.size() && !createdAt.apply(hot.get(h)).isBefore(createdAt.apply(archived.get(a))))) {
+                merged.add(hot.get(h++));
+            } else {
+                merged.add(archived.get(a++));
+            }
+        }
+        return merged;
     }
     
     // Get matches for guest session
+    @Transactional(readOnly = true)
     public List<Match> getMatchesForGuestSession(String sessionId) {
         if (!guestSessionService.isSessionValid(sessionId)) {
             throw new RuntimeException("Guest session has expired");
         }
-        return matchRepository.findByGuestSessionIdOrderByCreatedAtDesc(sessionId);
+        return matchRepository.findByGuestSessionIdOrderByCreatedAtDesc(UUID.fromString(sessionId));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<MatchScoreboard> getScoreboardsForGuestSession(String sessionId) {
+        if (!guestSessionService.isSessionValid(sessionId)) {
+            throw new RuntimeException("Guest session has expired");
+        }
+        return matchRepository.findScoreboardsByGuestSessionId(UUID.fromString(sessionId));
     }
     
     // Get active matches for registered user
+    @Transactional(readOnly = true)
     public List<Match> getActiveMatchesForUser(Long userId) {
         return matchRepository.findByUserIdAndStatus(userId, MatchStatus.IN_PROGRESS);
     }
     
+    @Transactional(readOnly = true)
+    public List<MatchScoreboard> getActiveScoreboardsForUser(Long userId) {
+        return matchRepository.findScoreboardsByUserIdAndStatus(userId, MatchStatus.IN_PROGRESS);
+    }
+    
     // Get active matches for guest session
+    @Transactional(readOnly = true)
     public List<Match> getActiveMatchesForGuestSession(String sessionId) {
         if (!guestSessionService.isSessionValid(sessionId)) {
             throw new RuntimeException("Guest session has expired");
         }
-        return matchRepository.findByGuestSessionIdAndStatus(sessionId, MatchStatus.IN_PROGRESS);
+        return matchRepository.findByGuestSessionIdAndStatus(UUID.fromString(sessionId), MatchStatus.IN_PROGRESS);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<MatchScoreboard> getActiveScoreboardsForGuestSession(String sessionId) {
+        if (!guestSessionService.isSessionValid(sessionId)) {
+            throw new RuntimeException("Guest session has expired");
+        }
+        return matchRepository.findScoreboardsByGuestSessionIdAndStatus(UUID.fromString(sessionId), MatchStatus.IN_PROGRESS);
+    }
+    
+    // Save and tell every node the match changed (live subscribers, cached state). Always called inside the
+    // operation's transaction, so the event goes out once the match, its set score and rating change have committed
+    private Match saveAndPublish(Match match) {
+        Match saved = matchRepository.save(match);
+        eventBus.publish(ClusterEvent.Type.MATCH_UPDATED, saved.getId().toString());
+        return saved;
+    }
+    
+    // Tell every node the owner's completed-match results changed (team analytics cache)
+    private void publishResultsChanged(Match match) {
+        if (match.getUser() != null) {
+            eventBus.publish(ClusterEvent.Type.RESULTS_CHANGED, TeamAnalyticsService.userOwner(match.getUser().getId()));
+        } else if (match.getGuestSession() != null) {
+            eventBus.publish(ClusterEvent.Type.RESULTS_CHANGED,
+                TeamAnalyticsService.guestOwner(match.getGuestSession().getSessionId().toString()));
+        }
     }
     
     // Verify match ownership before operations
     private Match verifyMatchOwnership(Long matchId, Long userId, String guestSessionId) {
         Optional<Match> optionalMatch = matchRepository.findById(matchId);
         if (!optionalMatch.isPresent()) {
+            // Archived matches can still be read, but not modified
+            if (findArchivedMatch(matchId, userId, guestSessionId).isPresent()) {
+                throw new RuntimeException("Cannot modify an archived match");
+            }
             throw new RuntimeException("Match not found");
         }
         
         Match match = optionalMatch.get();
-        
+        checkOwnership(match, userId, guestSessionId);
+        return match;
+    }
+    
+    private void checkOwnership(Match match, Long userId, String guestSessionId) {
         // Check if user owns this match
         if (userId != null) {
             if (match.getUser() == null || !match.getUser().getId().equals(userId)) {
@@ -120,17 +264,31 @@ public class MatchService {
                 throw new RuntimeException("Guest session has expired");
             }
             if (match.getGuestSession() == null || 
-                !match.getGuestSession().getSessionId().equals(guestSessionId)) {
+                !match.getGuestSession().getSessionId().toString().equals(guestSessionId)) {
                 throw new RuntimeException("Unauthorized: You don't own this match");
             }
         } else {
             throw new RuntimeException("Authentication required");
         }
-        
-        return match;
+    }
+    
+    // Look up a match in the archive tier; only registered users own archived matches
+    private Optional<Match> findArchivedMatch(Long matchId, Long userId, String guestSessionId) {
+        Optional<ArchivedMatch> archived = matchArchiveService.findArchived(matchId);
+        if (!archived.isPresent()) {
+            return Optional.empty();
+        }
+        if (userId == null && guestSessionId == null) {
+            throw new RuntimeException("Authentication required");
+        }
+        if (userId == null || !archived.get().getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized: You don't own this match");
+        }
+        return Optional.of(archived.get().toMatch());
     }
     
     // FIXED: Updated edit current set score method - stores previous scores for complete undo
+    @Transactional
     public Match editCurrentSetScore(Long matchId, int team1Score, int team2Score, Long userId, String guestSessionId) {
         Match match = verifyMatchOwnership(matchId, userId, guestSessionId);
         
@@ -142,27 +300,23 @@ public class MatchService {
         if (team1Score < 0 || team2Score < 0) {
             throw new RuntimeException("Scores cannot be negative");
         }
+        requireStorableScore(team1Score, team2Score);
         
         // Store previous scores for undo functionality
         int previousTeam1Score = match.getTeam1Score();
         int previousTeam2Score = match.getTeam2Score();
         
         // Check if the scores would end the set immediately
-        boolean isSetWon = false;
-        if (match.getCurrentSet() == 5) {
-            // Set 5: first to 15, win by 2
-            isSetWon = (team1Score >= 15 && team1Score - team2Score >= 2) || 
-                      (team2Score >= 15 && team2Score - team1Score >= 2);
-        } else {
-            // Sets 1-4: first to 25, win by 2
-            isSetWon = (team1Score >= 25 && team1Score - team2Score >= 2) || 
-                      (team2Score >= 25 && team2Score - team1Score >= 2);
-        }
+        boolean isSetWon = match.getRules().isSetWon(match.getCurrentSet(), team1Score, team2Score);
         
         // Update scores
         match.setTeam1Score(team1Score);
         match.setTeam2Score(team2Score);
         
+        // The set's logged rallies no longer add up to its score; drop them so runs and pace for
+        // the set restart from the edit. Undoing the edit restores the score, not the rallies
+        match.setRallyLog(RallyLog.withoutSet(match.getRallyLog(), match.getCurrentSet()));
+        
         // Store the previous scores in the match for undo functionality
         // We'll add new fields to the Match entity to store these
         match.setPreviousTeam1Score(previousTeam1Score);
@@ -180,20 +334,25 @@ public class MatchService {
             completeSet(match);
         }
         
-        return matchRepository.save(match);
+        Match saved = saveAndPublish(match);
+        if (saved.getStatus() == MatchStatus.COMPLETED) {
+            publishResultsChanged(saved);
+        }
+        return saved;
     }
     
     // Edit a completed set
+    @Transactional
     public Match editCompletedSet(Long matchId, int setNumber, int team1Points, int team2Points, 
                                  Long userId, String guestSessionId) {
         Match match = verifyMatchOwnership(matchId, userId, guestSessionId);
+        boolean wasCompleted = match.getStatus() == MatchStatus.COMPLETED;
         
-        // Find the set to edit
-        SetScore setToEdit = setScoreRepository.findByMatchIdOrderBySetNumber(matchId)
-            .stream()
-            .filter(set -> set.getSetNumber() == setNumber)
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("Set not found"));
+        // Find the set to edit in the packed scores - no set_scores query needed
+        byte[] packedSets = match.getPackedSets();
+        if (setNumber < 1 || setNumber > PackedSetScores.setCount(packedSets)) {
+            throw new RuntimeException("Set not found");
+        }
         
         // Validate the new scores
         if (team1Points < 0 || team2Points < 0) {
@@ -201,47 +360,48 @@ public class MatchService {
         }
         
         // Check if the new scores would be valid for that set
-        boolean isValidScore = false;
-        if (setNumber == 5) {
-            // Set 5: first to 15, win by 2
-            isValidScore = (team1Points >= 15 && team1Points - team2Points >= 2) || 
-                          (team2Points >= 15 && team2Points - team1Points >= 2);
-        } else {
-            // Sets 1-4: first to 25, win by 2
-            isValidScore = (team1Points >= 25 && team1Points - team2Points >= 2) || 
-                          (team2Points >= 25 && team2Points - team1Points >= 2);
-        }
+        boolean isValidScore = match.getRules().isSetWon(setNumber, team1Points, team2Points);
         
         if (!isValidScore) {
             throw new RuntimeException("Invalid score for set " + setNumber);
         }
         
         // Store old winner for comparison
-        boolean oldTeam1Won = setToEdit.getTeam1Points() > setToEdit.getTeam2Points();
+        boolean oldTeam1Won = PackedSetScores.team1Points(packedSets, setNumber) >
+                              PackedSetScores.team2Points(packedSets, setNumber);
         boolean newTeam1Won = team1Points > team2Points;
         
-        // Update the set score
-        setToEdit.setTeam1Points(team1Points);
-        setToEdit.setTeam2Points(team2Points);
-        setScoreRepository.save(setToEdit);
+        // Update the set score, keeping the set_scores detail row in sync
+        match.setPackedSets(PackedSetScores.withSet(packedSets, setNumber, team1Points, team2Points));
+        setScoreRepository.findByMatchAndSetNumber(matchId, match.getCreatedAt(), setNumber).ifPresent(setToEdit -> {
+            setToEdit.setTeam1Points(team1Points);
+            setToEdit.setTeam2Points(team2Points);
+            setScoreRepository.save(setToEdit);
+        });
         
         // Recalculate sets won if the winner changed
         if (oldTeam1Won != newTeam1Won) {
             recalculateMatchSets(match);
         }
         
-        return matchRepository.save(match);
+        // Any edit of a finished match changes its result or margins; so does reopening it
+        Match saved = saveAndPublish(match);
+        if (wasCompleted || saved.getStatus() == MatchStatus.COMPLETED) {
+            publishResultsChanged(saved);
+        }
+        return saved;
     }
     
     // Recalculate match sets based on completed sets
     private void recalculateMatchSets(Match match) {
-        List<SetScore> completedSets = setScoreRepository.findByMatchIdOrderBySetNumber(match.getId());
+        byte[] packedSets = match.getPackedSets();
+        int completedSets = PackedSetScores.setCount(packedSets);
         
         int team1Sets = 0;
         int team2Sets = 0;
         
-        for (SetScore set : completedSets) {
-            if (set.getTeam1Points() > set.getTeam2Points()) {
+        for (int setNumber = 1; setNumber <= completedSets; setNumber++) {
+            if (PackedSetScores.team1Points(packedSets, setNumber) > PackedSetScores.team2Points(packedSets, setNumber)) {
                 team1Sets++;
             } else {
                 team2Sets++;
@@ -252,18 +412,22 @@ public class MatchService {
         match.setTeam2Sets(team2Sets);
         
         // Check if match should be completed or reopened
-        if (team1Sets >= 3 || team2Sets >= 3) {
+        if (match.getRules().isMatchWon(team1Sets, team2Sets)) {
             match.setStatus(MatchStatus.COMPLETED);
         } else if (match.getStatus() == MatchStatus.COMPLETED) {
             // Reopen the match if it was completed but shouldn't be anymore
             match.setStatus(MatchStatus.IN_PROGRESS);
-            match.setCurrentSet(completedSets.size() + 1);
+            match.setCurrentSet(completedSets + 1);
             match.setTeam1Score(0);
             match.setTeam2Score(0);
         }
+        
+        // Undo the rating change of the old result and rate the new one, if any
+        teamRatingService.syncRating(match);
     }
     
     // Update score method - now clears undo used flag when new point is scored
+    @Transactional
     public Match updateScore(Long matchId, String team, Long userId, String guestSessionId) {
         Match match = verifyMatchOwnership(matchId, userId, guestSessionId);
 
@@ -281,9 +445,14 @@ public class MatchService {
         } else {
             throw new RuntimeException("Invalid team");
         }
+        requireStorableScore(match.getTeam1Score(), match.getTeam2Score());
 
         // Update last score time
         match.setLastScoreTime(LocalDateTime.now());
+        
+        // Record the rally; runs and pace are updated from the log header in constant time
+        match.setRallyLog(RallyLog.append(match.getRallyLog(), match.getCurrentSet(),
+            "team2".equals(team), System.currentTimeMillis()));
 
         // Clear previous scores when new points are scored normally
         match.setPreviousTeam1Score(null);
@@ -293,36 +462,25 @@ public class MatchService {
         match.setUndoUsed(false);
 
         // Check if set is won
-        if (isSetWon(match.getTeam1Score(), match.getTeam2Score(), match.getCurrentSet())) {
+        if (match.getRules().isSetWon(match.getCurrentSet(), match.getTeam1Score(), match.getTeam2Score())) {
             completeSet(match);
         }
 
-        return matchRepository.save(match);
+        Match saved = saveAndPublish(match);
+        if (saved.getStatus() == MatchStatus.COMPLETED) {
+            publishResultsChanged(saved);
+        }
+        return saved;
     }
 
-    // Check if a set is won (volleyball rules)
-    private boolean isSetWon(int score1, int score2, int currentSet) {
-        // Set 5 (deciding set): first to 15, must win by 2
-        if (currentSet == 5) {
-            if (score1 >= 15 && score1 - score2 >= 2) {
-                return true;
-            }
-            if (score2 >= 15 && score2 - score1 >= 2) {
-                return true;
-            }
-            return false;
+    // A set score is packed into one byte per team; a deuce that runs past that is refused
+    // before anything changes, instead of failing when the set completes
+    private static void requireStorableScore(int team1Score, int team2Score) {
+        if (team1Score > PackedSetScores.MAX_POINTS || team2Score > PackedSetScores.MAX_POINTS) {
+            throw new RuntimeException("Set score cannot exceed " + PackedSetScores.MAX_POINTS + " points");
         }
-        
-        // Sets 1-4: first to 25, must win by 2
-        if (score1 >= 25 && score1 - score2 >= 2) {
-            return true;
-        }
-        if (score2 >= 25 && score2 - score1 >= 2) {
-            return true;
-        }
-        return false;
     }
-    
+
     // Updated complete set method - clears undo used flag for new set
     private void completeSet(Match match) {
         // Save the completed set
@@ -332,6 +490,8 @@ public class MatchService {
                 match.getTeam2Score(),
                 match);
         setScoreRepository.save(setScore);
+        match.setPackedSets(PackedSetScores.withSet(
+                match.getPackedSets(), match.getCurrentSet(), match.getTeam1Score(), match.getTeam2Score()));
 
         // Determine set winner and update sets won
         if (match.getTeam1Score() > match.getTeam2Score()) {
@@ -344,11 +504,12 @@ public class MatchService {
         System.out.println("Set " + match.getCurrentSet() + " completed!");
         System.out.println("Current sets won - Team1: " + match.getTeam1Sets() + ", Team2: " + match.getTeam2Sets());
 
-        // Check if match is won (best of 5: first to 3 sets)
-        if (match.getTeam1Sets() >= 3 || match.getTeam2Sets() >= 3) {
+        // Check if match is won (first to a majority of the match's best-of sets)
+        if (match.getRules().isMatchWon(match.getTeam1Sets(), match.getTeam2Sets())) {
             match.setStatus(MatchStatus.COMPLETED);
             System.out.println(
                     "MATCH COMPLETED! Winner has " + Math.max(match.getTeam1Sets(), match.getTeam2Sets()) + " sets");
+            teamRatingService.syncRating(match);
         } else {
             // Start next set
             match.setCurrentSet(match.getCurrentSet() + 1);
@@ -364,6 +525,7 @@ public class MatchService {
     }
 
     // FIXED: Updated undo method - now handles both regular points and edit operations
+    @Transactional
     public Match undoLastPoint(Long matchId, Long userId, String guestSessionId) {
         Match match = verifyMatchOwnership(matchId, userId, guestSessionId);
         
@@ -415,6 +577,7 @@ public class MatchService {
             
             // After undo, we don't know who scored before, so clear the tracking
             match.setLastScoringTeam(null);
+            match.setRallyLog(RallyLog.withoutLastRally(match.getRallyLog()));
         } else {
             throw new RuntimeException("Cannot undo - last scoring team unknown. Use 'Edit Score' instead.");
         }
@@ -423,10 +586,11 @@ public class MatchService {
         match.setUndoUsed(true);
         match.setLastScoreTime(LocalDateTime.now());
 
-        return matchRepository.save(match);
+        return saveAndPublish(match);
     }
 
     // Updated reset current set method - clears undo used flag
+    @Transactional
     public Match resetCurrentSet(Long matchId, Long userId, String guestSessionId) {
         Match match = verifyMatchOwnership(matchId, userId, guestSessionId);
 
@@ -437,6 +601,7 @@ public class MatchService {
         match.setTeam1Score(0);
         match.setTeam2Score(0);
         match.setLastScoringTeam(null); // Clear last scoring team
+        match.setRallyLog(RallyLog.withoutSet(match.getRallyLog(), match.getCurrentSet()));
         match.setLastScoreTime(LocalDateTime.now());
 
         // Clear undo used flag when set is reset
@@ -444,27 +609,98 @@ public class MatchService {
         match.setPreviousTeam1Score(null);
         match.setPreviousTeam2Score(null);
         
-        return matchRepository.save(match);
+        return saveAndPublish(match);
     }
     
-    // Get match by ID with ownership verification
+    // Get match by ID with ownership verification - served from either tier
+    @Transactional(readOnly = true)
     public Match getMatchById(Long matchId, Long userId, String guestSessionId) {
-        return verifyMatchOwnership(matchId, userId, guestSessionId);
+        Optional<Match> optionalMatch = matchRepository.findById(matchId);
+        if (optionalMatch.isPresent()) {
+            checkOwnership(optionalMatch.get(), userId, guestSessionId);
+            return optionalMatch.get();
+        }
+        return findArchivedMatch(matchId, userId, guestSessionId)
+            .orElseThrow(() -> new RuntimeException("Match not found"));
+    }
+    
+    // Set detail view: the persisted set_scores rows (archived matches only have packed scores)
+    @Transactional(readOnly = true)
+    public List<SetScore> getSetDetails(Long matchId, Long userId, String guestSessionId) {
+        Match match = getMatchById(matchId, userId, guestSessionId);
+        List<SetScore> details = setScoreRepository.findByMatchOrderBySetNumber(matchId, match.getCreatedAt());
+        return details.isEmpty() ? match.getSets() : details;
     }
     
-    // Delete a match (only if owned by user/session)
+    // Delete a match (only if owned by user/session): tombstoned here, removed by MatchPurgeService
+    @Transactional
     public void deleteMatch(Long matchId, Long userId, String guestSessionId) {
-        Match match = verifyMatchOwnership(matchId, userId, guestSessionId);
+        Optional<Match> optionalMatch = matchRepository.findById(matchId);
+        if (!optionalMatch.isPresent()) {
+            findArchivedMatch(matchId, userId, guestSessionId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+            matchArchiveService.deleteArchived(List.of(matchId), LocalDateTime.now());
+            eventBus.publish(ClusterEvent.Type.MATCH_DELETED, matchId.toString());
+            eventBus.publish(ClusterEvent.Type.RESULTS_CHANGED, TeamAnalyticsService.userOwner(userId));
+            return;
+        }
+        
+        Match match = optionalMatch.get();
+        checkOwnership(match, userId, guestSessionId);
+        
+        matchRepository.markDeleted(List.of(matchId), LocalDateTime.now());
+        eventBus.publish(ClusterEvent.Type.MATCH_DELETED, matchId.toString());
+        if (match.getStatus() == MatchStatus.COMPLETED) {
+            publishResultsChanged(match);
+        }
+    }
+    
+    // Delete many matches at once: the caller's matches among the ids are tombstoned with one
+    // UPDATE per tier, however many there are. Ids that are not the caller's are skipped.
+    // Returns how many matches were deleted
+    @Transactional
+    public int deleteMatches(Collection<Long> matchIds, Long userId, String guestSessionId) {
+        if (matchIds == null || matchIds.isEmpty()) {
+            throw new RuntimeException("No matches to delete");
+        }
+        if (matchIds.size() > bulkDeleteMax) {
+            throw new RuntimeException("At most " + bulkDeleteMax + " matches can be deleted at once");
+        }
         
-        // Delete associated set scores first
-        List<SetScore> setScores = setScoreRepository.findByMatchId(matchId);
-        setScoreRepository.deleteAll(setScores);
+        List<Long> hot;
+        List<Long> archived = List.of();
+        String owner;
+        if (userId != null) {
+            hot = matchRepository.findIdsOwnedByUser(matchIds, userId);
+            archived = matchArchiveService.findArchivedIdsOwnedByUser(matchIds, userId);
+            owner = TeamAnalyticsService.userOwner(userId);
+        } else if (guestSessionId != null) {
+            if (!guestSessionService.isSessionValid(guestSessionId)) {
+                throw new RuntimeException("Guest session has expired");
+            }
+            hot = matchRepository.findIdsOwnedByGuest(matchIds, UUID.fromString(guestSessionId));
+            owner = TeamAnalyticsService.guestOwner(guestSessionId);
+        } else {
+            throw new RuntimeException("Authentication required");
+        }
         
-        // Delete the match
-        matchRepository.delete(match);
+        LocalDateTime now = LocalDateTime.now();
+        if (!hot.isEmpty()) {
+            matchRepository.markDeleted(hot, now);
+        }
+        if (!archived.isEmpty()) {
+            matchArchiveService.deleteArchived(archived, now);
+        }
+        // One notification per call, not per match: subscribers drop what they hold for the owner
+        if (!hot.isEmpty() || !archived.isEmpty()) {
+            eventBus.publish(ClusterEvent.Type.MATCHES_DELETED, owner);
+            eventBus.publish(ClusterEvent.Type.RESULTS_CHANGED, owner);
+        }
+        return hot.size() + archived.size();
     }
     
     // Pause/Resume match
+    @Transactional
     public Match pauseMatch(Long matchId, Long userId, String guestSessionId) {
         Match match = verifyMatchOwnership(matchId, userId, guestSessionId);
         
@@ -476,16 +712,18 @@ public class MatchService {
             throw new RuntimeException("Cannot pause/resume completed match");
         }
         
-        return matchRepository.save(match);
+        return saveAndPublish(match);
     }
     
     // Get match statistics for user
+    @Transactional(readOnly = true)
     public MatchStatistics getMatchStatistics(Long userId) {
         List<Match> userMatches = getMatchesForUser(userId);
         return calculateStatistics(userMatches);
     }
     
     // Get match statistics for guest session
+    @Transactional(readOnly = true)
     public MatchStatistics getMatchStatisticsForGuest(String sessionId) {
         List<Match> guestMatches = getMatchesForGuestSession(sessionId);
         return calculateStatistics(guestMatches);
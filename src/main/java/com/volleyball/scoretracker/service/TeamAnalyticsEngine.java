@@ -0,0 +1,242 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.dto.TeamStatsResponse;
+import com.volleyball.scoretracker.model.MatchResult;
+import com.volleyball.scoretracker.model.PackedSetScores;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Per-team performance metrics over a list of completed matches.
+ *
+ * One streaming pass decodes each match's packed set scores into a few primitive
+ * columns and maps both team ids to dense array indexes. Teams are then split into
+ * partitions by id, and each partition is aggregated by its own fork/join task.
+ * Every team belongs to exactly one partition, so tasks write disjoint slots of the
+ * shared accumulator arrays and need neither locks nor a merge step.
+ */
+public final class TeamAnalyticsEngine {
+
+    private static final byte FLAG_TEAM1_WON = 1;
+    private static final byte FLAG_DECIDING = 2;
+    private static final byte FLAG_TEAM1_TRAILED = 4;   // team 1 was down 0-2 in sets
+    private static final byte FLAG_TEAM2_TRAILED = 8;
+
+    private TeamAnalyticsEngine() {}
+
+    public static List<TeamStatsResponse> analyze(List<MatchResult> results, int parallelThreshold) {
+        int count = results.size();
+        int[] team1 = new int[count];
+        int[] team2 = new int[count];
+        byte[] flags = new byte[count];
+        byte[] setsPlayed = new byte[count];
+        short[] team1Margin = new short[count];
+
+        // Pass 1: decode every match once
+        Map<Long, Integer> denseIds = new HashMap<>();
+        List<String> teamNames = new ArrayList<>();
+        int decoded = 0;
+        for (MatchResult result : results) {
+            byte[] packed = result.getPackedSets();
+            int sets = PackedSetScores.setCount(packed);
+            int team1Sets = 0;
+            int team2Sets = 0;
+            int margin = 0;
+            byte matchFlags = 0;
+            for (int set = 1; set <= sets; set++) {
+                int team1Points = PackedSetScores.team1Points(packed, set);
+                int team2Points = PackedSetScores.team2Points(packed, set);
+                margin += team1Points - team2Points;
+                if (team1Points > team2Points) {
+                    team1Sets++;
+                } else {
+                    team2Sets++;
+                }
+                if (set == 2 && team1Sets == 0) {
+                    matchFlags |= FLAG_TEAM1_TRAILED;
+                } else if (set == 2 && team2Sets == 0) {
+                    matchFlags |= FLAG_TEAM2_TRAILED;
+                }
+            }
+            if (team1Sets == team2Sets) {
+                continue; // No winner recorded; not a usable result
+            }
+            if (team1Sets > team2Sets) {
+                matchFlags |= FLAG_TEAM1_WON;
+            }
+            // The last set was the decider if the loser was only one set short
+            if (Math.min(team1Sets, team2Sets) == Math.max(team1Sets, team2Sets) - 1) {
+                matchFlags |= FLAG_DECIDING;
+            }
+
+            team1[decoded] = denseId(result.getTeam1Id(), result.getTeam1Name(), denseIds, teamNames);
+            team2[decoded] = denseId(result.getTeam2Id(), result.getTeam2Name(), denseIds, teamNames);
+            flags[decoded] = matchFlags;
+            setsPlayed[decoded] = (byte) sets;
+            team1Margin[decoded] = (short) margin;
+            decoded++;
+        }
+
+        // Bucket (match, side) entries by the partition of the team on that side
+        int teamCount = teamNames.size();
+        int partitions = decoded < parallelThreshold ? 1 : Math.max(1, Runtime.getRuntime().availableProcessors());
+        int[] bucketSizes = new int[partitions];
+        for (int i = 0; i < decoded; i++) {
+            bucketSizes[team1[i] % partitions]++;
+            bucketSizes[team2[i] % partitions]++;
+        }
+        int[][] buckets = new int[partitions][];
+        for (int p = 0; p < partitions; p++) {
+            buckets[p] = new int[bucketSizes[p]];
+            bucketSizes[p] = 0;
+        }
+        for (int i = 0; i < decoded; i++) {
+            int p1 = team1[i] % partitions;
+            buckets[p1][bucketSizes[p1]++] = i << 1;
+            int p2 = team2[i] % partitions;
+            buckets[p2][bucketSizes[p2]++] = (i << 1) | 1;
+        }
+
+        // Pass 2: aggregate each partition in parallel
+        Accumulators totals = new Accumulators(teamCount);
+        List<PartitionTask> tasks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            tasks.add(new PartitionTask(buckets[p], team1, team2, flags, setsPlayed, team1Margin, totals));
+        }
+        if (partitions == 1) {
+            tasks.get(0).compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        List<TeamStatsResponse> stats = new ArrayList<>(teamCount);
+        for (int team = 0; team < teamCount; team++) {
+            stats.add(totals.toResponse(team, teamNames.get(team)));
+        }
+        stats.sort(Comparator.comparingInt(TeamStatsResponse::getMatchesPlayed).reversed()
+            .thenComparing(TeamStatsResponse::getTeam));
+        return stats;
+    }
+
+    // Team ids come from the owner's team dictionary, so spellings are already merged
+    private static int denseId(long teamId, String name, Map<Long, Integer> denseIds, List<String> teamNames) {
+        Integer id = denseIds.get(teamId);
+        if (id == null) {
+            id = teamNames.size();
+            denseIds.put(teamId, id);
+            teamNames.add(name);
+        }
+        return id;
+    }
+
+    private static final class PartitionTask extends RecursiveAction {
+        private final int[] entries;
+        private final int[] team1;
+        private final int[] team2;
+        private final byte[] flags;
+        private final byte[] setsPlayed;
+        private final short[] team1Margin;
+        private final Accumulators totals;
+
+        PartitionTask(int[] entries, int[] team1, int[] team2, byte[] flags, byte[] setsPlayed,
+                      short[] team1Margin, Accumulators totals) {
+            this.entries = entries;
+            this.team1 = team1;
+            this.team2 = team2;
+            this.flags = flags;
+            this.setsPlayed = setsPlayed;
+            this.team1Margin = team1Margin;
+            this.totals = totals;
+        }
+
+        @Override
+        protected void compute() {
+            for (int entry : entries) {
+                int match = entry >>> 1;
+                boolean isTeam1 = (entry & 1) == 0;
+                int team = isTeam1 ? team1[match] : team2[match];
+                byte matchFlags = flags[match];
+                boolean won = ((matchFlags & FLAG_TEAM1_WON) != 0) == isTeam1;
+                boolean trailed = (matchFlags & (isTeam1 ? FLAG_TEAM1_TRAILED : FLAG_TEAM2_TRAILED)) != 0;
+
+                totals.matches[team]++;
+                totals.sets[team] += setsPlayed[match];
+                totals.margin[team] += isTeam1 ? team1Margin[match] : -team1Margin[match];
+                if (won) {
+                    totals.wins[team]++;
+                }
+                if (trailed) {
+                    totals.trailed[team]++;
+                    if (won) {
+                        totals.comebacks[team]++;
+                    }
+                }
+                if ((matchFlags & FLAG_DECIDING) != 0) {
+                    if (won) {
+                        totals.decidingWins[team]++;
+                    } else {
+                        totals.decidingLosses[team]++;
+                    }
+                }
+            }
+        }
+    }
+
+    // Column-per-metric totals indexed by team id
+    private static final class Accumulators {
+        final int[] matches;
+        final int[] wins;
+        final int[] sets;
+        final long[] margin;
+        final int[] trailed;
+        final int[] comebacks;
+        final int[] decidingWins;
+        final int[] decidingLosses;
+
+        Accumulators(int teams) {
+            matches = new int[teams];
+            wins = new int[teams];
+            sets = new int[teams];
+            margin = new long[teams];
+            trailed = new int[teams];
+            comebacks = new int[teams];
+            decidingWins = new int[teams];
+            decidingLosses = new int[teams];
+        }
+
+        TeamStatsResponse toResponse(int team, String name) {
+            TeamStatsResponse response = new TeamStatsResponse();
+            response.setTeam(name);
+            response.setMatchesPlayed(matches[team]);
+            response.setWins(wins[team]);
+            response.setLosses(matches[team] - wins[team]);
+            response.setWinRate(ratio(wins[team], matches[team]));
+            response.setAverageSetMargin(sets[team] == 0 ? 0 : round((double) margin[team] / sets[team]));
+            response.setTrailedZeroTwo(trailed[team]);
+            response.setComebackWins(comebacks[team]);
+            response.setComebackRate(ratio(comebacks[team], trailed[team]));
+            response.setDecidingSetWins(decidingWins[team]);
+            response.setDecidingSetLosses(decidingLosses[team]);
+            return response;
+        }
+
+        private static double ratio(int part, int whole) {
+            return whole == 0 ? 0 : round((double) part / whole);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.datasource.DataSourceRouting;
+import com.volleyball.scoretracker.dto.TeamStatsResponse;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.MatchResult;
+import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.repository.ArchivedMatchRepository;
+import com.volleyball.scoretracker.repository.MatchRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Team performance analytics per owner (a registered user or a guest session).
+ *
+ * Results are computed from completed matches only, so they change only when a match
+ * is completed, a completed set is edited, a completed match is deleted or guest
+ * matches are claimed. MatchService publishes RESULTS_CHANGED for those, and every
+ * node drops its cached entry for that owner.
+ */
+@Service
+public class TeamAnalyticsService {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private ArchivedMatchRepository archivedMatchRepository;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Value("${app.analytics.cacheSize:1000}")
+    private int cacheSize;
+
+    @Value("${app.analytics.parallelThreshold:4096}")
+    private int parallelThreshold;
+
+    private final Map<String, List<TeamStatsResponse>> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation; a result computed across an invalidation is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void subscribeToEvents() {
+        eventBus.subscribe(event -> {
+            if (event.getType() == ClusterEvent.Type.RESULTS_CHANGED) {
+                invalidations.incrementAndGet();
+                cache.remove(event.getKey());
+            } else if (event.getType() == ClusterEvent.Type.RESYNC) {
+                invalidations.incrementAndGet();
+                cache.clear();
+            }
+        });
+    }
+
+    public static String userOwner(Long userId) {
+        return "user:" + userId;
+    }
+
+    public static String guestOwner(String sessionId) {
+        return "guest:" + sessionId;
+    }
+
+    // Hot and archived completed matches together make up a user's full history
+    @Transactional(readOnly = true)
+    public List<TeamStatsResponse> getTeamStatsForUser(Long userId) {
+        return cached(userOwner(userId), () -> {
+            List<MatchResult> results = new ArrayList<>(
+                matchRepository.findResultsByUserIdAndStatus(userId, MatchStatus.COMPLETED));
+            results.addAll(archivedMatchRepository.findResultsByUserId(userId));
+            return results;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<TeamStatsResponse> getTeamStatsForGuest(String sessionId) {
+        if (!guestSessionService.isSessionValid(sessionId)) {
+            throw new RuntimeException("Guest session has expired");
+        }
+        return cached(guestOwner(sessionId),
+            () -> matchRepository.findResultsByGuestSessionIdAndStatus(UUID.fromString(sessionId), MatchStatus.COMPLETED));
+    }
+
+    private List<TeamStatsResponse> cached(String owner, ResultLoader loader) {
+        List<TeamStatsResponse> stats = cache.get(owner);
+        if (stats != null) {
+            return stats;
+        }
+
+        long version = invalidations.get();
+        // From the primary: a replica behind the RESULTS_CHANGED that emptied this entry would refill it with old results
+        stats = TeamAnalyticsEngine.analyze(DataSourceRouting.onPrimary(loader::load), parallelThreshold);
+        if (invalidations.get() == version) {
+            if (cache.size() >= cacheSize) {
+                cache.clear();
+            }
+            cache.put(owner, stats);
+        }
+        return stats;
+    }
+
+    private interface ResultLoader {
+        List<MatchResult> load();
+    }
+}
@@ -0,0 +1,207 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.datasource.DataSourceRouting;
+import com.volleyball.scoretracker.dto.LeaderboardEntry;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.model.TeamNames;
+import com.volleyball.scoretracker.model.TeamRating;
+import com.volleyball.scoretracker.repository.TeamRatingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Elo ratings per team, keyed by the owner's user id and the normalized team name, the
+ * same identity as a row in teams. Only registered users' matches are rated: guests are
+ * anonymous, so rating their matches would let anyone feed the public leaderboard.
+ *
+ * A rating changes only when a match result does: when a match completes, and when
+ * editing a completed set flips or reopens the result. The match remembers the
+ * change it applied, so a flip first undoes it and then rates the new result.
+ *
+ * Every node keeps all ratings in a sorted in-memory index, loaded from the
+ * team_ratings table at startup and refreshed row by row from RATING_CHANGED
+ * events, so the leaderboard reads the first K entries and never queries.
+ */
+@Service
+public class TeamRatingService {
+
+    private static final Comparator<Entry> BY_RATING = Comparator.comparingDouble((Entry entry) -> entry.rating)
+        .reversed()
+        .thenComparing(entry -> entry.teamKey);
+
+    @Autowired
+    private TeamRatingRepository teamRatingRepository;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Value("${app.ratings.initial:1500}")
+    private double initialRating;
+
+    @Value("${app.ratings.kFactor:32}")
+    private double kFactor;
+
+    @Value("${app.ratings.leaderboardMax:100}")
+    private int leaderboardMax;
+
+    // Guarded by this; the index and the key map always hold the same entries
+    private final TreeSet<Entry> ranking = new TreeSet<>(BY_RATING);
+    private final Map<String, Entry> byTeamKey = new HashMap<>();
+
+    @PostConstruct
+    public void loadAndSubscribe() {
+        eventBus.subscribe(event -> {
+            if (event.getType() == ClusterEvent.Type.RATING_CHANGED) {
+                refresh(event.getKey());
+            } else if (event.getType() == ClusterEvent.Type.RESYNC) {
+                reload();
+            }
+        });
+        reload();
+    }
+
+    // Bring the ratings in line with the match's current result; call before the match is saved
+    @Transactional
+    public void syncRating(Match match) {
+        boolean decided = match.getStatus() == MatchStatus.COMPLETED && match.getTeam1Sets() != match.getTeam2Sets();
+        boolean team1Won = match.getTeam1Sets() > match.getTeam2Sets();
+        Double applied = match.getRatingDelta();
+        if (applied == null ? !decided : decided && (applied > 0) == team1Won) {
+            return;
+        }
+
+        Long ownerId = match.getTeam1().getUserId();
+        if (ownerId == null) {
+            return; // Guest match
+        }
+        String team1Key = teamKey(ownerId, match.getTeam1Name());
+        String team2Key = teamKey(ownerId, match.getTeam2Name());
+        if (team1Key.equals(team2Key)) {
+            return; // A team playing itself says nothing about its strength
+        }
+
+        // Inserted in key order, the same order the rows are locked in, so two matches between
+        // the same new teams cannot deadlock on each other's inserts
+        if (team1Key.compareTo(team2Key) < 0) {
+            ensureRated(team1Key, match.getTeam1Name().trim());
+            ensureRated(team2Key, match.getTeam2Name().trim());
+        } else {
+            ensureRated(team2Key, match.getTeam2Name().trim());
+            ensureRated(team1Key, match.getTeam1Name().trim());
+        }
+        TeamRating team1 = null;
+        TeamRating team2 = null;
+        for (TeamRating rating : teamRatingRepository.lockByTeamKeys(List.of(team1Key, team2Key))) {
+            if (rating.getTeamKey().equals(team1Key)) {
+                team1 = rating;
+            } else {
+                team2 = rating;
+            }
+        }
+
+        if (applied != null) {
+            adjust(team1, -applied, -1);
+            adjust(team2, applied, -1);
+            match.setRatingDelta(null);
+        }
+        if (decided) {
+            double expected = 1.0 / (1.0 + Math.pow(10, (team2.getRating() - team1.getRating()) / 400.0));
+            double delta = kFactor * ((team1Won ? 1.0 : 0.0) - expected);
+            adjust(team1, delta, 1);
+            adjust(team2, -delta, 1);
+            match.setRatingDelta(delta);
+        }
+
+        teamRatingRepository.save(team1);
+        teamRatingRepository.save(team2);
+        eventBus.publish(ClusterEvent.Type.RATING_CHANGED, team1Key);
+        eventBus.publish(ClusterEvent.Type.RATING_CHANGED, team2Key);
+    }
+
+    public static String teamKey(Long ownerId, String teamName) {
+        return ownerId + ":" + TeamNames.normalize(teamName);
+    }
+
+    // Top teams by rating; reads the first `limit` index entries only
+    public synchronized List<LeaderboardEntry> getLeaderboard(int limit) {
+        int size = Math.max(1, Math.min(limit, leaderboardMax));
+        List<LeaderboardEntry> leaderboard = new ArrayList<>(size);
+        Iterator<Entry> entries = ranking.iterator();
+        while (leaderboard.size() < size && entries.hasNext()) {
+            Entry entry = entries.next();
+            leaderboard.add(new LeaderboardEntry(leaderboard.size() + 1, entry.teamName,
+                Math.round(entry.rating * 10) / 10.0, entry.matchesRated));
+        }
+        return leaderboard;
+    }
+
+    // In the scoring transaction, so a set-ending point needs one connection and one commit;
+    // losing a race for the row does nothing instead of aborting the caller
+    private void ensureRated(String teamKey, String teamName) {
+        teamRatingRepository.insertRatingIfAbsent(teamKey, teamName, initialRating);
+    }
+
+    private static void adjust(TeamRating rating, double delta, int matches) {
+        rating.setRating(rating.getRating() + delta);
+        rating.setMatchesRated(rating.getMatchesRated() + matches);
+        rating.setUpdatedAt(LocalDateTime.now());
+    }
+
+    // Index reads come from the primary: a replica behind the RATING_CHANGED would index the old
+    // rating, and nothing else would correct it until the team plays again
+    private void refresh(String teamKey) {
+        Optional<TeamRating> rating = DataSourceRouting.onPrimary(() -> teamRatingRepository.findById(teamKey));
+        synchronized (this) {
+            Entry previous = byTeamKey.remove(teamKey);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            rating.ifPresent(this::index);
+        }
+    }
+
+    private void reload() {
+        List<TeamRating> ratings = DataSourceRouting.onPrimary(teamRatingRepository::findAll);
+        synchronized (this) {
+            ranking.clear();
+            byTeamKey.clear();
+            ratings.forEach(this::index);
+        }
+    }
+
+    private void index(TeamRating rating) {
+        Entry entry = new Entry(rating.getTeamKey(), rating.getTeamName(), rating.getRating(), rating.getMatchesRated());
+        byTeamKey.put(entry.teamKey, entry);
+        ranking.add(entry);
+    }
+
+    private static final class Entry {
+        final String teamKey;
+        final String teamName;
+        final double rating;
+        final int matchesRated;
+
+        Entry(String teamKey, String teamName, double rating, int matchesRated) {
+            this.teamKey = teamKey;
+            this.teamName = teamName;
+            this.rating = rating;
+            this.matchesRated = matchesRated;
+        }
+    }
+}
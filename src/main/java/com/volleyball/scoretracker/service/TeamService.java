@@ -0,0 +1,197 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.datasource.DataSourceRouting;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.GuestSession;
+import com.volleyball.scoretracker.model.Team;
+import com.volleyball.scoretracker.model.TeamNames;
+import com.volleyball.scoretracker.model.User;
+import com.volleyball.scoretracker.repository.TeamRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of team names per owner (a registered user or a guest session).
+ *
+ * Each distinct normalized name gets one teams row, and matches store the two team ids
+ * instead of the names. Resolving a name normally hits the in-memory dictionary of its
+ * owner; only names not seen on this node go to the database. A new name is inserted in
+ * the caller's transaction with ON CONFLICT DO NOTHING, so losing a race for the row
+ * cannot abort the caller, and only cached once that transaction has committed.
+ *
+ * Teams are never renamed, so cached entries only go stale when their owner changes:
+ * a claim moves or merges the guest's teams, and a removed session takes them along.
+ */
+@Service
+public class TeamService {
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Value("${app.teams.cacheSize:10000}")
+    private int cacheSize;
+
+    // Normalized names never contain it (TeamNames collapses whitespace to spaces)
+    private static final char PENDING_SEPARATOR = '\t';
+
+    // Owner key -> normalized name -> team
+    private final Map<String, Map<String, Team>> dictionaries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribeToEvents() {
+        eventBus.subscribe(event -> {
+            if (event.getType() == ClusterEvent.Type.MATCHES_CLAIMED
+                || event.getType() == ClusterEvent.Type.SESSION_REMOVED) {
+                dictionaries.remove(guestOwner(event.getKey()));
+            } else if (event.getType() == ClusterEvent.Type.RESYNC) {
+                dictionaries.clear();
+            }
+        });
+    }
+
+    @Transactional
+    public Team resolveForUser(User user, String name) {
+        String normalized = TeamNames.normalize(name);
+        return resolve(userOwner(user.getId()), normalized,
+            () -> teamRepository.findByUserIdAndNormalizedName(user.getId(), normalized),
+            () -> {
+                Team team = new Team(user.getId(), null, name);
+                teamRepository.insertForUserIfAbsent(user.getId(), team.getName(), normalized, team.getCreatedAt());
+            });
+    }
+
+    @Transactional
+    public Team resolveForGuest(GuestSession session, String name) {
+        String normalized = TeamNames.normalize(name);
+        return resolve(guestOwner(session.getSessionId().toString()), normalized,
+            () -> teamRepository.findByGuestSessionIdAndNormalizedName(session.getId(), normalized),
+            () -> {
+                Team team = new Team(null, session.getId(), name);
+                teamRepository.insertForGuestIfAbsent(session.getId(), team.getName(), normalized, team.getCreatedAt());
+            });
+    }
+
+    // Read-only lookups (head-to-head): an unknown name has no team and is not created
+    public Optional<Team> findForUser(Long userId, String name) {
+        String normalized = TeamNames.normalize(name);
+        return find(userOwner(userId), normalized,
+            () -> teamRepository.findByUserIdAndNormalizedName(userId, normalized));
+    }
+
+    public Optional<Team> findForGuest(String sessionId, String name) {
+        String normalized = TeamNames.normalize(name);
+        return find(guestOwner(sessionId), normalized,
+            () -> teamRepository.findByGuestSessionAndNormalizedName(UUID.fromString(sessionId), normalized));
+    }
+
+    // Move a guest's teams to the user before its matches move; a name the user already has
+    // is merged into the user's team. Set-based, so the cost does not grow with the match count
+    public void claimGuestTeams(GuestSession session, User user) {
+        teamRepository.remapGuestTeam1ToUserTeams(session.getId(), user.getId());
+        teamRepository.remapGuestTeam2ToUserTeams(session.getId(), user.getId());
+        teamRepository.deleteGuestTeamsKnownToUser(session.getId(), user.getId());
+        teamRepository.reassignGuestTeamsToUser(session.getId(), user.getId());
+    }
+
+    // Must run in a transaction
+    private Team resolve(String owner, String normalized, TeamLookup lookup, TeamInsert insert) {
+        return find(owner, normalized, lookup).orElseGet(() -> {
+            insert.insertIfAbsent();
+            Team team = lookup.find().orElseThrow();
+            remember(owner, normalized, team);
+            return team;
+        });
+    }
+
+    private Optional<Team> find(String owner, String normalized, TeamLookup lookup) {
+        Map<String, Team> dictionary = dictionaries.get(owner);
+        Team team = dictionary == null ? null : dictionary.get(normalized);
+        if (team == null) {
+            team = pendingTeams().get(owner + PENDING_SEPARATOR + normalized);
+        }
+        if (team != null) {
+            return Optional.of(team);
+        }
+        // Cached ids come from the primary: a replica behind a claim could still show the guest's teams
+        Optional<Team> found = DataSourceRouting.onPrimary(lookup::find);
+        found.ifPresent(value -> remember(owner, normalized, value));
+        return found;
+    }
+
+    // Inside a transaction a team read or inserted may not be committed: it is only visible to
+    // the rest of the transaction until the commit, so a rollback cannot leave its id behind
+    private void remember(String owner, String normalized, Team team) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingTeams().put(owner + PENDING_SEPARATOR + normalized, team);
+        } else {
+            cache(owner, normalized, team);
+        }
+    }
+
+    // Teams of the current transaction, keyed owner + separator + normalized name
+    @SuppressWarnings("unchecked")
+    private Map<String, Team> pendingTeams() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Map.of();
+        }
+        Map<String, Team> pending = (Map<String, Team>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Team> teams = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, teams);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    teams.forEach((key, team) -> {
+                        int separator = key.indexOf(PENDING_SEPARATOR);
+                        cache(key.substring(0, separator), key.substring(separator + 1), team);
+                    });
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TeamService.this);
+                }
+            });
+            pending = teams;
+        }
+        return pending;
+    }
+
+    private void cache(String owner, String normalized, Team team) {
+        if (!dictionaries.containsKey(owner) && dictionaries.size() >= cacheSize) {
+            dictionaries.clear();
+        }
+        dictionaries.computeIfAbsent(owner, key -> new ConcurrentHashMap<>()).put(normalized, team);
+    }
+
+    private static String userOwner(Long userId) {
+        return "user:" + userId;
+    }
+
+    private static String guestOwner(String sessionId) {
+        return "guest:" + sessionId;
+    }
+
+    private interface TeamLookup {
+        Optional<Team> find();
+    }
+
+    private interface TeamInsert {
+        void insertIfAbsent();
+    }
+}
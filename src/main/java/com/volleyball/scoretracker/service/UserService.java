@@ -20,6 +20,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+    
     public User createUser(RegisterRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Username already exists");
@@ -43,9 +46,11 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
     
+    // Written asynchronously in batches by LastLoginRecorder
     public User updateLastLogin(User user) {
         user.setLastLoginAt(LocalDateTime.now());
-        return userRepository.save(user);
+        lastLoginRecorder.record(user.getId(), user.getLastLoginAt());
+        return user;
     }
     public Optional<User> findById(Long id) {
     return userRepository.findById(id);
@@ -0,0 +1,8 @@
+-- Every row has a pair key from here on (see V9)
+ALTER TABLE matches ALTER COLUMN team_pair_key SET NOT NULL;
+ALTER TABLE archived_matches ALTER COLUMN team_pair_key SET NOT NULL;
+
+-- MatchRepository head-to-head lookups: one owner's completed matches between two teams
+CREATE INDEX idx_matches_user_pair ON matches (user_id, team_pair_key, status);
+CREATE INDEX idx_matches_guest_pair ON matches (guest_session_id, team_pair_key, status);
+CREATE INDEX idx_archived_matches_user_pair ON archived_matches (user_id, team_pair_key);
@@ -0,0 +1,24 @@
+-- Team dictionary: one row per distinct (normalized) team name per owner. Matches
+-- reference teams by id instead of repeating the names; V12 fills the ids for
+-- existing rows and V13 drops the name columns.
+
+CREATE TABLE teams (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT,
+    guest_session_id BIGINT,
+    name VARCHAR(255) NOT NULL,
+    normalized_name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_teams_user FOREIGN KEY (user_id) REFERENCES users (id),
+    -- A guest's teams go with the session (its matches are removed first)
+    CONSTRAINT fk_teams_guest_session FOREIGN KEY (guest_session_id) REFERENCES guest_sessions (id) ON DELETE CASCADE
+);
+
+-- TeamService lookups by owner and name; also keeps each name unique per owner
+CREATE UNIQUE INDEX uk_teams_user_name ON teams (user_id, normalized_name);
+CREATE UNIQUE INDEX uk_teams_guest_name ON teams (guest_session_id, normalized_name);
+
+ALTER TABLE matches ADD COLUMN team1_id BIGINT;
+ALTER TABLE matches ADD COLUMN team2_id BIGINT;
+ALTER TABLE archived_matches ADD COLUMN team1_id BIGINT;
+ALTER TABLE archived_matches ADD COLUMN team2_id BIGINT;
@@ -0,0 +1,30 @@
+-- Every match references its teams from here on (see V12)
+ALTER TABLE matches ALTER COLUMN team1_id SET NOT NULL;
+ALTER TABLE matches ALTER COLUMN team2_id SET NOT NULL;
+ALTER TABLE archived_matches ALTER COLUMN team1_id SET NOT NULL;
+ALTER TABLE archived_matches ALTER COLUMN team2_id SET NOT NULL;
+
+ALTER TABLE matches ADD CONSTRAINT fk_matches_team1 FOREIGN KEY (team1_id) REFERENCES teams (id);
+ALTER TABLE matches ADD CONSTRAINT fk_matches_team2 FOREIGN KEY (team2_id) REFERENCES teams (id);
+ALTER TABLE archived_matches ADD CONSTRAINT fk_archived_matches_team1 FOREIGN KEY (team1_id) REFERENCES teams (id);
+ALTER TABLE archived_matches ADD CONSTRAINT fk_archived_matches_team2 FOREIGN KEY (team2_id) REFERENCES teams (id);
+
+-- The team ids replace the duplicated names and the string pair key (V8-V10)
+DROP INDEX idx_matches_user_pair;
+DROP INDEX idx_matches_guest_pair;
+DROP INDEX idx_archived_matches_user_pair;
+ALTER TABLE matches DROP COLUMN team_pair_key;
+ALTER TABLE matches DROP COLUMN team1name;
+ALTER TABLE matches DROP COLUMN team2name;
+ALTER TABLE archived_matches DROP COLUMN team_pair_key;
+ALTER TABLE archived_matches DROP COLUMN team1name;
+ALTER TABLE archived_matches DROP COLUMN team2name;
+
+-- MatchRepository.findHeadToHead: both orders of a team pair are probed on this index.
+-- Team ids are scoped to one owner, so no owner column is needed.
+CREATE INDEX idx_matches_team_pair ON matches (team1_id, team2_id, status);
+CREATE INDEX idx_archived_matches_team_pair ON archived_matches (team1_id, team2_id);
+
+-- Per-team lookups from the team2 side (and deletes of teams)
+CREATE INDEX idx_matches_team2 ON matches (team2_id);
+CREATE INDEX idx_archived_matches_team2 ON archived_matches (team2_id);
@@ -0,0 +1,3 @@
+-- Scoring format of each match (ScoringRules spec); every existing match was played indoors
+ALTER TABLE matches ADD COLUMN rule_set VARCHAR(32) NOT NULL DEFAULT 'indoor';
+ALTER TABLE archived_matches ADD COLUMN rule_set VARCHAR(32) NOT NULL DEFAULT 'indoor';
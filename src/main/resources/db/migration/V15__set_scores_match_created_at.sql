@@ -0,0 +1,5 @@
+-- Copy of the match's created_at on each set score: the partition key that keeps a
+-- match and its set scores in the same month partition on Postgres (see V16)
+ALTER TABLE set_scores ADD COLUMN match_created_at TIMESTAMP(6);
+UPDATE set_scores SET match_created_at = (SELECT m.created_at FROM matches m WHERE m.id = set_scores.match_id);
+ALTER TABLE set_scores ALTER COLUMN match_created_at SET NOT NULL;
@@ -0,0 +1,8 @@
+-- Tombstones: a deleted match is hidden from every read as soon as deleted_at is set,
+-- and removed later by MatchPurgeService in set-based chunks
+ALTER TABLE matches ADD COLUMN deleted_at TIMESTAMP(6);
+ALTER TABLE archived_matches ADD COLUMN deleted_at TIMESTAMP(6);
+
+-- MatchPurgeService: the oldest tombstones first
+CREATE INDEX idx_matches_deleted ON matches (deleted_at);
+CREATE INDEX idx_archived_matches_deleted ON archived_matches (deleted_at);
@@ -0,0 +1,15 @@
+-- Account deletions in progress: AccountPurgeService removes the account's rows in short
+-- chunks and keeps its progress here, so a purge picks up where it stopped after a restart
+CREATE TABLE account_purges (
+    id VARCHAR(36) NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    requested_at TIMESTAMP(6) NOT NULL,
+    matches_total BIGINT NOT NULL,
+    matches_purged BIGINT NOT NULL,
+    archived_total BIGINT NOT NULL,
+    archived_purged BIGINT NOT NULL,
+    completed_at TIMESTAMP(6)
+);
+
+CREATE UNIQUE INDEX uk_account_purges_user ON account_purges (user_id);
+CREATE INDEX idx_account_purges_completed ON account_purges (completed_at, requested_at);
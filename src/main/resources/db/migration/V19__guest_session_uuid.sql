@@ -0,0 +1,8 @@
+-- Guest session ids as native UUIDs (16 bytes) instead of their 36-character text form
+ALTER TABLE guest_sessions DROP CONSTRAINT uk_guest_sessions_session_id;
+ALTER TABLE guest_sessions ADD COLUMN session_uuid UUID;
+UPDATE guest_sessions SET session_uuid = CAST(session_id AS UUID);
+ALTER TABLE guest_sessions DROP COLUMN session_id;
+ALTER TABLE guest_sessions RENAME COLUMN session_uuid TO session_id;
+ALTER TABLE guest_sessions ALTER COLUMN session_id SET NOT NULL;
+ALTER TABLE guest_sessions ADD CONSTRAINT uk_guest_sessions_session_id UNIQUE (session_id);
@@ -0,0 +1,52 @@
+-- Baseline: the schema Hibernate generated with ddl-auto=update before migrations were introduced
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    user_type VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    last_login_at TIMESTAMP(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE guest_sessions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    session_id VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_guest_sessions_session_id UNIQUE (session_id)
+);
+
+CREATE TABLE matches (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    team1name VARCHAR(255) NOT NULL,
+    team2name VARCHAR(255) NOT NULL,
+    team1score INTEGER NOT NULL,
+    team2score INTEGER NOT NULL,
+    team1sets INTEGER NOT NULL,
+    team2sets INTEGER NOT NULL,
+    current_set INTEGER NOT NULL,
+    status VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    undo_used BOOLEAN,
+    previous_team1score INTEGER,
+    previous_team2score INTEGER,
+    last_scoring_team VARCHAR(255),
+    last_score_time TIMESTAMP(6),
+    user_id BIGINT,
+    guest_session_id BIGINT,
+    CONSTRAINT fk_matches_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_matches_guest_session FOREIGN KEY (guest_session_id) REFERENCES guest_sessions (id)
+);
+
+CREATE TABLE set_scores (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    set_number INTEGER NOT NULL,
+    team1points INTEGER NOT NULL,
+    team2points INTEGER NOT NULL,
+    match_id BIGINT NOT NULL,
+    CONSTRAINT fk_set_scores_match FOREIGN KEY (match_id) REFERENCES matches (id)
+);
@@ -0,0 +1,7 @@
+-- Deleted guest sessions whose tokens have not expired yet. GuestSessionService checks tokens
+-- against an in-memory copy; this table is where a node that starts later, or that missed
+-- the SESSION_REMOVED event, reads them from
+CREATE TABLE revoked_guest_sessions (
+    session_id UUID PRIMARY KEY,
+    expires_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,17 @@
+-- Archive tier and packed set scores. IF NOT EXISTS: databases baselined after
+-- these were added by ddl-auto=update already have them.
+
+CREATE TABLE IF NOT EXISTS archived_matches (
+    id BIGINT NOT NULL PRIMARY KEY,
+    team1name VARCHAR(255) NOT NULL,
+    team2name VARCHAR(255) NOT NULL,
+    team1sets INTEGER NOT NULL,
+    team2sets INTEGER NOT NULL,
+    packed_sets BYTEA NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    archived_at TIMESTAMP(6) NOT NULL
+);
+
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS packed_sets BYTEA;
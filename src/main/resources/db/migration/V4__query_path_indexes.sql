@@ -0,0 +1,24 @@
+-- Every match row has packed set scores from here on (see V3)
+ALTER TABLE matches ALTER COLUMN packed_sets SET NOT NULL;
+
+-- MatchRepository.findByUserIdOrderByCreatedAtDesc: equality on user, rows already in sort order
+CREATE INDEX idx_matches_user_created ON matches (user_id, created_at DESC);
+
+-- MatchRepository.findByGuestSessionIdOrderByCreatedAtDesc (after the session_id lookup)
+CREATE INDEX idx_matches_guest_created ON matches (guest_session_id, created_at DESC);
+
+-- MatchRepository.findByUserIdAndStatus / findByGuestSessionIdAndStatus (active matches)
+CREATE INDEX idx_matches_user_status ON matches (user_id, status);
+CREATE INDEX idx_matches_guest_status ON matches (guest_session_id, status);
+
+-- MatchArchiveService: completed matches in id order
+CREATE INDEX idx_matches_status_id ON matches (status, id);
+
+-- SetScoreRepository lookups by match (and set number); a match has each set once
+CREATE UNIQUE INDEX uk_set_scores_match_set ON set_scores (match_id, set_number);
+
+-- GuestSessionRepository.findExpiredSessions
+CREATE INDEX idx_guest_sessions_expires ON guest_sessions (expires_at);
+
+-- ArchivedMatchRepository.findByUserIdOrderByCreatedAtDesc
+CREATE INDEX idx_archived_matches_user_created ON archived_matches (user_id, created_at DESC);
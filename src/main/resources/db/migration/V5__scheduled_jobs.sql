@@ -0,0 +1,13 @@
+-- Bookkeeping for cluster-wide scheduled jobs: when each job last ran (so only one
+-- node runs it per interval, and a missed run is caught up) plus a lease that
+-- serves as the job lock on databases without advisory locks (H2).
+
+CREATE TABLE scheduled_jobs (
+    name VARCHAR(100) NOT NULL PRIMARY KEY,
+    last_started_at TIMESTAMP(6),
+    last_finished_at TIMESTAMP(6),
+    last_duration_ms BIGINT,
+    last_node VARCHAR(64),
+    locked_by VARCHAR(64),
+    locked_until TIMESTAMP(6)
+);
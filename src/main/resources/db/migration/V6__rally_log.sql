@@ -0,0 +1,5 @@
+-- Timestamped rally log with the momentum detector state in its header (see RallyLog).
+-- Null until a match records its first rally; archived matches keep theirs.
+
+ALTER TABLE matches ADD COLUMN rally_log BYTEA;
+ALTER TABLE archived_matches ADD COLUMN rally_log BYTEA;
@@ -0,0 +1,12 @@
+-- League-wide Elo ratings keyed by normalized team name. Each completed match
+-- remembers the rating change it applied, so a later result flip can undo it.
+
+CREATE TABLE team_ratings (
+    team_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    team_name VARCHAR(255) NOT NULL,
+    rating DOUBLE PRECISION NOT NULL,
+    matches_rated INTEGER NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+ALTER TABLE matches ADD COLUMN rating_delta DOUBLE PRECISION;
@@ -0,0 +1,4 @@
+-- Order-independent key of the two normalized team names (see TeamNames.pairKey),
+-- filled for existing rows by V9 and indexed by V10
+ALTER TABLE matches ADD COLUMN team_pair_key VARCHAR(511);
+ALTER TABLE archived_matches ADD COLUMN team_pair_key VARCHAR(511);
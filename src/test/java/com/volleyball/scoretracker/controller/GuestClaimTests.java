@@ -0,0 +1,142 @@
+package com.volleyball.scoretracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.volleyball.scoretracker.service.GuestSessionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.rateLimit.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GuestClaimTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Test
+    void claimMovesEveryGuestMatchAndTeamToTheUser() throws Exception {
+        String guestToken = guestSessionService.issueToken(guestSessionService.createGuestSession());
+        List<Long> matchIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            matchIds.add(createMatch(guest(post("/api/matches"), guestToken)));
+        }
+        long guestTeam1 = team1Id(matchIds.get(0));
+        for (int point = 0; point < 75; point++) {
+            mockMvc.perform(guest(put("/api/matches/" + matchIds.get(0) + "/score"), guestToken)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"team\":\"team1\"}"));
+        }
+
+        // Cached for the guest before the claim
+        mockMvc.perform(guest(get("/api/matches/" + matchIds.get(0)), guestToken)).andExpect(status().isOk());
+        mockMvc.perform(guest(get("/api/matches/analytics"), guestToken)).andExpect(jsonPath("$.length()").value(2));
+
+        String username = newUser();
+        String jwt = register(username, null).get("token").asText();
+        mockMvc.perform(post("/api/auth/claim-guest").header("Authorization", "Bearer " + jwt)
+                .header("Guest-Session-Id", guestToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.claimedMatches").value(3));
+
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        assertThat(owners(matchIds)).containsOnly(userId);
+        assertThat(guestSessions(matchIds)).containsOnlyNulls();
+
+        // The guest's cached entries went with MATCHES_CLAIMED
+        mockMvc.perform(guest(get("/api/matches/" + matchIds.get(0)), guestToken)).andExpect(status().isForbidden());
+        mockMvc.perform(guest(get("/api/matches/analytics"), guestToken)).andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/matches/analytics").header("Authorization", "Bearer " + jwt))
+            .andExpect(jsonPath("$[0].matchesPlayed").value(1));
+        mockMvc.perform(get("/api/matches/" + matchIds.get(0)).header("Authorization", "Bearer " + jwt))
+            .andExpect(status().isOk());
+
+        // The claimed teams are the user's now: the guest gets new ones, the user reuses them
+        long newGuestMatch = createMatch(guest(post("/api/matches"), guestToken));
+        assertThat(team1Id(newGuestMatch)).isNotEqualTo(guestTeam1);
+        long newUserMatch = createMatch(post("/api/matches").header("Authorization", "Bearer " + jwt));
+        assertThat(team1Id(newUserMatch)).isEqualTo(guestTeam1);
+    }
+
+    @Test
+    void registeringWithAGuestSessionClaimsItsMatches() throws Exception {
+        String guestToken = guestSessionService.issueToken(guestSessionService.createGuestSession());
+        long first = createMatch(guest(post("/api/matches"), guestToken));
+        long second = createMatch(guest(post("/api/matches"), guestToken));
+
+        String jwt = register(newUser(), guestToken).get("token").asText();
+
+        mockMvc.perform(get("/api/matches").header("Authorization", "Bearer " + jwt))
+            .andExpect(jsonPath("$.length()").value(2));
+        assertThat(guestSessions(List.of(first, second))).containsOnlyNulls();
+        mockMvc.perform(guest(get("/api/matches"), guestToken)).andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private long createMatch(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)
+                .content("{\"team1Name\":\"Home\",\"team2Name\":\"Away\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private List<Long> owners(List<Long> matchIds) {
+        return matchIds.stream()
+            .map(id -> jdbcTemplate.queryForObject("SELECT user_id FROM matches WHERE id = ?", Long.class, id))
+            .toList();
+    }
+
+    private List<Long> guestSessions(List<Long> matchIds) {
+        return matchIds.stream()
+            .map(id -> jdbcTemplate.queryForObject("SELECT guest_session_id FROM matches WHERE id = ?", Long.class, id))
+            .toList();
+    }
+
+    private long team1Id(long matchId) {
+        return jdbcTemplate.queryForObject("SELECT team1_id FROM matches WHERE id = ?", Long.class, matchId);
+    }
+
+    private JsonNode register(String username, String guestToken) throws Exception {
+        MockHttpServletRequestBuilder request = post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"secret1\"}");
+        if (guestToken != null) {
+            request.header("Guest-Session-Id", guestToken);
+        }
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static String newUser() {
+        return "claimer" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static MockHttpServletRequestBuilder guest(MockHttpServletRequestBuilder request, String token) {
+        return request.header("Guest-Session-Id", token);
+    }
+}
@@ -0,0 +1,109 @@
+package com.volleyball.scoretracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.volleyball.scoretracker.model.HeadToHead;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchFields;
+import com.volleyball.scoretracker.model.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+@SpringBootTest(properties = "app.rateLimit.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MatchFieldsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void allNamesEveryPropertyOfASerializedMatch() throws Exception {
+        Match match = new Match(new Team(null, null, "Spikers"), new Team(null, null, "Blockers"));
+        match.setHeadToHead(new HeadToHead("Spikers", "Blockers"));
+
+        Set<String> properties = new HashSet<>();
+        objectMapper.readTree(objectMapper.writeValueAsBytes(match)).fieldNames().forEachRemaining(properties::add);
+
+        assertThat(properties).isEqualTo(MatchFields.ALL);
+        assertThat(MatchFields.ALL).containsAll(MatchFields.SCOREBOARD);
+    }
+
+    @Test
+    void listsAndDetailWriteOnlyTheRequestedFields() throws Exception {
+        String token = json(mockMvc.perform(post("/api/guest/session"))
+            .andReturn().getResponse().getContentAsString()).get("sessionId").asText();
+        long kept = createMatch(token);
+        long deleted = createMatch(token);
+        mockMvc.perform(guest(put("/api/matches/" + kept + "/score"), token)
+            .contentType(MediaType.APPLICATION_JSON).content("{\"team\":\"team2\"}"));
+        mockMvc.perform(guest(delete("/api/matches/" + deleted), token));
+
+        // Scoreboard fields: served from the projection
+        for (String list : new String[] {"/api/matches", "/api/matches/active"}) {
+            JsonNode matches = json(read(list + "?fields=id,team1Score,team2Score,currentSet", token));
+            assertThat(matches).hasSize(1);
+            assertThat(names(matches.get(0))).containsExactlyInAnyOrder("id", "team1Score", "team2Score", "currentSet");
+            assertThat(matches.get(0).get("id").asLong()).isEqualTo(kept);
+            assertThat(matches.get(0).get("team2Score").asInt()).isEqualTo(1);
+        }
+
+        // A field outside the scoreboard: whole matches, still narrowed on the way out
+        JsonNode withSets = json(read("/api/matches?fields=id,sets", token)).get(0);
+        assertThat(names(withSets)).containsExactlyInAnyOrder("id", "sets");
+
+        JsonNode detail = json(read("/api/matches/" + kept + "?fields=team1Name,team2Score", token));
+        assertThat(names(detail)).containsExactlyInAnyOrder("team1Name", "team2Score");
+        assertThat(detail.get("team2Score").asInt()).isEqualTo(1);
+
+        // Without the parameter nothing changes
+        assertThat(names(json(read("/api/matches/" + kept, token)))).contains("sets", "momentum", "rules");
+
+        for (String path : new String[] {"/api/matches", "/api/matches/active", "/api/matches/" + kept}) {
+            assertThat(mockMvc.perform(guest(get(path + "?fields=id,password"), token))
+                .andReturn().getResponse().getStatus()).as(path).isEqualTo(400);
+        }
+    }
+
+    private long createMatch(String token) throws Exception {
+        return json(mockMvc.perform(guest(post("/api/matches"), token).contentType(MediaType.APPLICATION_JSON)
+            .content("{\"team1Name\":\"Spikers\",\"team2Name\":\"Blockers\"}"))
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private String read(String path, String token) throws Exception {
+        return mockMvc.perform(guest(get(path), token)).andReturn().getResponse().getContentAsString();
+    }
+
+    private static MockHttpServletRequestBuilder guest(MockHttpServletRequestBuilder request, String token) {
+        return request.header("Guest-Session-Id", token);
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+
+    private static Set<String> names(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
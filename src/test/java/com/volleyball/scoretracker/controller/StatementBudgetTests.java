@@ -0,0 +1,131 @@
+package com.volleyball.scoretracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// SQL statements and commits per endpoint, counted below the connection pool. A budget that is
+// exceeded fails the build: raise it only together with the change that needs the extra round trip.
+@SpringBootTest(properties = "app.rateLimit.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(StatementBudgetTests.CountingConfig.class)
+class StatementBudgetTests {
+
+    @TestConfiguration
+    static class CountingConfig {
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                        ? new StatementCountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void guestEndpointsStayWithinBudget() throws Exception {
+        // A signed token: nothing is stored until the first match
+        String sessionId = json(within("session", 0, 0, post("/api/guest/session"))).get("sessionId").asText();
+
+        // First match of the session with two new team names, in one transaction: the session row
+        // and each team are an insert plus a re-select
+        long matchId = json(within("create", 11, 1,
+            post("/api/matches").header("Guest-Session-Id", sessionId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"team1Name\":\"Spikers\",\"team2Name\":\"Blockers\"}"))).get("id").asLong();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/matches").header("Guest-Session-Id", sessionId)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"team1Name\":\"Spikers\",\"team2Name\":\"Diggers\"}"));
+        }
+
+        within("point", 2, 1, score(matchId, sessionId));
+        for (int i = 0; i < 23; i++) {
+            mockMvc.perform(score(matchId, sessionId));
+        }
+        // Set score row, match row and its packed sets in one commit
+        within("set-ending point", 3, 1, score(matchId, sessionId));
+        mockMvc.perform(score(matchId, sessionId));
+        within("undo", 2, 1, guest(put("/api/matches/" + matchId + "/undo"), sessionId));
+        mockMvc.perform(score(matchId, sessionId));
+        within("reset set", 2, 1, guest(put("/api/matches/" + matchId + "/reset-set"), sessionId));
+        within("edit score", 2, 1, guest(put("/api/matches/" + matchId + "/edit-score"), sessionId)
+            .contentType(MediaType.APPLICATION_JSON).content("{\"team1Score\":10,\"team2Score\":8}"));
+        within("edit set", 4, 1, guest(put("/api/matches/" + matchId + "/sets/1"), sessionId)
+            .contentType(MediaType.APPLICATION_JSON).content("{\"team1Points\":25,\"team2Points\":20}"));
+        within("pause", 2, 1, guest(put("/api/matches/" + matchId + "/pause"), sessionId));
+        mockMvc.perform(guest(put("/api/matches/" + matchId + "/pause"), sessionId));
+
+        within("get", 1, 1, guest(get("/api/matches/" + matchId), sessionId));
+        within("get cached", 0, 0, guest(get("/api/matches/" + matchId), sessionId));
+        within("get fields", 0, 0, guest(get("/api/matches/" + matchId + "?fields=team1Score,team2Score"), sessionId));
+        within("sets", 2, 1, guest(get("/api/matches/" + matchId + "/sets"), sessionId));
+        within("list", 1, 1, guest(get("/api/matches"), sessionId));
+        within("active", 1, 1, guest(get("/api/matches/active"), sessionId));
+        within("scoreboard list", 1, 1, guest(get("/api/matches?fields=id,team1Name,team2Name,team1Score,team2Score"), sessionId));
+        within("statistics", 1, 1, guest(get("/api/matches/statistics"), sessionId));
+        within("analytics", 1, 1, guest(get("/api/matches/analytics"), sessionId));
+        within("head-to-head", 1, 1, guest(get("/api/matches/head-to-head?team1=Spikers&team2=Diggers"), sessionId));
+        within("dashboard", 1, 1, guest(get("/api/matches/dashboard"), sessionId));
+
+        within("delete", 2, 1, guest(delete("/api/matches/" + matchId), sessionId));
+    }
+
+    private MockHttpServletRequestBuilder score(long matchId, String sessionId) {
+        return guest(put("/api/matches/" + matchId + "/score"), sessionId)
+            .contentType(MediaType.APPLICATION_JSON).content("{\"team\":\"team1\"}");
+    }
+
+    private static MockHttpServletRequestBuilder guest(MockHttpServletRequestBuilder request, String sessionId) {
+        return request.header("Guest-Session-Id", sessionId);
+    }
+
+    // Perform the request, which must succeed, with at most the given statements and commits
+    private MvcResult within(String endpoint, int maxStatements, int maxCommits, MockHttpServletRequestBuilder request)
+            throws Exception {
+        StatementCountingDataSource.start();
+        MvcResult result;
+        StatementCountingDataSource.Recording recording;
+        try {
+            result = mockMvc.perform(request).andReturn();
+        } finally {
+            recording = StatementCountingDataSource.stop();
+        }
+        assertThat(result.getResponse().getStatus()).as(endpoint).isBetween(200, 299);
+        assertThat(recording.statementCount()).as(endpoint + " issued " + recording).isLessThanOrEqualTo(maxStatements);
+        assertThat(recording.commits).as(endpoint + " issued " + recording).isLessThanOrEqualTo(maxCommits);
+        return result;
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
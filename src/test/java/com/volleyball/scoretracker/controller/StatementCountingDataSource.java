@@ -0,0 +1,100 @@
+package com.volleyball.scoretracker.controller;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Counts the SQL statements and commits issued by the recording thread, through any connection.
+// Other threads (scheduled jobs, the event bus) are not counted.
+class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<Recording> RECORDING = new ThreadLocal<>();
+
+    StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    static void start() {
+        RECORDING.set(new Recording());
+    }
+
+    static Recording stop() {
+        Recording recording = RECORDING.get();
+        RECORDING.remove();
+        return recording;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                Recording recording = RECORDING.get();
+                if (recording != null && method.getName().equals("commit")) {
+                    recording.commits++;
+                }
+                if (result instanceof Statement statement) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    return countingStatement(statement, sql);
+                }
+                return result;
+            });
+    }
+
+    private static Statement countingStatement(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+            : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        InvocationHandler handler = (proxy, method, args) -> {
+            Recording recording = RECORDING.get();
+            if (recording != null && method.getName().startsWith("execute")) {
+                // A batch is one round trip
+                recording.statements.add(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+            }
+            return invoke(statement, method, args);
+        };
+        return (Statement) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    static class Recording {
+        final List<String> statements = new ArrayList<>();
+        int commits;
+
+        int statementCount() {
+            return statements.size();
+        }
+
+        @Override
+        public String toString() {
+            return statements.size() + " statements, " + commits + " commits:\n  " + String.join("\n  ", statements);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.volleyball.scoretracker.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.volleyball.scoretracker.migration.V3__Backfill_packed_sets;
+import com.volleyball.scoretracker.migration.V9__Backfill_team_pair_keys;
+import com.volleyball.scoretracker.migration.V12__Backfill_teams;
+import com.volleyball.scoretracker.migration.V16__Partition_matches_by_month;
+import com.volleyball.scoretracker.migration.V21__Rebuild_team_ratings;
+import com.volleyball.scoretracker.dto.CourtState;
+import com.volleyball.scoretracker.dto.LeaderboardEntry;
+import com.volleyball.scoretracker.dto.TeamStatsResponse;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.GuestSession;
+import com.volleyball.scoretracker.model.PackedSetScores;
+import com.volleyball.scoretracker.service.DashboardService;
+import com.volleyball.scoretracker.service.GuestSessionService;
+import com.volleyball.scoretracker.service.MatchResponseCache;
+import com.volleyball.scoretracker.service.TeamAnalyticsService;
+import com.volleyball.scoretracker.service.TeamRatingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two separate in-memory H2 databases stand in for primary and replica. Nothing replicates
+// between them, so a row written through the primary is visible only where reads were routed there.
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReadWriteRoutingTests.PRIMARY_URL,
+    "app.datasource.replica.url=" + ReadWriteRoutingTests.REPLICA_URL,
+    "app.datasource.replica.stickyMs=60000",
+    "app.rateLimit.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadWriteRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private MatchResponseCache matchResponseCache;
+
+    @Autowired
+    private TeamAnalyticsService teamAnalyticsService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private TeamRatingService teamRatingService;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Autowired
+    private RecentWrites recentWrites;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+            .dataSource(REPLICA_URL, "sa", "")
+            .javaMigrations(new V3__Backfill_packed_sets(), new V9__Backfill_team_pair_keys(), new V12__Backfill_teams(),
+                new V16__Partition_matches_by_month(), new V21__Rebuild_team_ratings())
+            .load()
+            .migrate();
+    }
+
+    private static RequestPostProcessor from(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+
+    // A guest session is only stored with its first match, so the write is the match
+    private long createGuestMatch(String ip, String token) throws Exception {
+        String body = mockMvc.perform(post("/api/matches").with(from(ip)).header("Guest-Session-Id", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"team1Name\":\"Home\",\"team2Name\":\"Away\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private String newGuestToken() {
+        return guestSessionService.issueToken(guestSessionService.createGuestSession());
+    }
+
+    @Test
+    void writerReadsItsOwnWriteFromPrimary() throws Exception {
+        String token = newGuestToken();
+        createGuestMatch("10.0.0.1", token);
+
+        mockMvc.perform(get("/api/matches").with(from("10.0.0.1")).header("Guest-Session-Id", token))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void otherClientsReadFromReplica() throws Exception {
+        long matchId = createGuestMatch("10.0.0.2", newGuestToken());
+        double replicaCheckoutsBefore = replicaCheckouts();
+
+        // The replica never received the match: not found there, where the primary would refuse access.
+        // (Not the match itself: the response cache always loads from the primary)
+        mockMvc.perform(get("/api/matches/" + matchId + "/sets").with(from("10.0.0.3")).header("Guest-Session-Id", newGuestToken()))
+            .andExpect(status().isNotFound());
+        assertThat(replicaCheckouts()).isGreaterThan(replicaCheckoutsBefore);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() throws Exception {
+        createGuestMatch("10.0.0.4", newGuestToken());
+        String count = "SELECT COUNT(*) FROM guest_sessions";
+
+        Long onPrimary = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(count, Long.class));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        Long onReplica = readOnly.execute(status -> jdbcTemplate.queryForObject(count, Long.class));
+
+        assertThat(onPrimary).isPositive();
+        assertThat(onReplica).isEqualTo(replica().queryForObject(count, Long.class)).isLessThan(onPrimary);
+    }
+
+    @Test
+    void onlyVerifiedGuestSessionsAreRecordedAsWriters() throws Exception {
+        GuestSession victim = guestSessionService.createGuestSession();
+        String victimId = victim.getSessionId().toString();
+
+        // Raw session ids and made-up headers are not tokens: they add no key and pin nobody
+        for (String forged : List.of(victimId, "forged-" + UUID.randomUUID())) {
+            mockMvc.perform(post("/api/matches").with(from("10.0.0.8")).header("Guest-Session-Id", forged)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"team1Name\":\"Home\",\"team2Name\":\"Away\"}"));
+            assertThat(recentWrites.wroteRecently("guest:" + forged)).isFalse();
+        }
+        assertThat(recentWrites.wroteRecently("guest:" + victimId)).isFalse();
+
+        createGuestMatch("10.0.0.9", guestSessionService.issueToken(victim));
+        assertThat(recentWrites.wroteRecently("guest:" + victimId)).isTrue();
+    }
+
+    @Test
+    void recentWritesExpireAfterStickyWindow() throws InterruptedException {
+        RecentWrites recentWrites = new RecentWrites(50);
+        recentWrites.record("guest:abc");
+        assertThat(recentWrites.wroteRecently("guest:abc")).isTrue();
+        assertThat(recentWrites.wroteRecently("guest:other")).isFalse();
+
+        Thread.sleep(80);
+        assertThat(recentWrites.wroteRecently("guest:abc")).isFalse();
+        assertThat(recentWrites.evictExpired()).isEqualTo(1);
+    }
+
+    @Test
+    void laggingReplicaCannotFillTheMatchCacheAfterAnUpdate() throws Exception {
+        GuestSession session = guestSessionService.createGuestSession();
+        String token = guestSessionService.issueToken(session);
+        String sessionId = session.getSessionId().toString();
+        long matchId = createGuestMatch("10.0.0.6", token);
+        // The replica catches up with the new match, then falls behind again on the point scored next
+        replicate("guest_sessions", "teams", "matches");
+        mockMvc.perform(put("/api/matches/" + matchId + "/score").with(from("10.0.0.6")).header("Guest-Session-Id", token)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"team\":\"team1\"}"))
+            .andExpect(status().isOk());
+        assertThat(replica().queryForObject("SELECT team1score FROM matches WHERE id = ?", Integer.class, matchId)).isZero();
+
+        // The point invalidated the entry; the first reader after it is not pinned to the primary
+        DataSourceRouting.useReplicaForRequest();
+        byte[] json;
+        try {
+            json = matchResponseCache.getMatchJson(matchId, null, sessionId);
+        } finally {
+            DataSourceRouting.clear();
+        }
+        assertThat(objectMapper.readTree(json).get("team1Score").asInt()).isEqualTo(1);
+
+        // ...so what everyone is served next, the scorer included, is the new score
+        mockMvc.perform(get("/api/matches/" + matchId).with(from("10.0.0.6")).header("Guest-Session-Id", token))
+            .andExpect(jsonPath("$.team1Score").value(1));
+    }
+
+    @Test
+    void cachesRefilledAfterAnInvalidationReadThePrimary() throws Exception {
+        GuestSession session = guestSessionService.createGuestSession();
+        String sessionId = session.getSessionId().toString();
+        long matchId = createGuestMatch("10.0.0.7", guestSessionService.issueToken(session));
+        replicate("guest_sessions", "teams", "matches");
+        assertThat(onReplica(() -> dashboardService.getForGuest(sessionId, null)).getCourts()).hasSize(1);
+
+        // The match completes on the primary only; the replica still has it in progress
+        byte[] sets = PackedSetScores.withSet(PackedSetScores.withSet(PackedSetScores.withSet(
+            PackedSetScores.empty(), 1, 25, 20), 2, 25, 18), 3, 25, 22);
+        jdbcTemplate.update("UPDATE matches SET status = 'COMPLETED', team1score = 25, team1sets = 3, packed_sets = ?, " +
+            "last_score_time = ? WHERE id = ?", sets, LocalDateTime.now(), matchId);
+        eventBus.publish(ClusterEvent.Type.MATCH_UPDATED, String.valueOf(matchId));
+        eventBus.publish(ClusterEvent.Type.RESULTS_CHANGED, TeamAnalyticsService.guestOwner(sessionId));
+        Thread.sleep(300); // Past app.dashboard.refreshMs
+
+        List<TeamStatsResponse> stats = onReplica(() -> teamAnalyticsService.getTeamStatsForGuest(sessionId));
+        assertThat(stats).extracting(TeamStatsResponse::getMatchesPlayed).containsExactly(1, 1);
+        CourtState court = onReplica(() -> dashboardService.getForGuest(sessionId, null)).getCourts().get(0);
+        assertThat(court.getTeam1Score()).isEqualTo(25);
+
+        // A rating the replica has not received yet
+        jdbcTemplate.update("INSERT INTO team_ratings (team_key, team_name, rating, matches_rated, updated_at) " +
+            "VALUES ('routing champions', 'Routing Champions', 9000, 1, ?)", LocalDateTime.now());
+        onReplica(() -> {
+            eventBus.publish(ClusterEvent.Type.RATING_CHANGED, "routing champions");
+            return null;
+        });
+        assertThat(teamRatingService.getLeaderboard(1)).extracting(LeaderboardEntry::getTeam)
+            .containsExactly("Routing Champions");
+    }
+
+    // As in a GET from a client that has not written recently
+    private static <T> T onReplica(Supplier<T> read) {
+        DataSourceRouting.useReplicaForRequest();
+        try {
+            return read.get();
+        } finally {
+            DataSourceRouting.clear();
+        }
+    }
+
+    // Copies the tables' rows from the primary to the replica, replacing what the replica had
+    private void replicate(String... tables) {
+        JdbcTemplate replica = replica();
+        for (int i = tables.length - 1; i >= 0; i--) {
+            replica.update("DELETE FROM " + tables[i]);
+        }
+        for (String table : tables) {
+            for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT * FROM " + table)) {
+                List<String> columns = List.copyOf(row.keySet());
+                replica.update("INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" +
+                    String.join(", ", columns.stream().map(column -> "?").toList()) + ")", row.values().toArray());
+            }
+        }
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+
+    private double replicaCheckouts() {
+        return meterRegistry.get("datasource.routing.checkouts").tag("role", "replica").counter().count();
+    }
+}
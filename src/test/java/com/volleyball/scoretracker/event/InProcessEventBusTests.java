@@ -0,0 +1,83 @@
+package com.volleyball.scoretracker.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InProcessEventBusTests {
+
+    private final InProcessEventBus bus = new InProcessEventBus();
+    private final List<ClusterEvent> received = new ArrayList<>();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deliversPublishedEventsToEverySubscriber() {
+        List<ClusterEvent> other = new ArrayList<>();
+        bus.subscribe(received::add);
+        bus.subscribe(other::add);
+
+        bus.publish(ClusterEvent.Type.MATCH_UPDATED, "42");
+
+        assertThat(received).hasSize(1);
+        assertThat(other).hasSize(1);
+        assertThat(received.get(0).getType()).isEqualTo(ClusterEvent.Type.MATCH_UPDATED);
+        assertThat(received.get(0).getKey()).isEqualTo("42");
+        assertThat(received.get(0).getOrigin()).isEqualTo(bus.getNodeId());
+    }
+
+    @Test
+    void holdsEventsUntilTheTransactionCommits() {
+        bus.subscribe(received::add);
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.publish(ClusterEvent.Type.MATCH_DELETED, "7");
+        assertThat(received).isEmpty();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertThat(received).extracting(ClusterEvent::getKey).containsExactly("7");
+    }
+
+    @Test
+    void failingSubscriberDoesNotStopTheOthers() {
+        bus.subscribe(event -> {
+            throw new RuntimeException("boom");
+        });
+        bus.subscribe(received::add);
+
+        bus.publish(ClusterEvent.Type.SESSION_REMOVED, "abc");
+
+        assertThat(received).hasSize(1);
+    }
+
+    @Test
+    void encodesCompactlyAndDecodesBack() {
+        ClusterEvent event = new ClusterEvent(ClusterEvent.Type.MATCHES_CLAIMED, "5f1c-guest|id", "node1");
+
+        assertThat(event.encode()).isEqualTo("C|node1|5f1c-guest|id");
+        ClusterEvent decoded = ClusterEvent.decode(event.encode());
+        assertThat(decoded.getType()).isEqualTo(ClusterEvent.Type.MATCHES_CLAIMED);
+        assertThat(decoded.getOrigin()).isEqualTo("node1");
+        assertThat(decoded.getKey()).isEqualTo("5f1c-guest|id");
+    }
+
+    @Test
+    void rejectsMalformedPayloads() {
+        assertThatThrownBy(() -> ClusterEvent.decode("garbage")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ClusterEvent.decode("Z|node|1")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
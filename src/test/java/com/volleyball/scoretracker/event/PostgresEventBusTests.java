@@ -0,0 +1,88 @@
+package com.volleyball.scoretracker.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two "nodes" sharing one local Postgres, e.g.
+// TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/volleyball_tracker TEST_POSTGRES_USER=... TEST_POSTGRES_PASSWORD=...
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+class PostgresEventBusTests {
+
+    private final String url = System.getenv("TEST_POSTGRES_URL");
+    private final String username = System.getenv().getOrDefault("TEST_POSTGRES_USER", "postgres");
+    private final String password = System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "");
+
+    private DriverManagerDataSource dataSource;
+    private PostgresEventBus nodeA;
+    private PostgresEventBus nodeB;
+    private final List<ClusterEvent> receivedByA = new CopyOnWriteArrayList<>();
+    private final List<ClusterEvent> receivedByB = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startNodes() throws InterruptedException {
+        dataSource = new DriverManagerDataSource(url, username, password);
+        nodeA = new PostgresEventBus(new JdbcTemplate(dataSource), url, username, password, 50, 100);
+        nodeB = new PostgresEventBus(new JdbcTemplate(dataSource), url, username, password, 50, 100);
+        nodeA.subscribe(receivedByA::add);
+        nodeB.subscribe(receivedByB::add);
+        nodeA.start();
+        nodeB.start();
+        waitUntil(() -> nodeA.isListening() && nodeB.isListening());
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    @Test
+    void eventReachesOtherNodeAndPublisherExactlyOnce() throws InterruptedException {
+        nodeA.publish(ClusterEvent.Type.MATCH_UPDATED, "17");
+
+        waitUntil(() -> !receivedByB.isEmpty());
+        assertThat(receivedByB).extracting(ClusterEvent::getKey).containsExactly("17");
+        assertThat(receivedByB.get(0).getOrigin()).isEqualTo(nodeA.getNodeId());
+
+        // The publisher got it locally and ignores its own notification
+        Thread.sleep(300);
+        assertThat(receivedByA).extracting(ClusterEvent::getKey).containsExactly("17");
+    }
+
+    @Test
+    void rolledBackTransactionSendsNothing() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.executeWithoutResult(status -> {
+            nodeA.publish(ClusterEvent.Type.MATCH_DELETED, "rolled-back");
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> nodeA.publish(ClusterEvent.Type.MATCH_DELETED, "committed"));
+
+        waitUntil(() -> !receivedByB.isEmpty());
+        Thread.sleep(300);
+        assertThat(receivedByB).extracting(ClusterEvent::getKey).containsExactly("committed");
+        assertThat(receivedByA).extracting(ClusterEvent::getKey).containsExactly("committed");
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for event delivery");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.volleyball.scoretracker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PackedSetScoresTests {
+
+    @Test
+    void packedSetsUnpackToTheSameScores() {
+        List<SetScore> sets = List.of(new SetScore(1, 25, 23, null), new SetScore(2, 18, 25, null),
+            new SetScore(3, 30, 28, null), new SetScore(4, 23, 25, null), new SetScore(5, 15, 9, null));
+        byte[] packed = PackedSetScores.pack(sets);
+
+        assertThat(packed).hasSize(PackedSetScores.WIDTH);
+        assertThat(PackedSetScores.setCount(packed)).isEqualTo(5);
+        assertThat(PackedSetScores.unpack(packed, null))
+            .extracting(SetScore::getSetNumber, SetScore::getTeam1Points, SetScore::getTeam2Points)
+            .containsExactly(tuple(1, 25, 23), tuple(2, 18, 25), tuple(3, 30, 28), tuple(4, 23, 25), tuple(5, 15, 9));
+    }
+
+    @Test
+    void setCountStopsAtTheFirstUnplayedSet() {
+        assertThat(PackedSetScores.setCount(null)).isZero();
+        assertThat(PackedSetScores.setCount(PackedSetScores.empty())).isZero();
+
+        byte[] twoSets = PackedSetScores.withSet(PackedSetScores.withSet(null, 1, 25, 20), 2, 0, 25);
+        assertThat(PackedSetScores.setCount(twoSets)).isEqualTo(2);
+        assertThat(PackedSetScores.unpack(twoSets, null)).hasSize(2);
+    }
+
+    @Test
+    void scoresUpToMaxPointsRoundTripWithoutSignErrors() {
+        byte[] packed = PackedSetScores.withSet(null, PackedSetScores.MAX_SETS, PackedSetScores.MAX_POINTS, 128);
+
+        assertThat(PackedSetScores.team1Points(packed, PackedSetScores.MAX_SETS)).isEqualTo(PackedSetScores.MAX_POINTS);
+        assertThat(PackedSetScores.team2Points(packed, PackedSetScores.MAX_SETS)).isEqualTo(128);
+    }
+
+    @Test
+    void outOfRangeSetsAndScoresFailWithoutTouchingTheInput() {
+        byte[] packed = PackedSetScores.withSet(null, 1, 25, 23);
+        byte[] before = packed.clone();
+
+        assertThatThrownBy(() -> PackedSetScores.withSet(packed, 0, 25, 23))
+            .hasMessage("Invalid set number 0");
+        assertThatThrownBy(() -> PackedSetScores.withSet(packed, PackedSetScores.MAX_SETS + 1, 25, 23))
+            .hasMessage("Invalid set number 6");
+        // A deuce that ran past one byte per team
+        assertThatThrownBy(() -> PackedSetScores.withSet(packed, 2, PackedSetScores.MAX_POINTS + 1, 254))
+            .hasMessage("Set score out of range for set 2");
+        assertThatThrownBy(() -> PackedSetScores.withSet(packed, 2, -1, 25))
+            .hasMessage("Set score out of range for set 2");
+        assertThat(packed).isEqualTo(before);
+
+        // withSet always returns a copy
+        byte[] next = PackedSetScores.withSet(packed, 2, 20, 25);
+        assertThat(packed).isEqualTo(before);
+        assertThat(PackedSetScores.setCount(next)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,67 @@
+package com.volleyball.scoretracker.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RallyLogTests {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void tracksRunsAndPaceAsRalliesArrive() {
+        byte[] log = null;
+        log = RallyLog.append(log, 1, false, START);
+        log = RallyLog.append(log, 1, false, START + 20_000);
+        log = RallyLog.append(log, 1, false, START + 40_000);
+        log = RallyLog.append(log, 1, true, START + 70_000);
+
+        Momentum momentum = RallyLog.momentum(log);
+        assertThat(momentum.getRallies()).isEqualTo(4);
+        assertThat(momentum.getCurrentRunTeam()).isEqualTo("team2");
+        assertThat(momentum.getCurrentRun()).isEqualTo(1);
+        assertThat(momentum.getLongestRunTeam1()).isEqualTo(3);
+        assertThat(momentum.getLongestRunTeam2()).isEqualTo(1);
+        assertThat(momentum.getAverageRallySeconds()).isEqualTo(23.3);
+        assertThat(momentum.getLastRallySeconds()).isEqualTo(30.0);
+        assertThat(momentum.getLastRallyAt()).isEqualTo(START + 70_000);
+        assertThat(log).hasSize(RallyLog.HEADER + 4 * RallyLog.ENTRY);
+    }
+
+    @Test
+    void runsAndSetPaceRestartWithEachSet() {
+        byte[] log = null;
+        log = RallyLog.append(log, 1, true, START);
+        log = RallyLog.append(log, 1, true, START + 10_000);
+        // Set break: five minutes that must not count towards pace
+        log = RallyLog.append(log, 2, true, START + 310_000);
+        log = RallyLog.append(log, 2, false, START + 330_000);
+
+        Momentum momentum = RallyLog.momentum(log);
+        assertThat(momentum.getCurrentRunTeam()).isEqualTo("team1");
+        assertThat(momentum.getLongestRunTeam2()).isEqualTo(2);
+        assertThat(momentum.getAverageRallySeconds()).isEqualTo(15.0);
+        assertThat(momentum.getSetAverageRallySeconds()).isEqualTo(20.0);
+        assertThat(RallyLog.setNumber(log, 2)).isEqualTo(2);
+        assertThat(RallyLog.team2Won(log, 3)).isFalse();
+    }
+
+    @Test
+    void undoAndResetRebuildTheDetectorState() {
+        byte[] log = null;
+        log = RallyLog.append(log, 1, false, START);
+        log = RallyLog.append(log, 1, true, START + 15_000);
+        log = RallyLog.append(log, 1, true, START + 30_000);
+
+        byte[] undone = RallyLog.withoutLastRally(log);
+        assertThat(RallyLog.rallyCount(undone)).isEqualTo(2);
+        assertThat(RallyLog.momentum(undone).getLongestRunTeam2()).isEqualTo(1);
+        assertThat(RallyLog.momentum(undone).getLastRallyAt()).isEqualTo(START + 15_000);
+
+        byte[] fifthSet = RallyLog.append(log, 5, false, START + 600_000);
+        byte[] reset = RallyLog.withoutSet(fifthSet, 5);
+        assertThat(reset).isEqualTo(log);
+        assertThat(RallyLog.withoutSet(log, 1)).isNull();
+        assertThat(RallyLog.momentum(null).getRallies()).isZero();
+    }
+}
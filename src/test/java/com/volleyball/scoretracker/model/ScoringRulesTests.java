@@ -0,0 +1,53 @@
+package com.volleyball.scoretracker.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoringRulesTests {
+
+    @Test
+    void indoorAndBeachUseTheirOwnTargetsAndDecidingSet() {
+        ScoringRules indoor = ScoringRules.INDOOR;
+        assertThat(indoor.isSetWon(1, 25, 23)).isTrue();
+        assertThat(indoor.isSetWon(1, 25, 24)).isFalse();
+        assertThat(indoor.isSetWon(4, 24, 26)).isTrue();
+        assertThat(indoor.isSetWon(5, 15, 13)).isTrue();
+        assertThat(indoor.isMatchWon(2, 2)).isFalse();
+        assertThat(indoor.isMatchWon(3, 1)).isTrue();
+
+        ScoringRules beach = ScoringRules.BEACH;
+        assertThat(beach.isSetWon(1, 21, 19)).isTrue();
+        assertThat(beach.isSetWon(2, 21, 20)).isFalse();
+        // Set 3 is the deciding set in a best of 3
+        assertThat(beach.isSetWon(3, 15, 12)).isTrue();
+        assertThat(beach.isMatchWon(2, 0)).isTrue();
+        assertThat(beach.isMatchWon(1, 1)).isFalse();
+    }
+
+    @Test
+    void customRulesRoundTripThroughTheirSpec() {
+        ScoringRules rules = ScoringRules.custom(11, 7, 1, 5);
+        assertThat(rules.toSpec()).isEqualTo("custom:11/7/1/5");
+        assertThat(rules.isSetWon(1, 11, 10)).isTrue();
+        assertThat(rules.isSetWon(5, 7, 6)).isTrue();
+
+        ScoringRules loaded = ScoringRules.fromSpec(rules.toSpec());
+        assertThat(loaded.getName()).isEqualTo("custom");
+        assertThat(loaded.getSetPoints()).isEqualTo(11);
+        assertThat(loaded.getBestOf()).isEqualTo(5);
+
+        // Custom parameters that match a built-in format are that format
+        assertThat(ScoringRules.custom(21, 15, 2, 3)).isSameAs(ScoringRules.BEACH);
+        assertThat(ScoringRules.fromSpec(" Beach ")).isSameAs(ScoringRules.BEACH);
+    }
+
+    @Test
+    void rejectsFormatsAMatchCannotStore() {
+        assertThatThrownBy(() -> ScoringRules.custom(25, 15, 2, 7)).hasMessageContaining("Best of");
+        assertThatThrownBy(() -> ScoringRules.custom(25, 15, 2, 4)).hasMessageContaining("Best of");
+        assertThatThrownBy(() -> ScoringRules.custom(300, 15, 2, 5)).hasMessageContaining("Set points");
+        assertThatThrownBy(() -> ScoringRules.fromSpec("snow")).hasMessageContaining("Unknown rule set");
+    }
+}
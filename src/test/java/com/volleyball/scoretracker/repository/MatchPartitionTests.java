@@ -0,0 +1,168 @@
+package com.volleyball.scoretracker.repository;
+
+import com.volleyball.scoretracker.migration.V12__Backfill_teams;
+import com.volleyball.scoretracker.migration.V16__Partition_matches_by_month;
+import com.volleyball.scoretracker.migration.V21__Rebuild_team_ratings;
+import com.volleyball.scoretracker.migration.V3__Backfill_packed_sets;
+import com.volleyball.scoretracker.migration.V9__Backfill_team_pair_keys;
+import com.volleyball.scoretracker.model.PackedSetScores;
+import com.volleyball.scoretracker.service.MatchPartitionService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Monthly partitions on a real Postgres, in their own schema (cleaned before each test), e.g.
+// TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/volleyball_tracker TEST_POSTGRES_USER=... TEST_POSTGRES_PASSWORD=...
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+class MatchPartitionTests {
+
+    private static final String SCHEMA = "partition_tests";
+
+    private final String url = System.getenv("TEST_POSTGRES_URL");
+    private final String username = System.getenv().getOrDefault("TEST_POSTGRES_USER", "postgres");
+    private final String password = System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "");
+
+    private final YearMonth current = YearMonth.now();
+    private final YearMonth old = current.minusMonths(3);
+
+    private JdbcTemplate jdbcTemplate;
+    private MatchPartitionService partitions;
+    private long userId;
+    private long team1Id;
+    private long team2Id;
+
+    @BeforeEach
+    void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA, username, password);
+        Flyway flyway = Flyway.configure()
+            .dataSource(dataSource)
+            .schemas(SCHEMA)
+            .cleanDisabled(false)
+            .javaMigrations(new V3__Backfill_packed_sets(), new V9__Backfill_team_pair_keys(), new V12__Backfill_teams(),
+                new V16__Partition_matches_by_month(), new V21__Rebuild_team_ratings())
+            .load();
+        flyway.clean();
+        flyway.migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        partitions = new MatchPartitionService(dataSource, new DataSourceTransactionManager(dataSource), 4, 5000);
+
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (username, email, password, created_at) " +
+            "VALUES ('coach', 'coach@example.com', 'x', now()) RETURNING id", Long.class);
+        team1Id = insertTeam("Spikers");
+        team2Id = insertTeam("Blockers");
+    }
+
+    @Test
+    void partitionsAreCreatedAheadAndQueriesPrune() {
+        assertThat(partitions.isPartitioned()).isTrue();
+        assertThat(partitions.createUpcomingPartitions()).isEqualTo(1);
+        assertThat(partitions.partitionMonths()).contains(current, current.plusMonths(4));
+
+        long match = insertMatch("IN_PROGRESS", MatchPartitions.start(current).plusDays(1));
+
+        // A month range reads that month's partition only
+        String plan = explain("SELECT id FROM matches WHERE user_id = " + userId +
+            " AND created_at >= '" + MatchPartitions.start(current) + "' AND created_at < '" + MatchPartitions.end(current) + "'");
+        assertThat(plan).contains("on " + MatchPartitions.name("matches", current))
+            .doesNotContain("on " + MatchPartitions.name("matches", current.plusMonths(1)))
+            .doesNotContain("on matches_default");
+
+        // SetScoreRepository lookups pass the match's created_at
+        plan = explain("SELECT id FROM set_scores WHERE match_id = " + match +
+            " AND match_created_at = '" + MatchPartitions.start(current).plusDays(1) + "'");
+        assertThat(plan).contains("on " + MatchPartitions.name("set_scores", current))
+            .doesNotContain("on " + MatchPartitions.name("set_scores", current.plusMonths(1)));
+
+        // MatchRepository.findArchivableMatchIds with partitions: the default partition only
+        plan = explain("SELECT id FROM matches WHERE status = 'COMPLETED' AND user_id IS NOT NULL " +
+            "AND COALESCE(last_score_time, created_at) < now() AND created_at < '" + partitions.firstPartitionStart() + "'");
+        assertThat(plan).contains("on matches_default")
+            .doesNotContain("on " + MatchPartitions.name("matches", current));
+    }
+
+    @Test
+    void expiredMonthIsArchivedAndDroppedWhole() {
+        jdbcTemplate.execute(MatchPartitions.createSql("matches", old));
+        jdbcTemplate.execute(MatchPartitions.createSql("set_scores", old));
+        LocalDateTime oldCreatedAt = MatchPartitions.start(old).plusDays(3);
+        long completed = insertMatch("COMPLETED", oldCreatedAt);
+        long unfinished = insertMatch("PAUSED", oldCreatedAt.plusHours(1));
+        insertSetScore(completed, oldCreatedAt);
+        insertSetScore(unfinished, oldCreatedAt.plusHours(1));
+        long recent = insertMatch("COMPLETED", LocalDateTime.now());
+
+        assertThat(partitions.retireExpiredPartitions(LocalDateTime.now())).isEqualTo(1);
+
+        assertThat(partitions.partitionMonths()).doesNotContain(old).contains(current);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class,
+            MatchPartitions.name("matches", old))).isTrue();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM archived_matches", Long.class)).containsExactly(completed);
+        // The unfinished match and its set score stay hot, in the default partitions
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM matches_default", Long.class)).containsExactly(unfinished);
+        assertThat(jdbcTemplate.queryForList("SELECT match_id FROM set_scores", Long.class)).containsExactly(unfinished);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM matches ORDER BY id", Long.class))
+            .containsExactly(unfinished, recent);
+    }
+
+    @Test
+    void writesBetweenTheCopyAndTheDetachReachTheArchive() {
+        jdbcTemplate.execute(MatchPartitions.createSql("matches", old));
+        jdbcTemplate.execute(MatchPartitions.createSql("set_scores", old));
+        LocalDateTime oldCreatedAt = MatchPartitions.start(old).plusDays(3);
+        long edited = insertMatch("COMPLETED", oldCreatedAt);
+        long unchanged = insertMatch("COMPLETED", oldCreatedAt.plusHours(1));
+        // Copied by an earlier attempt, then the first match was corrected on the hot row
+        for (long id : new long[] {edited, unchanged}) {
+            jdbcTemplate.update("INSERT INTO archived_matches (id, team1_id, team2_id, rule_set, team1sets, team2sets, " +
+                "packed_sets, user_id, created_at, completed_at, archived_at) SELECT id, team1_id, team2_id, rule_set, " +
+                "team1sets, team2sets, packed_sets, user_id, created_at, last_score_time, ? FROM matches WHERE id = ?",
+                oldCreatedAt, id);
+        }
+        jdbcTemplate.update("UPDATE matches SET team1sets = 3, last_score_time = ? WHERE id = ?",
+            oldCreatedAt.plusMinutes(90), edited);
+
+        assertThat(partitions.retireExpiredPartitions(LocalDateTime.now())).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT team1sets FROM archived_matches WHERE id = ?", Integer.class, edited))
+            .isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT completed_at FROM archived_matches WHERE id = ?",
+            LocalDateTime.class, edited)).isEqualTo(oldCreatedAt.plusMinutes(90));
+        // A refresh keeps the time the match was first archived
+        assertThat(jdbcTemplate.queryForList("SELECT archived_at FROM archived_matches ORDER BY id", LocalDateTime.class))
+            .containsOnly(oldCreatedAt);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM archived_matches ORDER BY id", Long.class))
+            .containsExactly(edited, unchanged);
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toLowerCase();
+    }
+
+    private long insertTeam(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO teams (user_id, name, normalized_name, created_at) " +
+            "VALUES (?, ?, ?, now()) RETURNING id", Long.class, userId, name, name.toLowerCase());
+    }
+
+    private long insertMatch(String status, LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject("INSERT INTO matches (team1_id, team2_id, team1score, team2score, team1sets, " +
+            "team2sets, current_set, status, created_at, last_score_time, packed_sets, user_id) " +
+            "VALUES (?, ?, 0, 0, 0, 0, 1, ?, ?, ?, ?, ?) RETURNING id", Long.class,
+            team1Id, team2Id, status, createdAt, createdAt, PackedSetScores.empty(), userId);
+    }
+
+    private void insertSetScore(long matchId, LocalDateTime matchCreatedAt) {
+        jdbcTemplate.update("INSERT INTO set_scores (set_number, team1points, team2points, match_id, match_created_at) " +
+            "VALUES (1, 25, 20, ?, ?)", matchId, matchCreatedAt);
+    }
+}
@@ -0,0 +1,95 @@
+package com.volleyball.scoretracker.repository;
+
+import com.volleyball.scoretracker.migration.V3__Backfill_packed_sets;
+import com.volleyball.scoretracker.migration.V9__Backfill_team_pair_keys;
+import com.volleyball.scoretracker.migration.V12__Backfill_teams;
+import com.volleyball.scoretracker.migration.V16__Partition_matches_by_month;
+import com.volleyball.scoretracker.migration.V21__Rebuild_team_ratings;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// EXPLAIN the SQL behind the hot repository queries and check the intended index is used
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({V3__Backfill_packed_sets.class, V9__Backfill_team_pair_keys.class, V12__Backfill_teams.class,
+         V16__Partition_matches_by_month.class, V21__Rebuild_team_ratings.class}) // Java migrations are beans, which the JPA slice does not scan
+class QueryPlanTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toLowerCase();
+    }
+
+    @Test
+    void matchesForUserUseUserCreatedIndex() {
+        String plan = explain("SELECT m.id FROM matches m WHERE m.user_id = 1 ORDER BY m.created_at DESC");
+        assertThat(plan).contains("idx_matches_user_created");
+    }
+
+    @Test
+    void matchesForGuestUseSessionLookupAndGuestCreatedIndex() {
+        String plan = explain("SELECT m.id FROM matches m JOIN guest_sessions g ON g.id = m.guest_session_id " +
+                              "WHERE g.session_id = '01928c7a-3f00-7000-8000-000000000000' ORDER BY m.created_at DESC");
+        assertThat(plan).contains("uk_guest_sessions_session_id");
+        assertThat(plan).contains("idx_matches_guest_created");
+    }
+
+    @Test
+    void activeMatchesForUserUseUserStatusIndex() {
+        String plan = explain("SELECT m.id FROM matches m WHERE m.user_id = 1 AND m.status = 'IN_PROGRESS'");
+        assertThat(plan).contains("idx_matches_user_status");
+    }
+
+    @Test
+    void activeMatchesForGuestUseGuestStatusIndex() {
+        String plan = explain("SELECT m.id FROM matches m JOIN guest_sessions g ON g.id = m.guest_session_id " +
+                              "WHERE g.session_id = '01928c7a-3f00-7000-8000-000000000000' AND m.status = 'IN_PROGRESS'");
+        assertThat(plan).contains("idx_matches_guest_status");
+    }
+
+    @Test
+    void setScoresByMatchUseMatchSetIndex() {
+        String plan = explain("SELECT s.id FROM set_scores s WHERE s.match_id = 1 ORDER BY s.set_number");
+        assertThat(plan).contains("uk_set_scores_match_set");
+    }
+
+    @Test
+    void expiredGuestSessionsUseExpiresIndex() {
+        String plan = explain("SELECT g.id FROM guest_sessions g WHERE g.expires_at < TIMESTAMP '2026-01-01 00:00:00'");
+        assertThat(plan).contains("idx_guest_sessions_expires");
+    }
+
+    @Test
+    void archivedMatchesForUserUseUserCreatedIndex() {
+        String plan = explain("SELECT a.id FROM archived_matches a WHERE a.user_id = 1 ORDER BY a.created_at DESC");
+        assertThat(plan).contains("idx_archived_matches_user_created");
+    }
+
+    @Test
+    void headToHeadUsesTeamPairIndexes() {
+        String plan = explain("SELECT m.id FROM matches m WHERE m.team1_id IN (1, 2) AND m.team2_id IN (1, 2) " +
+                              "AND m.status = 'COMPLETED'");
+        assertThat(plan).contains("idx_matches_team_pair");
+        plan = explain("SELECT a.id FROM archived_matches a WHERE a.team1_id IN (1, 2) AND a.team2_id IN (1, 2)");
+        assertThat(plan).contains("idx_archived_matches_team_pair");
+    }
+
+    @Test
+    void teamLookupsUseOwnerNameIndexes() {
+        String plan = explain("SELECT t.id FROM teams t WHERE t.user_id = 1 AND t.normalized_name = 'a'");
+        assertThat(plan).contains("uk_teams_user_name");
+        plan = explain("SELECT t.id FROM teams t JOIN guest_sessions g ON g.id = t.guest_session_id " +
+                       "WHERE g.session_id = '01928c7a-3f00-7000-8000-000000000000' AND t.normalized_name = 'a'");
+        assertThat(plan).contains("uk_teams_guest_name");
+    }
+}
@@ -0,0 +1,177 @@
+package com.volleyball.scoretracker.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two runners on the same database play two nodes
+@SpringBootTest
+@ActiveProfiles("test")
+class ClusterJobRunnerTests {
+
+    private static final Duration HOURLY = Duration.ofHours(1);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final MeterRegistry metricsA = new SimpleMeterRegistry();
+    private final MeterRegistry metricsB = new SimpleMeterRegistry();
+    private ClusterJobRunner nodeA;
+    private ClusterJobRunner nodeB;
+    private String job;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void createNodes() {
+        nodeA = new ClusterJobRunner(dataSource, dataSourceProperties, metricsA, 60000, 0, 60000, 2);
+        nodeB = new ClusterJobRunner(dataSource, dataSourceProperties, metricsB, 60000, 0, 60000, 2);
+        job = "test-" + UUID.randomUUID();
+    }
+
+    @Test
+    void onlyOneNodeRunsPerInterval() {
+        assertThat(nodeA.runIfDue(job, HOURLY, runs::incrementAndGet)).isTrue();
+        assertThat(nodeB.runIfDue(job, HOURLY, runs::incrementAndGet)).isFalse();
+        assertThat(nodeA.runIfDue(job, HOURLY, runs::incrementAndGet)).isFalse();
+
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(metricsB.get("jobs.skipped").tag("reason", "not_due").counter().count()).isEqualTo(1);
+        assertThat(metricsA.get("jobs.run").tag("job", job).tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void nodeSkipsJobWhileAnotherNodeIsRunningIt() {
+        boolean[] nestedRan = new boolean[1];
+        nodeA.runIfDue(job, HOURLY, () -> nestedRan[0] = nodeB.runIfDue(job, Duration.ZERO, runs::incrementAndGet));
+
+        assertThat(nestedRan[0]).isFalse();
+        assertThat(runs.get()).isZero();
+        assertThat(metricsB.get("jobs.skipped").tag("reason", "locked").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void submittedJobRunsOffTheCallingThreadAndIsNotQueuedTwice() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread[] ranOn = new Thread[1];
+        Runnable slowJob = () -> {
+            ranOn[0] = Thread.currentThread();
+            runs.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        nodeA.submitIfDue(job, Duration.ZERO, slowJob);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // Still running here: the next tick returns without queueing another attempt
+        nodeA.submitIfDue(job, Duration.ZERO, slowJob);
+        release.countDown();
+
+        assertThat(ranOn[0]).isNotEqualTo(Thread.currentThread());
+        assertThat(ranOn[0].getName()).startsWith("cluster-job-");
+        nodeA.shutdown();
+        assertThat(nodeA.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    void missedRunIsCaughtUpByAnyNode() {
+        nodeA.runIfDue(job, HOURLY, runs::incrementAndGet);
+        // Node A went down and nobody ran the job for three hours
+        jdbcTemplate.update("UPDATE scheduled_jobs SET last_finished_at = ? WHERE name = ?",
+            LocalDateTime.now().minusHours(3), job);
+
+        assertThat(nodeB.runIfDue(job, HOURLY, runs::incrementAndGet)).isTrue();
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(metricsB.get("jobs.catchup").tag("job", job).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRunIsRetriedOnNextTick() {
+        assertThat(nodeA.runIfDue(job, HOURLY, () -> {
+            throw new RuntimeException("database hiccup");
+        })).isFalse();
+
+        assertThat(nodeB.runIfDue(job, HOURLY, runs::incrementAndGet)).isTrue();
+        assertThat(metricsA.get("jobs.run").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void abandonedLeaseExpires() throws InterruptedException {
+        nodeA.runIfDue(job, HOURLY, runs::incrementAndGet);
+        LeaseJobLock crashedNode = new LeaseJobLock(jdbcTemplate, "crashed", 50);
+        LeaseJobLock survivor = new LeaseJobLock(jdbcTemplate, "survivor", 50);
+
+        assertThat(crashedNode.tryAcquire(job)).isNotNull();
+        assertThat(survivor.tryAcquire(job)).isNull();
+        Thread.sleep(80);
+        assertThat(survivor.tryAcquire(job)).isNotNull();
+    }
+
+    // TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/... (see PostgresEventBusTests)
+    @Test
+    @EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+    void postgresAdvisoryLockIsExclusiveUntilReleased() {
+        AdvisoryJobLock lockA = postgresLock();
+        AdvisoryJobLock lockB = postgresLock();
+
+        JobLock.Lease lease = lockA.tryAcquire(job);
+        assertThat(lease).isNotNull();
+        assertThat(lockB.tryAcquire(job)).isNull();
+        lease.close();
+
+        JobLock.Lease second = lockB.tryAcquire(job);
+        assertThat(second).isNotNull();
+        second.close();
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+    void leaseHoldsAConnectionOfItsOwnUntilClosed() {
+        JdbcTemplate postgres = new JdbcTemplate(new DriverManagerDataSource(System.getenv("TEST_POSTGRES_URL"),
+            System.getenv().getOrDefault("TEST_POSTGRES_USER", "postgres"),
+            System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "")));
+        String holders = "SELECT COUNT(*) FROM pg_locks l JOIN pg_stat_activity a ON a.pid = l.pid " +
+            "WHERE l.locktype = 'advisory' AND l.classid::int = ? AND l.objid::bigint = ? AND a.state = 'idle in transaction'";
+        long key = Integer.toUnsignedLong(job.hashCode());
+
+        JobLock.Lease lease = postgresLock().tryAcquire(job);
+        assertThat(postgres.queryForObject(holders, Integer.class, AdvisoryJobLock.LOCK_NAMESPACE, key)).isEqualTo(1);
+        lease.close();
+        assertThat(postgres.queryForObject(holders, Integer.class, AdvisoryJobLock.LOCK_NAMESPACE, key)).isZero();
+    }
+
+    private static AdvisoryJobLock postgresLock() {
+        return new AdvisoryJobLock(System.getenv("TEST_POSTGRES_URL"),
+            System.getenv().getOrDefault("TEST_POSTGRES_USER", "postgres"),
+            System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", ""));
+    }
+}
@@ -0,0 +1,76 @@
+package com.volleyball.scoretracker.security;
+
+import com.volleyball.scoretracker.security.AdaptiveConcurrencyLimit.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTests {
+
+    private static final long WINDOW_NANOS = 100_000_000L;
+
+    private final AtomicReference<Double> poolWait = new AtomicReference<>(0.0);
+
+    // Limit 10: critical may use all 10, normal 8, low 5
+    private final AdaptiveConcurrencyLimit limit =
+        new AdaptiveConcurrencyLimit(10, 2, 50, 0.8, 0.5, 100, 200, 10, poolWait::get);
+
+    @Test
+    void lowPriorityIsShedBeforeScoring() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire(Priority.LOW)).isTrue();
+        }
+        assertThat(limit.tryAcquire(Priority.LOW)).isFalse();
+        assertThat(limit.tryAcquire(Priority.NORMAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.NORMAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.NORMAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.NORMAL)).isFalse();
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(10);
+    }
+
+    @Test
+    void poolWaitShrinksTheLimitAndHeadroomGrowsItBack() {
+        long now = System.nanoTime();
+
+        // Congested window: the pool made requests wait 50ms on average
+        poolWait.set(50.0);
+        now = completeWindow(Priority.NORMAL, 1_000_000L, now);
+        assertThat(limit.getLimit()).isEqualTo(8);
+        now = completeWindow(Priority.NORMAL, 1_000_000L, now);
+        assertThat(limit.getLimit()).isEqualTo(6);
+        // Low priority is now capped at 3 requests, while scoring still gets 6
+        assertThat(limit.tryAcquire(Priority.LOW)).isTrue();
+        assertThat(limit.tryAcquire(Priority.LOW)).isTrue();
+        assertThat(limit.tryAcquire(Priority.LOW)).isTrue();
+        assertThat(limit.tryAcquire(Priority.LOW)).isFalse();
+        assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+        for (int i = 0; i < 4; i++) {
+            limit.release(Priority.LOW, 1_000_000L, now);
+        }
+
+        // Recovered, and shedding showed there was demand: one more per window
+        poolWait.set(0.0);
+        now = completeWindow(Priority.NORMAL, 1_000_000L, now);
+        assertThat(limit.getLimit()).isEqualTo(7);
+    }
+
+    @Test
+    void slowScoringShrinksTheLimit() {
+        long now = System.nanoTime();
+        completeWindow(Priority.CRITICAL, 500_000_000L, now);
+        assertThat(limit.getLimit()).isEqualTo(8);
+    }
+
+    // One request that ends the window after the previous one
+    private long completeWindow(Priority priority, long latencyNanos, long now) {
+        assertThat(limit.tryAcquire(priority)).isTrue();
+        now += WINDOW_NANOS;
+        limit.release(priority, latencyNanos, now);
+        return now;
+    }
+}
@@ -0,0 +1,37 @@
+package com.volleyball.scoretracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GuestTokensTests {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T12:00:00Z");
+
+    private final GuestTokens tokens = new GuestTokens("test-secret");
+
+    @Test
+    void tokenCarriesSessionIdUntilItExpires() {
+        UUID sessionId = UUID.randomUUID();
+        String token = tokens.issue(sessionId, NOW.plusSeconds(60));
+
+        assertThat(tokens.verify(token, NOW)).contains(sessionId);
+        assertThat(tokens.verify(token, NOW.plusSeconds(60))).isEmpty();
+    }
+
+    @Test
+    void alteredOrForeignTokensAreRejected() {
+        String token = tokens.issue(UUID.randomUUID(), NOW.plusSeconds(60));
+        String otherSession = tokens.issue(UUID.randomUUID(), NOW.plusSeconds(60));
+
+        // Another session's payload under this token's signature
+        String swapped = otherSession.substring(0, otherSession.indexOf('.')) + token.substring(token.indexOf('.'));
+        assertThat(tokens.verify(swapped, NOW)).isEmpty();
+        assertThat(new GuestTokens("other-secret").verify(token, NOW)).isEmpty();
+        assertThat(tokens.verify("not-a-token", NOW)).isEmpty();
+        assertThat(tokens.verify(UUID.randomUUID().toString(), NOW)).isEmpty();
+    }
+}
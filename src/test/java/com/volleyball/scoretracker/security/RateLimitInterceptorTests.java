@@ -0,0 +1,65 @@
+package com.volleyball.scoretracker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+    "app.rateLimit.enabled=true",
+    "app.rateLimit.reads.capacity=3",
+    "app.rateLimit.reads.refillPerSecond=0.01",
+    "app.rateLimit.sessionCreation.capacity=3",
+    "app.rateLimit.sessionCreation.refillPerSecond=0.01"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitInterceptorTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GuestTokens guestTokens;
+
+    @Test
+    void madeUpSessionHeadersShareTheClientsAddressBucket() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(status(post("/api/guest/session").header("Guest-Session-Id", UUID.randomUUID().toString())))
+                .isNotEqualTo(429);
+        }
+        assertThat(status(post("/api/guest/session").header("Guest-Session-Id", UUID.randomUUID().toString())))
+            .isEqualTo(429);
+
+        String address = "10.1.2.3";
+        for (int i = 0; i < 3; i++) {
+            assertThat(status(read(address, UUID.randomUUID().toString()))).isNotEqualTo(429);
+        }
+        assertThat(status(read(address, UUID.randomUUID().toString()))).isEqualTo(429);
+
+        // A signed token has a bucket of its own, whatever address it comes from
+        String token = guestTokens.issue(UUID.randomUUID(), Instant.now().plusSeconds(60));
+        assertThat(status(read(address, token))).isNotEqualTo(429);
+    }
+
+    private MockHttpServletRequestBuilder read(String address, String sessionHeader) {
+        return get("/api/matches").header("Guest-Session-Id", sessionHeader).with(request -> {
+            request.setRemoteAddr(address);
+            return request;
+        });
+    }
+
+    private int status(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse().getStatus();
+    }
+}
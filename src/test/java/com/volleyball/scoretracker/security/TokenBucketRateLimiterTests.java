@@ -0,0 +1,111 @@
+package com.volleyball.scoretracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTests {
+
+    private static final long MILLIS = 1_000_000L;
+    private static final long SECOND = 1_000 * MILLIS;
+
+    @Test
+    void emptyBucketRefillsAtTheConfiguredRate() {
+        // 2 tokens, 10 per second: one every 100ms
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 10, 1024);
+        byte user = TokenBucketRateLimiter.KIND_USER;
+
+        assertThat(limiter.tryAcquire(user, 1L, 0)).isZero();
+        assertThat(limiter.tryAcquire(user, 1L, 0)).isZero();
+        assertThat(limiter.tryAcquire(user, 1L, 0)).isEqualTo(100);
+        assertThat(limiter.tryAcquire(user, 1L, 40 * MILLIS)).isEqualTo(60);
+        assertThat(limiter.tryAcquire(user, 1L, 100 * MILLIS)).isZero();
+
+        // Other identities and kinds have buckets of their own
+        assertThat(limiter.tryAcquire(user, 2L, 100 * MILLIS)).isZero();
+        assertThat(limiter.tryAcquire(TokenBucketRateLimiter.KIND_IP, 1L, 100 * MILLIS)).isZero();
+
+        // Never more than capacity, however long the bucket sat
+        for (int i = 0; i < 2; i++) {
+            assertThat(limiter.tryAcquire(user, 1L, 10 * SECOND)).isZero();
+        }
+        assertThat(limiter.tryAcquire(user, 1L, 10 * SECOND)).isPositive();
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertThat(TokenBucketRateLimiter.retryAfterSeconds(1)).isEqualTo(1);
+        assertThat(TokenBucketRateLimiter.retryAfterSeconds(999)).isEqualTo(1);
+        assertThat(TokenBucketRateLimiter.retryAfterSeconds(1000)).isEqualTo(1);
+        assertThat(TokenBucketRateLimiter.retryAfterSeconds(1001)).isEqualTo(2);
+        assertThat(TokenBucketRateLimiter.retryAfterSeconds(4500)).isEqualTo(5);
+    }
+
+    @Test
+    void removingABucketKeepsTheRestOfItsProbeChainReachable() {
+        // 8 buckets per stripe in a 16-slot table: keys of one stripe collide and probe
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 64 * 8);
+        List<Long> keys = sameStripe(7);
+
+        // The first key is used at 0, the others just before it would go idle
+        limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, keys.get(0), 0);
+        for (Long key : keys.subList(1, keys.size())) {
+            limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, key, SECOND - MILLIS);
+        }
+
+        assertThat(limiter.evictIdle(SECOND + MILLIS)).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(keys.size() - 1);
+
+        // Each survivor is still found with its empty bucket rather than getting a new full one
+        for (Long key : keys.subList(1, keys.size())) {
+            assertThat(limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, key, SECOND)).as("key %d", key).isPositive();
+        }
+        assertThat(limiter.size()).isEqualTo(keys.size() - 1);
+    }
+
+    @Test
+    void fullStripeDropsItsLeastRecentlyUsedBucket() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 64 * 2);
+        List<Long> keys = sameStripe(3);
+
+        limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, keys.get(0), 0);
+        limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, keys.get(1), 10 * MILLIS);
+        // Stripe is full: the third key replaces the first
+        limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, keys.get(2), 20 * MILLIS);
+
+        assertThat(limiter.size()).isEqualTo(2);
+        assertThat(limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, keys.get(1), 30 * MILLIS)).isPositive();
+        assertThat(limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, keys.get(2), 30 * MILLIS)).isPositive();
+        // Forgotten, so it starts over with a full bucket
+        assertThat(limiter.tryAcquire(TokenBucketRateLimiter.KIND_USER, keys.get(0), 30 * MILLIS)).isZero();
+    }
+
+    @Test
+    void memoryStaysBoundedUnderManyIdentities() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1, 256);
+        for (long key = 0; key < 10_000; key++) {
+            assertThat(limiter.tryAcquire(TokenBucketRateLimiter.KIND_IP, "10.0." + key, key * MILLIS)).isZero();
+        }
+        int size = limiter.size();
+        assertThat(size).isLessThanOrEqualTo(256);
+
+        // Everything has refilled 5s after its last use
+        assertThat(limiter.evictIdle(20 * SECOND)).isEqualTo(size);
+        assertThat(limiter.size()).isZero();
+    }
+
+    // User ids that share the stripe of id 0
+    private static List<Long> sameStripe(int count) {
+        int stripe = TokenBucketRateLimiter.stripeOf(TokenBucketRateLimiter.KIND_USER, 0L);
+        List<Long> keys = new ArrayList<>();
+        for (long key = 0; keys.size() < count; key++) {
+            if (TokenBucketRateLimiter.stripeOf(TokenBucketRateLimiter.KIND_USER, key) == stripe) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,84 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.dto.RegisterRequest;
+import com.volleyball.scoretracker.model.AccountPurge;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// maxRunMs=0: every run is a single chunk, as if the job were cut off after each one
+@SpringBootTest(properties = {"app.accountPurge.batchSize=2", "app.accountPurge.pauseMs=0", "app.accountPurge.maxRunMs=0"})
+@ActiveProfiles("test")
+class AccountPurgeServiceTests {
+
+    @Autowired
+    private AccountPurgeService accountPurgeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void accountIsLockedOutAtOnceAndPurgedInResumableChunks() {
+        User user = userService.createUser(new RegisterRequest("purged", "purged@example.com", "secret1"));
+        Long userId = user.getId();
+        Match first = null;
+        for (int i = 0; i < 5; i++) {
+            Match match = transactionTemplate.execute(status -> matchService.createMatch("Home", "Away", userId, null));
+            first = first == null ? match : first;
+        }
+        Long deletedId = first.getId();
+        transactionTemplate.executeWithoutResult(status -> matchService.deleteMatch(deletedId, userId, null));
+        jdbcTemplate.update("INSERT INTO archived_matches (id, team1_id, team2_id, rule_set, team1sets, team2sets, " +
+            "packed_sets, user_id, created_at, completed_at, archived_at) SELECT id + 1000000, team1_id, team2_id, " +
+            "rule_set, 3, 0, packed_sets, user_id, created_at, created_at, ? FROM matches WHERE id = ?",
+            LocalDateTime.now(), deletedId);
+
+        AccountPurge purge = accountPurgeService.requestPurge(userId);
+
+        // Tombstoned matches count too: they are rows to remove
+        assertThat(purge.getMatchesTotal()).isEqualTo(5);
+        assertThat(purge.getArchivedTotal()).isEqualTo(1);
+        assertThat(userService.findByUsername("purged")).isEmpty();
+        assertThat(accountPurgeService.requestPurge(userId).getId()).isEqualTo(purge.getId());
+
+        // 5 matches in chunks of 2, then the archived match, then teams and the user row
+        long[] expectedMatchesPurged = {2, 4, 5, 5, 5};
+        for (long expected : expectedMatchesPurged) {
+            accountPurgeService.runPendingPurges();
+            assertThat(accountPurgeService.findPurge(purge.getId()).orElseThrow().getMatchesPurged()).isEqualTo(expected);
+        }
+
+        AccountPurge done = accountPurgeService.findPurge(purge.getId()).orElseThrow();
+        assertThat(done.isCompleted()).isTrue();
+        assertThat(done.getArchivedPurged()).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE id = ?", userId)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM matches WHERE user_id = ?", userId)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM teams WHERE user_id = ?", userId)).isZero();
+
+        // The username is free again
+        assertThat(userService.createUser(new RegisterRequest("purged", "purged@example.com", "secret1")).getId())
+            .isNotEqualTo(userId);
+    }
+
+    private int count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+}
@@ -0,0 +1,107 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.event.InProcessEventBus;
+import com.volleyball.scoretracker.model.GuestSession;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.repository.GuestSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Services publish through the in-process bus; events "from another node" are injected with deliver()
+@SpringBootTest
+@ActiveProfiles("test")
+class ClusterEventTests {
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private GuestSessionRepository guestSessionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<ClusterEvent> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void recordEvents() {
+        eventBus.subscribe(received::add);
+    }
+
+    @Test
+    void matchMutationsPublishEvents() {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        // One persistence context, as open-in-view gives a web request
+        Match match = transactionTemplate.execute(status -> {
+            Match created = matchService.createMatch("A", "B", null, sessionId);
+            matchService.updateScore(created.getId(), "team1", null, sessionId);
+            matchService.deleteMatch(created.getId(), null, sessionId);
+            assertThat(received).isEmpty();
+            return created;
+        });
+
+        String key = match.getId().toString();
+        assertThat(received)
+            .filteredOn(event -> event.getKey().equals(key))
+            .extracting(ClusterEvent::getType)
+            .containsExactly(ClusterEvent.Type.MATCH_UPDATED, ClusterEvent.Type.MATCH_UPDATED,
+                             ClusterEvent.Type.MATCH_DELETED);
+    }
+
+    @Test
+    void sessionRemovedOnAnotherNodeRevokesItsToken() {
+        GuestSession session = guestSessionService.createGuestSession();
+        String token = guestSessionService.issueToken(session);
+        String sessionId = session.getSessionId().toString();
+        assertThat(guestSessionService.resolveToken(token)).contains(sessionId);
+
+        // Tokens are checked without the database: this node accepts it until the other node's event arrives
+        ((InProcessEventBus) eventBus).deliver(
+            new ClusterEvent(ClusterEvent.Type.SESSION_REMOVED, sessionId, "other-node"));
+        assertThat(guestSessionService.resolveToken(token)).isEmpty();
+        assertThat(guestSessionService.isSessionValid(sessionId)).isFalse();
+    }
+
+    @Test
+    void revocationMissedByThisNodeIsReadBackAfterAResync() {
+        GuestSession session = guestSessionService.createGuestSession();
+        String token = guestSessionService.issueToken(session);
+
+        // Stored by another node whose SESSION_REMOVED never arrived here
+        transactionTemplate.executeWithoutResult(status ->
+            guestSessionRepository.revoke(session.getSessionId(), session.getExpiresAt()));
+        assertThat(guestSessionService.resolveToken(token)).isPresent();
+
+        ((InProcessEventBus) eventBus).deliver(new ClusterEvent(ClusterEvent.Type.RESYNC, "", "other-node"));
+        assertThat(guestSessionService.resolveToken(token)).isEmpty();
+    }
+
+    @Test
+    void deletingSessionPublishesRemoval() {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        assertThat(guestSessionService.isSessionValid(sessionId)).isTrue();
+
+        assertThat(guestSessionService.deleteSession(sessionId)).isTrue();
+
+        assertThat(received).extracting(ClusterEvent::getType, ClusterEvent::getKey)
+            .contains(org.assertj.core.groups.Tuple.tuple(ClusterEvent.Type.SESSION_REMOVED, sessionId));
+        assertThat(guestSessionService.isSessionValid(sessionId)).isFalse();
+    }
+}
@@ -0,0 +1,72 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.dto.CourtState;
+import com.volleyball.scoretracker.dto.DashboardResponse;
+import com.volleyball.scoretracker.model.Match;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.dashboard.refreshMs=200")
+@ActiveProfiles("test")
+class DashboardServiceTests {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentScreensShareOneSnapshotRebuild() throws Exception {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        Match court1 = transactionTemplate.execute(status -> matchService.createMatch("North", "South", null, sessionId));
+        Match court2 = transactionTemplate.execute(status -> matchService.createMatch("East", "West", null, sessionId));
+        long rebuildsBefore = meterRegistry.timer("dashboard.rebuild").count();
+
+        ExecutorService screens = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<DashboardResponse>> polls = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                polls.add(() -> dashboardService.getForGuest(sessionId, null));
+            }
+            for (Future<DashboardResponse> poll : screens.invokeAll(polls)) {
+                assertThat(poll.get().getCourts()).extracting(CourtState::getMatchId)
+                    .containsExactly(court2.getId(), court1.getId());
+            }
+        } finally {
+            screens.shutdown();
+        }
+        assertThat(meterRegistry.timer("dashboard.rebuild").count() - rebuildsBefore).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status ->
+            matchService.updateScore(court1.getId(), "team1", null, sessionId));
+        Thread.sleep(250);
+
+        DashboardResponse response = dashboardService.getForGuest(sessionId, List.of(court1.getId(), 999_999L));
+        assertThat(response.getCourts()).hasSize(1);
+        assertThat(response.getCourts().get(0).getTeam1Score()).isEqualTo(1);
+        assertThat(response.getCourts().get(0).getTeam1Name()).isEqualTo("North");
+    }
+}
@@ -0,0 +1,58 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.model.HeadToHead;
+import com.volleyball.scoretracker.model.Match;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HeadToHeadServiceTests {
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void newMatchCarriesTheRecordBetweenItsTeamsInEitherOrder() {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        playSweep("Lions", "Tigers", sessionId);
+        playSweep(" tigers ", "LIONS", sessionId);
+        playSweep("Tigers", "Bears", sessionId);
+
+        Match match = transactionTemplate.execute(status -> matchService.createMatch("Lions", "Tigers", null, sessionId));
+        HeadToHead headToHead = match.getHeadToHead();
+
+        assertThat(headToHead.getTeam1()).isEqualTo("Lions");
+        assertThat(headToHead.getMatches()).isEqualTo(2);
+        assertThat(headToHead.getTeam1Wins()).isEqualTo(1);
+        assertThat(headToHead.getTeam2Wins()).isEqualTo(1);
+        assertThat(headToHead.getTeam1Sets()).isEqualTo(3);
+        assertThat(headToHead.getTeam2Sets()).isEqualTo(3);
+        assertThat(headToHead.getTeam1Points()).isEqualTo(75);
+        assertThat(headToHead.getRecent()).hasSize(2);
+        // Newest first, oriented to the requested order: the Tigers swept the rematch
+        assertThat(headToHead.getRecent().get(0).getTeam2Sets()).isEqualTo(3);
+        assertThat(headToHead.getRecent().get(0).getSetScores()).containsExactly("0-25", "0-25", "0-25");
+    }
+
+    // team1 wins 25-0 three times
+    private void playSweep(String team1, String team2, String sessionId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Match match = matchService.createMatch(team1, team2, null, sessionId);
+            for (int point = 0; point < 75; point++) {
+                matchService.updateScore(match.getId(), "team1", null, sessionId);
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LastLoginRecorderTests {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 1, 12, 0, 0);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LastLoginRecorder recorder = new LastLoginRecorder(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void wireRepository() {
+        ReflectionTestUtils.setField(recorder, "userRepository", userRepository);
+    }
+
+    @Test
+    void loginsAreWrittenAsOneUpdatePerDistinctSecond() {
+        recorder.record(1L, NOON.plusNanos(100_000_000));
+        recorder.record(2L, NOON.plusNanos(900_000_000));
+        recorder.record(3L, NOON.plusSeconds(1));
+        // Only the latest login of a user is written, whatever order they arrive in
+        recorder.record(3L, NOON);
+        recorder.record(1L, NOON.plusSeconds(1).plusNanos(500_000_000));
+
+        recorder.flush();
+
+        verify(userRepository).updateLastLoginAt(argThat(ids -> ids.size() == 1 && ids.contains(2L)), eq(NOON));
+        verify(userRepository).updateLastLoginAt(
+            argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 3L))), eq(NOON.plusSeconds(1)));
+        verify(userRepository, times(2)).updateLastLoginAt(any(), any());
+
+        // Nothing pending: the next flush writes nothing
+        reset(userRepository);
+        recorder.flush();
+        verify(userRepository, never()).updateLastLoginAt(any(), any());
+    }
+
+    @Test
+    void failedBatchIsRetriedOnTheNextFlush() {
+        when(userRepository.updateLastLoginAt(any(), any())).thenThrow(new RuntimeException("connection refused"));
+        recorder.record(7L, NOON);
+        recorder.flush();
+
+        reset(userRepository);
+        recorder.flush();
+        verify(userRepository).updateLastLoginAt(List.of(7L), NOON);
+    }
+}
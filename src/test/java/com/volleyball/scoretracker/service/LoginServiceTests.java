@@ -0,0 +1,69 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.model.User;
+import com.volleyball.scoretracker.model.UserType;
+import com.volleyball.scoretracker.security.UserDetailsImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class LoginServiceTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // One verification thread and one queued login
+    private final LoginService loginService = new LoginService(meterRegistry, 1, 1);
+    private final CountDownLatch verifying = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        loginService.shutdown();
+    }
+
+    @Test
+    void loginIsRejectedAtOnceWhenThePoolAndQueueAreFull() throws Exception {
+        User user = new User("spiker", "spiker@example.com", "hash", UserType.REGISTERED);
+        user.setId(1L);
+        // Holds the verification thread until released, like a slow BCrypt check
+        AuthenticationManager slowBcrypt = authentication -> {
+            verifying.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new UsernamePasswordAuthenticationToken(UserDetailsImpl.build(user), null, List.of());
+        };
+        ReflectionTestUtils.setField(loginService, "authenticationManager", slowBcrypt);
+        ReflectionTestUtils.setField(loginService, "lastLoginRecorder", mock(LastLoginRecorder.class));
+
+        CompletableFuture<UserDetailsImpl> running = loginService.login("spiker", "secret1");
+        assertThat(verifying.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<UserDetailsImpl> queued = loginService.login("spiker", "secret1");
+
+        assertThatThrownBy(() -> loginService.login("spiker", "secret1"))
+            .isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("auth.login.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.login.queue.depth").gauge().value()).isEqualTo(1);
+
+        // The admitted logins still complete once verification frees up
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("spiker");
+        assertThat(queued.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("spiker");
+    }
+}
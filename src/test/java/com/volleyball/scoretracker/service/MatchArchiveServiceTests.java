@@ -0,0 +1,126 @@
+package com.volleyball.scoretracker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.volleyball.scoretracker.dto.RegisterRequest;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.security.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {"app.rateLimit.enabled=false", "app.archive.afterDays=7"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MatchArchiveServiceTests {
+
+    @Autowired
+    private MatchArchiveService matchArchiveService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void archivedMatchReadsBackExactlyAsItWasServedBefore() throws Exception {
+        Long userId = userService.createUser(new RegisterRequest("archivist", "archivist@example.com", "secret1")).getId();
+        String token = jwtUtils.generateJwtToken("archivist");
+
+        Long old = play(userId, "Spikers", "Blockers", true);
+        Long recent = play(userId, "Aces", "Diggers", true);
+        Long unfinished = play(userId, "Setters", "Liberos", false);
+        ageBy(old, 8);
+        ageBy(unfinished, 8);
+
+        JsonNode detailBefore = read("/api/matches/" + old, token);
+        JsonNode listBefore = find(read("/api/matches", token), old);
+        assertThat(listBefore).isNotNull();
+
+        assertThat(matchArchiveService.archiveBatch()).isEqualTo(1);
+        // Nothing else qualifies: the recent match is too new and the old one still in progress
+        assertThat(matchArchiveService.archiveBatch()).isZero();
+
+        assertThat(count("SELECT COUNT(*) FROM matches WHERE id = ?", old)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM set_scores WHERE match_id = ?", old)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM archived_matches WHERE id = ?", old)).isEqualTo(1);
+        for (Long kept : new Long[] {recent, unfinished}) {
+            assertThat(count("SELECT COUNT(*) FROM matches WHERE id = ?", kept)).as("match %d", kept).isEqualTo(1);
+            assertThat(count("SELECT COUNT(*) FROM archived_matches WHERE id = ?", kept)).as("match %d", kept).isZero();
+        }
+
+        // Drop the JSON cached before the move, so the detail is read from the archive
+        eventBus.publish(ClusterEvent.Type.MATCH_UPDATED, old.toString());
+        assertThat(read("/api/matches/" + old, token)).isEqualTo(detailBefore);
+        assertThat(find(read("/api/matches", token), old)).isEqualTo(listBefore);
+    }
+
+    // Creates a match and scores team 1 until it has won, or just a few points when not finished
+    private Long play(Long userId, String team1, String team2, boolean finish) {
+        Long matchId = transactionTemplate.execute(status -> matchService.createMatch(team1, team2, userId, null)).getId();
+        for (int rally = 0; rally < (finish ? 1000 : 3); rally++) {
+            Match match = transactionTemplate.execute(status -> matchService.updateScore(matchId, "team1", userId, null));
+            if (match.getStatus() == MatchStatus.COMPLETED) {
+                break;
+            }
+        }
+        return matchId;
+    }
+
+    private void ageBy(Long matchId, int days) {
+        jdbcTemplate.update("UPDATE matches SET created_at = created_at - INTERVAL '" + days + "' DAY, " +
+            "last_score_time = last_score_time - INTERVAL '" + days + "' DAY WHERE id = ?", matchId);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_score_time FROM matches WHERE id = ?",
+            LocalDateTime.class, matchId)).isBefore(LocalDateTime.now().minusDays(7));
+    }
+
+    private JsonNode read(String path, String token) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    private static JsonNode find(JsonNode matches, Long matchId) {
+        for (JsonNode match : matches) {
+            if (match.get("id").asLong() == matchId) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private int count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+}
@@ -0,0 +1,112 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.Match;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MatchPurgeServiceTests {
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchPurgeService matchPurgeService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MatchResponseCache matchResponseCache;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Test
+    void bulkDeleteHidesMatchesAtOnceAndPurgeRemovesThem() {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        String otherSessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Match match = transactionTemplate.execute(status -> matchService.createMatch("Home", "Away", null, sessionId));
+            ids.add(match.getId());
+        }
+        transactionTemplate.executeWithoutResult(status ->
+            matchService.updateScore(ids.get(0), "team1", null, sessionId));
+        Match kept = transactionTemplate.execute(status -> matchService.createMatch("Home", "Away", null, sessionId));
+        Match others = transactionTemplate.execute(status -> matchService.createMatch("Home", "Away", null, otherSessionId));
+
+        // Cached before the delete
+        matchResponseCache.getMatchJson(ids.get(1), null, sessionId);
+        matchResponseCache.getMatchJson(kept.getId(), null, sessionId);
+        List<ClusterEvent> events = new CopyOnWriteArrayList<>();
+        eventBus.subscribe(events::add);
+
+        List<Long> request = new ArrayList<>(ids);
+        request.add(others.getId());
+        int deleted = transactionTemplate.execute(status -> matchService.deleteMatches(request, null, sessionId));
+
+        // One owner-scoped invalidation for the whole call
+        String owner = TeamAnalyticsService.guestOwner(sessionId);
+        assertThat(events).extracting(ClusterEvent::getType, ClusterEvent::getKey).containsExactly(
+            tuple(ClusterEvent.Type.MATCHES_DELETED, owner), tuple(ClusterEvent.Type.RESULTS_CHANGED, owner));
+        assertThatThrownBy(() -> matchResponseCache.getMatchJson(ids.get(1), null, sessionId))
+            .hasMessageContaining("not found");
+        assertThat(matchResponseCache.getMatchJson(kept.getId(), null, sessionId)).isNotEmpty();
+
+        // Only the caller's matches, and they are gone from every read right away
+        assertThat(deleted).isEqualTo(5);
+        List<Match> remaining = transactionTemplate.execute(status -> matchService.getMatchesForGuestSession(sessionId));
+        assertThat(remaining).extracting(Match::getId).containsExactly(kept.getId());
+        assertThatThrownBy(() -> matchService.getMatchById(ids.get(0), null, sessionId))
+            .hasMessageContaining("not found");
+        Match untouched = transactionTemplate.execute(status -> matchService.getMatchById(others.getId(), null, otherSessionId));
+        assertThat(untouched).isNotNull();
+        assertThat(rows(ids)).isEqualTo(5);
+
+        while (matchPurgeService.purgeBatch() > 0) {
+            // Drain every tombstone, one chunk per transaction
+        }
+        assertThat(rows(ids)).isZero();
+        assertThat(rows(List.of(kept.getId(), others.getId()))).isEqualTo(2);
+    }
+
+    @Test
+    void sessionWithDeletedMatchesCanStillBeRemoved() {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        Match match = transactionTemplate.execute(status -> matchService.createMatch("Home", "Away", null, sessionId));
+        transactionTemplate.executeWithoutResult(status -> matchService.deleteMatch(match.getId(), null, sessionId));
+
+        assertThat(guestSessionService.deleteSession(sessionId)).isTrue();
+        assertThat(rows(List.of(match.getId()))).isZero();
+    }
+
+    private int rows(List<Long> ids) {
+        int count = 0;
+        for (Long id : ids) {
+            count += jdbcTemplate.queryForObject("SELECT COUNT(*) FROM matches WHERE id = ?", Integer.class, id);
+        }
+        return count;
+    }
+}
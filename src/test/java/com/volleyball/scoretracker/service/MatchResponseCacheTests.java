@@ -0,0 +1,150 @@
+package com.volleyball.scoretracker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.volleyball.scoretracker.dto.RegisterRequest;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.model.Match;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MatchResponseCacheTests {
+
+    @Autowired
+    private MatchResponseCache matchResponseCache;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Archived reads go through here, which lets a test change other state in the middle of a load
+    @MockitoSpyBean
+    private MatchArchiveService matchArchiveService;
+
+    @Test
+    void concurrentReadersShareOneLoadAndSeeEveryScoreChange() throws Exception {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        Match match = transactionTemplate.execute(status -> matchService.createMatch("Spikers", "Blockers", null, sessionId));
+        double missesBefore = misses();
+
+        ExecutorService readers = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<byte[]>> reads = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                reads.add(() -> matchResponseCache.getMatchJson(match.getId(), null, sessionId));
+            }
+            for (Future<byte[]> read : readers.invokeAll(reads)) {
+                JsonNode json = objectMapper.readTree(read.get());
+                assertThat(json.get("team1Name").asText()).isEqualTo("Spikers");
+                assertThat(json.get("team1Score").asInt()).isZero();
+            }
+        } finally {
+            readers.shutdown();
+        }
+        assertThat(misses() - missesBefore).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status ->
+            matchService.updateScore(match.getId(), "team1", null, sessionId));
+        JsonNode updated = objectMapper.readTree(matchResponseCache.getMatchJson(match.getId(), null, sessionId));
+        assertThat(updated.get("team1Score").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedMatchIsStillOwnerOnly() {
+        String owner = guestSessionService.createGuestSession().getSessionId().toString();
+        String other = guestSessionService.createGuestSession().getSessionId().toString();
+        Match match = transactionTemplate.execute(status -> matchService.createMatch("Aces", "Diggers", null, owner));
+
+        matchResponseCache.getMatchJson(match.getId(), null, owner);
+        assertThatThrownBy(() -> matchResponseCache.getMatchJson(match.getId(), null, other))
+            .hasMessageContaining("Unauthorized");
+        assertThatThrownBy(() -> matchResponseCache.getMatchJson(match.getId(), 42L, null))
+            .hasMessageContaining("Unauthorized");
+        assertThatThrownBy(() -> matchResponseCache.getMatchJson(999_999L, null, owner))
+            .hasMessageContaining("not found");
+    }
+
+    @Test
+    void onlyAWriteToTheMatchBeingLoadedKeepsItOutOfTheCache() {
+        Long userId = userService.createUser(new RegisterRequest("cached", "cached@example.com", "secret1")).getId();
+        Long other = transactionTemplate.execute(status -> matchService.createMatch("Aces", "Diggers", userId, null)).getId();
+        Long archivedId = archive(transactionTemplate.execute(status ->
+            matchService.createMatch("Spikers", "Blockers", userId, null)).getId());
+
+        // Another match changes while this one loads: still cached
+        whileLoading(archivedId, ClusterEvent.Type.MATCH_UPDATED, other.toString());
+        matchResponseCache.getMatchJson(archivedId, userId, null);
+        double missesBefore = misses();
+        matchResponseCache.getMatchJson(archivedId, userId, null);
+        assertThat(misses()).isEqualTo(missesBefore);
+
+        // This match changes while it loads: served once, then loaded again
+        eventBus.publish(ClusterEvent.Type.MATCH_UPDATED, archivedId.toString());
+        whileLoading(archivedId, ClusterEvent.Type.MATCH_UPDATED, archivedId.toString());
+        matchResponseCache.getMatchJson(archivedId, userId, null);
+        missesBefore = misses();
+        matchResponseCache.getMatchJson(archivedId, userId, null);
+        assertThat(misses()).isEqualTo(missesBefore + 1);
+    }
+
+    private void whileLoading(Long matchId, ClusterEvent.Type type, String key) {
+        doAnswer(invocation -> {
+            eventBus.publish(type, key);
+            return invocation.callRealMethod();
+        }).when(matchArchiveService).findArchived(matchId);
+    }
+
+    private Long archive(Long matchId) {
+        Long archivedId = matchId + 1_000_000;
+        jdbcTemplate.update("INSERT INTO archived_matches (id, team1_id, team2_id, rule_set, team1sets, team2sets, " +
+            "packed_sets, user_id, created_at, completed_at, archived_at) SELECT ?, team1_id, team2_id, " +
+            "rule_set, 3, 0, packed_sets, user_id, created_at, created_at, ? FROM matches WHERE id = ?",
+            archivedId, LocalDateTime.now(), matchId);
+        return archivedId;
+    }
+
+    private double misses() {
+        return meterRegistry.counter("match.response.cache", "result", "miss").count();
+    }
+}
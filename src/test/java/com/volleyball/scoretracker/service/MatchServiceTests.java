@@ -0,0 +1,73 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.Momentum;
+import com.volleyball.scoretracker.model.PackedSetScores;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MatchServiceTests {
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void editingTheScoreRestartsTheSetsMomentum() {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        long matchId = transactionTemplate.execute(status -> matchService.createMatch("Home", "Away", null, sessionId)).getId();
+        for (int i = 0; i < 3; i++) {
+            score(matchId, "team1", sessionId);
+        }
+
+        Match edited = transactionTemplate.execute(status -> matchService.editCurrentSetScore(matchId, 10, 12, null, sessionId));
+        Momentum momentum = edited.getMomentum();
+        assertThat(momentum.getRallies()).isZero();
+        assertThat(momentum.getCurrentRun()).isZero();
+
+        // Runs start again from the edited score, and undo takes back only the new rally
+        momentum = score(matchId, "team2", sessionId).getMomentum();
+        assertThat(momentum.getRallies()).isEqualTo(1);
+        assertThat(momentum.getCurrentRunTeam()).isEqualTo("team2");
+        assertThat(momentum.getCurrentRun()).isEqualTo(1);
+        Match undone = transactionTemplate.execute(status -> matchService.undoLastPoint(matchId, null, sessionId));
+        assertThat(undone.getTeam2Score()).isEqualTo(12);
+        assertThat(undone.getMomentum().getRallies()).isZero();
+    }
+
+    @Test
+    void aDeucePastTheStorableScoreIsRefusedWithoutChangingTheMatch() {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        long matchId = transactionTemplate.execute(status -> matchService.createMatch("Home", "Away", null, sessionId)).getId();
+        transactionTemplate.executeWithoutResult(status -> matchService.editCurrentSetScore(matchId, 255, 254, null, sessionId));
+
+        assertThatThrownBy(() -> score(matchId, "team1", sessionId))
+            .hasMessage("Set score cannot exceed 255 points");
+        assertThatThrownBy(() -> transactionTemplate.execute(status ->
+                matchService.editCurrentSetScore(matchId, 300, 0, null, sessionId)))
+            .hasMessage("Set score cannot exceed 255 points");
+
+        Match match = transactionTemplate.execute(status -> matchService.getMatchById(matchId, null, sessionId));
+        assertThat(match.getTeam1Score()).isEqualTo(255);
+        assertThat(match.getTeam2Score()).isEqualTo(254);
+        assertThat(match.getCurrentSet()).isEqualTo(1);
+        assertThat(PackedSetScores.setCount(match.getPackedSets())).isZero();
+    }
+
+    private Match score(long matchId, String team, String sessionId) {
+        return transactionTemplate.execute(status -> matchService.updateScore(matchId, team, null, sessionId));
+    }
+}
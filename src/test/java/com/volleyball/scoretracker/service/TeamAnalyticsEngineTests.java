@@ -0,0 +1,111 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.dto.TeamStatsResponse;
+import com.volleyball.scoretracker.model.MatchResult;
+import com.volleyball.scoretracker.model.PackedSetScores;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamAnalyticsEngineTests {
+
+    // Stand-in for a team dictionary: the id is the position in this list
+    private static final List<String> TEAMS = List.of("Eagles", "Hawks", "Owls");
+
+    @Test
+    void computesWinRatesMarginsComebacksAndDecidingSets() {
+        List<MatchResult> results = List.of(
+            // Eagles come back from 0-2 and win the fifth set
+            result("Eagles", "Hawks", 20, 25, 22, 25, 25, 20, 25, 23, 15, 10),
+            // Hawks sweep
+            result("Hawks", "Owls", 25, 10, 25, 12, 25, 15),
+            // Owls win 3-1: not a deciding set, no 0-2 deficit
+            result("Owls", "Eagles", 25, 20, 23, 25, 25, 21, 25, 19));
+
+        List<TeamStatsResponse> stats = TeamAnalyticsEngine.analyze(results, Integer.MAX_VALUE);
+
+        assertThat(stats).extracting(TeamStatsResponse::getTeam).containsExactly("Eagles", "Hawks", "Owls");
+
+        TeamStatsResponse eagles = stats.get(0);
+        assertThat(eagles.getMatchesPlayed()).isEqualTo(2);
+        assertThat(eagles.getWins()).isEqualTo(1);
+        assertThat(eagles.getLosses()).isEqualTo(1);
+        assertThat(eagles.getWinRate()).isEqualTo(0.5);
+        assertThat(eagles.getTrailedZeroTwo()).isEqualTo(1);
+        assertThat(eagles.getComebackWins()).isEqualTo(1);
+        assertThat(eagles.getComebackRate()).isEqualTo(1.0);
+        assertThat(eagles.getDecidingSetWins()).isEqualTo(1);
+        assertThat(eagles.getDecidingSetLosses()).isEqualTo(0);
+        // (-5 - 3 + 5 + 2 + 5) + (-5 + 2 - 4 - 6) = -9 over 9 sets
+        assertThat(eagles.getAverageSetMargin()).isEqualTo(-1.0);
+
+        TeamStatsResponse hawks = stats.get(1);
+        assertThat(hawks.getMatchesPlayed()).isEqualTo(2);
+        assertThat(hawks.getWins()).isEqualTo(1);
+        assertThat(hawks.getTrailedZeroTwo()).isEqualTo(0);
+        assertThat(hawks.getDecidingSetLosses()).isEqualTo(1);
+
+        TeamStatsResponse owls = stats.get(2);
+        assertThat(owls.getWins()).isEqualTo(1);
+        assertThat(owls.getTrailedZeroTwo()).isEqualTo(1);
+        assertThat(owls.getComebackWins()).isEqualTo(0);
+        assertThat(owls.getComebackRate()).isEqualTo(0.0);
+    }
+
+    @Test
+    void parallelAndSequentialAggregationAgree() {
+        List<MatchResult> results = syntheticResults(20_000, 50);
+
+        List<TeamStatsResponse> sequential = TeamAnalyticsEngine.analyze(results, Integer.MAX_VALUE);
+        List<TeamStatsResponse> parallel = TeamAnalyticsEngine.analyze(results, 0);
+
+        assertThat(parallel).usingRecursiveFieldByFieldElementComparator().isEqualTo(sequential);
+    }
+
+    @Test
+    void analyzesOneHundredThousandMatches() {
+        List<MatchResult> results = syntheticResults(100_000, 500);
+
+        List<TeamStatsResponse> stats = TeamAnalyticsEngine.analyze(results, 4096);
+
+        assertThat(stats).hasSize(500);
+        assertThat(stats.stream().mapToInt(TeamStatsResponse::getMatchesPlayed).sum()).isEqualTo(200_000);
+    }
+
+    private static List<MatchResult> syntheticResults(int count, int teams) {
+        Random random = new Random(7);
+        List<MatchResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int home = random.nextInt(teams);
+            int away = (home + 1 + random.nextInt(teams - 1)) % teams;
+            byte[] packed = PackedSetScores.empty();
+            int homeSets = 0;
+            int awaySets = 0;
+            for (int set = 1; homeSets < 3 && awaySets < 3; set++) {
+                int target = set == 5 ? 15 : 25;
+                int loserPoints = random.nextInt(target - 1);
+                if (random.nextBoolean()) {
+                    packed = PackedSetScores.withSet(packed, set, target, loserPoints);
+                    homeSets++;
+                } else {
+                    packed = PackedSetScores.withSet(packed, set, loserPoints, target);
+                    awaySets++;
+                }
+            }
+            results.add(new MatchResult(home, "Team " + home, away, "Team " + away, packed));
+        }
+        return results;
+    }
+
+    private static MatchResult result(String team1, String team2, int... points) {
+        byte[] packed = PackedSetScores.empty();
+        for (int set = 1; set <= points.length / 2; set++) {
+            packed = PackedSetScores.withSet(packed, set, points[set * 2 - 2], points[set * 2 - 1]);
+        }
+        return new MatchResult(TEAMS.indexOf(team1), team1, TEAMS.indexOf(team2), team2, packed);
+    }
+}
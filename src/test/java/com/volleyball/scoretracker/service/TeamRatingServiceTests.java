@@ -0,0 +1,218 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.dto.LeaderboardEntry;
+import com.volleyball.scoretracker.event.ClusterEvent;
+import com.volleyball.scoretracker.event.ClusterEventBus;
+import com.volleyball.scoretracker.migration.V21__Rebuild_team_ratings;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.MatchStatus;
+import com.volleyball.scoretracker.model.Team;
+import com.volleyball.scoretracker.model.TeamNames;
+import com.volleyball.scoretracker.model.User;
+import com.volleyball.scoretracker.model.UserType;
+import com.volleyball.scoretracker.repository.TeamRatingRepository;
+import com.volleyball.scoretracker.repository.UserRepository;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TeamRatingServiceTests {
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TeamRatingService teamRatingService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private TeamRatingRepository teamRatingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ClusterEventBus eventBus;
+
+    // Owner of the matches built without a database; ratings only need the id
+    private static final long OWNER = 1L;
+
+    @Test
+    void completingAMatchRatesBothTeamsAndReopeningItUndoesThat() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Long userId = userRepository.save(new User("rater" + suffix, "rater" + suffix + "@example.com", "hash",
+            UserType.REGISTERED)).getId();
+        Long matchId = transactionTemplate.execute(status -> {
+            Match match = matchService.createMatch("Alpha " + suffix, "Beta " + suffix, userId, null);
+            for (int point = 0; point < 75; point++) {
+                matchService.updateScore(match.getId(), "team1", userId, null);
+            }
+            return match.getId();
+        });
+
+        // Equal starting ratings: the winner takes half the K factor
+        assertThat(rating("Alpha " + suffix)).isCloseTo(1516.0, within(0.05));
+        assertThat(rating("beta  " + suffix)).isCloseTo(1484.0, within(0.05));
+
+        // Giving set 1 to team 2 reopens the match at 2-1, so it is no longer rated
+        transactionTemplate.executeWithoutResult(status ->
+            matchService.editCompletedSet(matchId, 1, 20, 25, userId, null));
+        assertThat(rating("Alpha " + suffix)).isCloseTo(1500.0, within(0.05));
+        assertThat(leaderboardEntry("Alpha " + suffix).get().getMatchesRated()).isZero();
+    }
+
+    @Test
+    void flippedResultIsUndoneBeforeTheNewOneIsRated() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Match match = new Match(new Team(OWNER, null, "Gamma " + suffix), new Team(OWNER, null, "Delta " + suffix));
+        match.setStatus(MatchStatus.COMPLETED);
+        match.setTeam1Sets(3);
+        match.setTeam2Sets(2);
+        teamRatingService.syncRating(match);
+        assertThat(match.getRatingDelta()).isCloseTo(16.0, within(0.001));
+
+        match.setTeam1Sets(2);
+        match.setTeam2Sets(3);
+        teamRatingService.syncRating(match);
+        assertThat(match.getRatingDelta()).isCloseTo(-16.0, within(0.001));
+        assertThat(rating("Delta " + suffix)).isCloseTo(1516.0, within(0.05));
+        assertThat(leaderboardEntry("Delta " + suffix).get().getMatchesRated()).isEqualTo(1);
+
+        // Same result again: nothing changes
+        teamRatingService.syncRating(match);
+        assertThat(rating("Gamma " + suffix)).isCloseTo(1484.0, within(0.05));
+    }
+
+    @Test
+    void newTeamsAreRatedInsideTheScoringTransaction() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Match match = new Match(new Team(OWNER, null, "Epsilon " + suffix), new Team(OWNER, null, "Zeta " + suffix));
+        match.setStatus(MatchStatus.COMPLETED);
+        match.setTeam1Sets(3);
+
+        // Rolled back with the point that completed the match: no rating rows are left behind
+        transactionTemplate.executeWithoutResult(status -> {
+            teamRatingService.syncRating(match);
+            status.setRollbackOnly();
+        });
+        assertThat(teamRatingRepository.existsById(TeamRatingService.teamKey(OWNER, "Epsilon " + suffix))).isFalse();
+        assertThat(teamRatingRepository.existsById(TeamRatingService.teamKey(OWNER, "Zeta " + suffix))).isFalse();
+    }
+
+    @Test
+    void guestMatchesAreNotRated() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        Match completed = completeMatch("Eta " + suffix, "Theta " + suffix, null, sessionId);
+
+        assertThat(completed.getStatus()).isEqualTo(MatchStatus.COMPLETED);
+        assertThat(completed.getRatingDelta()).isNull();
+        assertThat(leaderboardEntry("Eta " + suffix)).isEmpty();
+        assertThat(leaderboardEntry("Theta " + suffix)).isEmpty();
+    }
+
+    @Test
+    void sameNamedTeamsOfDifferentOwnersAreRatedApart() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        for (long owner : List.of(OWNER, OWNER + 1)) {
+            Match match = new Match(new Team(owner, null, "Iota " + suffix), new Team(owner, null, "Kappa " + suffix));
+            match.setStatus(MatchStatus.COMPLETED);
+            match.setTeam1Sets(owner == OWNER ? 3 : 0);
+            match.setTeam2Sets(owner == OWNER ? 0 : 3);
+            teamRatingService.syncRating(match);
+        }
+
+        assertThat(teamRatingService.getLeaderboard(Integer.MAX_VALUE)).filteredOn(entry -> entry.getTeam().equals("Iota " + suffix))
+            .extracting(LeaderboardEntry::getRating).containsExactly(1516.0, 1484.0);
+    }
+
+    @Test
+    void migrationReplaysRegisteredResultsIntoPerOwnerRatings() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Long userId = userRepository.save(new User("replay" + suffix, "replay" + suffix + "@example.com", "hash",
+            UserType.REGISTERED)).getId();
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        Match rated = completeMatch("Lambda " + suffix, "Mu " + suffix, userId, null);
+        Match guest = completeMatch("Lambda " + suffix, "Mu " + suffix, null, sessionId);
+        // As left by the name-keyed ratings
+        jdbcTemplate.update("UPDATE matches SET rating_delta = 16 WHERE id = ?", guest.getId());
+        jdbcTemplate.update("INSERT INTO team_ratings (team_key, team_name, rating, matches_rated, updated_at) " +
+            "VALUES (?, ?, 1532, 2, CURRENT_TIMESTAMP)", TeamNames.normalize("Lambda " + suffix), "Lambda " + suffix);
+
+        try (Connection connection = dataSource.getConnection()) {
+            new V21__Rebuild_team_ratings().migrate(new Context() {
+                @Override
+                public Configuration getConfiguration() {
+                    return null;
+                }
+
+                @Override
+                public Connection getConnection() {
+                    return connection;
+                }
+            });
+        }
+        eventBus.publish(ClusterEvent.Type.RESYNC, "");
+
+        assertThat(leaderboardEntry("Lambda " + suffix)).get()
+            .extracting(LeaderboardEntry::getRating, LeaderboardEntry::getMatchesRated).containsExactly(1516.0, 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT rating_delta FROM matches WHERE id = ?", Double.class, rated.getId()))
+            .isCloseTo(16.0, within(0.001));
+        assertThat(jdbcTemplate.queryForObject("SELECT rating_delta FROM matches WHERE id = ?", Double.class, guest.getId()))
+            .isNull();
+        assertThat(teamRatingRepository.existsById(TeamNames.normalize("Lambda " + suffix))).isFalse();
+    }
+
+    // Team 1 wins 3-0
+    private Match completeMatch(String team1, String team2, Long userId, String sessionId) {
+        return transactionTemplate.execute(status -> {
+            Match match = matchService.createMatch(team1, team2, userId, sessionId);
+            for (int point = 0; point < 74; point++) {
+                matchService.updateScore(match.getId(), "team1", userId, sessionId);
+            }
+            return matchService.updateScore(match.getId(), "team1", userId, sessionId);
+        });
+    }
+
+    private double rating(String team) {
+        String key = TeamNames.normalize(team);
+        return teamRatingService.getLeaderboard(Integer.MAX_VALUE).stream()
+            .filter(entry -> TeamNames.normalize(entry.getTeam()).equals(key))
+            .findFirst()
+            .orElseThrow()
+            .getRating();
+    }
+
+    private Optional<LeaderboardEntry> leaderboardEntry(String team) {
+        return teamRatingService.getLeaderboard(Integer.MAX_VALUE).stream()
+            .filter(entry -> entry.getTeam().equals(team))
+            .findFirst();
+    }
+}
@@ -0,0 +1,99 @@
+package com.volleyball.scoretracker.service;
+
+import com.volleyball.scoretracker.dto.RegisterRequest;
+import com.volleyball.scoretracker.model.Match;
+import com.volleyball.scoretracker.model.User;
+import com.volleyball.scoretracker.repository.TeamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TeamServiceTests {
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GuestSessionService guestSessionService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void spellingsOfATeamShareOneTeamPerOwner() {
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        String otherSessionId = guestSessionService.createGuestSession().getSessionId().toString();
+
+        Match first = transactionTemplate.execute(status -> matchService.createMatch("Lions", "Tigers", null, sessionId));
+        Match second = transactionTemplate.execute(status -> matchService.createMatch(" tigers ", "LIONS", null, sessionId));
+        Match other = transactionTemplate.execute(status -> matchService.createMatch("Lions", "Tigers", null, otherSessionId));
+
+        assertThat(second.getTeam1Id()).isEqualTo(first.getTeam2Id());
+        assertThat(second.getTeam2Id()).isEqualTo(first.getTeam1Id());
+        // The first spelling is the one shown
+        assertThat(second.getTeam2Name()).isEqualTo("Lions");
+        assertThat(other.getTeam1Id()).isNotEqualTo(first.getTeam1Id());
+    }
+
+    @Test
+    void claimMergesGuestTeamsIntoTheUsersTeamsOfTheSameName() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userService.createUser(new RegisterRequest("claimer" + suffix, suffix + "@example.com", "password123"));
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+
+        Match owned = transactionTemplate.execute(status -> matchService.createMatch("Lions", "Bears", user.getId(), null));
+        Match guest = transactionTemplate.execute(status -> matchService.createMatch("lions", "Wolves", null, sessionId));
+
+        transactionTemplate.executeWithoutResult(status -> matchService.claimGuestMatches(user.getId(), sessionId));
+
+        List<Match> matches = transactionTemplate.execute(status -> matchService.getMatchesForUser(user.getId()));
+        Match claimed = matches.stream().filter(match -> match.getId().equals(guest.getId())).findFirst().orElseThrow();
+        assertThat(claimed.getTeam1Id()).isEqualTo(owned.getTeam1Id());
+        assertThat(claimed.getTeam1Name()).isEqualTo("Lions");
+        assertThat(claimed.getTeam2Id()).isEqualTo(guest.getTeam2Id());
+
+        // The moved team now resolves for the user
+        Match next = transactionTemplate.execute(status -> matchService.createMatch("Wolves", "Bears", user.getId(), null));
+        assertThat(next.getTeam1Id()).isEqualTo(guest.getTeam2Id());
+        assertThat(next.getTeam2Id()).isEqualTo(owned.getTeam2Id());
+    }
+
+    @Test
+    void rowsOfARolledBackCreateAreNeitherStoredNorCached() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userService.createUser(new RegisterRequest("rollback" + suffix, suffix + "@example.org", "password123"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            matchService.createMatch("Herons", "Cranes", user.getId(), null);
+            status.setRollbackOnly();
+        });
+        assertThat(teamRepository.findByUserIdAndNormalizedName(user.getId(), "herons")).isEmpty();
+
+        // Resolved again from scratch, not from an id that was never committed
+        Match match = transactionTemplate.execute(status -> matchService.createMatch("Herons", "Cranes", user.getId(), null));
+        assertThat(teamRepository.findById(match.getTeam1Id())).isPresent();
+
+        // A guest's session row goes with its first match
+        String sessionId = guestSessionService.createGuestSession().getSessionId().toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            matchService.createMatch("Herons", "Cranes", null, sessionId);
+            status.setRollbackOnly();
+        });
+        assertThat(guestSessionService.findBySessionId(sessionId)).isEmpty();
+    }
+}